@@ -0,0 +1,17 @@
+package be.ucll.backend2.config;
+
+import java.time.Instant;
+
+// Maakt de access tokens die JwtService uitgeeft:
+// Hs256JwtEncoder (gedeeld secret) of Es256JwtEncoder (publieke sleutel).
+// roles is de compacte rol claim, zie RoleClaimJwtAuthenticationConverter.encode
+@FunctionalInterface
+public interface AccessTokenEncoder {
+    String encode(String tokenId, String subject, String emailAddress, long roles,
+                  Instant issuedAt, Instant expiresAt);
+
+    // false op een instantie die enkel verifieert (ES256 met enkel jwt.asymmetric.jwk-set-uri)
+    default boolean canSign() {
+        return true;
+    }
+}
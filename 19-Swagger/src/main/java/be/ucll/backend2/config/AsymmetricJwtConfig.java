@@ -0,0 +1,89 @@
+package be.ucll.backend2.config;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.jwk.source.ImmutableJWKSet;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.jwk.source.JWKSourceBuilder;
+import com.nimbusds.jose.proc.JWSVerificationKeySelector;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.oauth2.core.OAuth2TokenValidator;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+
+import java.net.MalformedURLException;
+import java.time.Instant;
+
+// ES256 in plaats van HS256 (jwt.algorithm=ES256): enkel wie de private sleutel heeft kan tokens maken,
+// iedereen met de publieke sleutels (/.well-known/jwks.json) kan ze verifiëren.
+@Configuration
+@ConditionalOnProperty(prefix = "jwt", name = "algorithm", havingValue = "ES256")
+public class AsymmetricJwtConfig {
+    private static final Logger logger = LoggerFactory.getLogger(AsymmetricJwtConfig.class);
+
+    @Bean
+    public AsymmetricKeys asymmetricKeys(JwtProperties jwtProperties) {
+        final var asymmetric = jwtProperties.asymmetric();
+        if (asymmetric.keySetFile() != null) {
+            return AsymmetricKeys.load(asymmetric.keySetFile(), asymmetric.activeKeyId());
+        }
+        if (asymmetric.jwkSetUri() != null) {
+            return AsymmetricKeys.verifyOnly();
+        }
+        logger.warn("No JWT key set configured, using autogenerated ES256 key");
+        return AsymmetricKeys.generate();
+    }
+
+    @Bean
+    public AccessTokenEncoder jwtEncoder(AsymmetricKeys asymmetricKeys, JwtProperties jwtProperties) {
+        if (asymmetricKeys.signingKey() == null) {
+            // SessionService kijkt canSign() na en antwoordt dan 503, nog vóór een refresh token verbruikt wordt
+            return new AccessTokenEncoder() {
+                @Override
+                public String encode(String tokenId, String subject, String emailAddress, long roles,
+                                     Instant issuedAt, Instant expiresAt) {
+                    throw new IllegalStateException(
+                            "This instance only verifies tokens, configure jwt.asymmetric.key-set-file to sign");
+                }
+
+                @Override
+                public boolean canSign() {
+                    return false;
+                }
+            };
+        }
+        return new Es256JwtEncoder(asymmetricKeys.signingKey(), jwtProperties.token().issuer());
+    }
+
+    @Bean
+    public JwtDecoder jwtDecoder(AsymmetricKeys asymmetricKeys,
+                                 JwtProperties jwtProperties,
+                                 OAuth2TokenValidator<Jwt> tokenRevocationValidator) throws MalformedURLException {
+        final var asymmetric = jwtProperties.asymmetric();
+        final JWKSource<SecurityContext> jwkSource;
+        if (asymmetric.jwkSetUri() == null) {
+            jwkSource = new ImmutableJWKSet<>(asymmetricKeys.publicKeys());
+        } else {
+            // Lokale cache van de JWKS die op de achtergrond ververst wordt voor hij vervalt,
+            // zodat geen enkele request op de sessieservice moet wachten
+            jwkSource = JWKSourceBuilder.<SecurityContext>create(asymmetric.jwkSetUri().toURL())
+                    .cache(asymmetric.jwksCacheTimeToLive().toMillis(),
+                            JWKSourceBuilder.DEFAULT_CACHE_REFRESH_TIMEOUT)
+                    .refreshAheadCache(asymmetric.jwksRefreshAhead().toMillis(), true)
+                    .build();
+        }
+        final var jwtProcessor = new DefaultJWTProcessor<SecurityContext>();
+        jwtProcessor.setJWSKeySelector(new JWSVerificationKeySelector<>(JWSAlgorithm.ES256, jwkSource));
+        // Claims worden door de validators van Spring Security gecontroleerd
+        jwtProcessor.setJWTClaimsSetVerifier((claims, context) -> {});
+        final var decoder = new NimbusJwtDecoder(jwtProcessor);
+        decoder.setJwtValidator(SecurityConfig.jwtValidator(tokenRevocationValidator));
+        return SecurityConfig.cachingJwtDecoder(decoder, jwtProperties, tokenRevocationValidator);
+    }
+}
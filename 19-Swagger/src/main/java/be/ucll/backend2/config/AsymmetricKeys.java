@@ -0,0 +1,78 @@
+package be.ucll.backend2.config;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.jwk.Curve;
+import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.KeyUse;
+import com.nimbusds.jose.jwk.gen.ECKeyGenerator;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.util.UUID;
+
+// Sleutels voor ES256: de private sleutel waarmee de sessieservice ondertekent en de publieke sleutels die via
+// /.well-known/jwks.json gepubliceerd worden. Een instantie die enkel verifieert heeft geen private sleutel.
+public class AsymmetricKeys {
+    private final ECKey signingKey;
+    private final JWKSet publicKeys;
+
+    private AsymmetricKeys(ECKey signingKey, JWKSet publicKeys) {
+        this.signingKey = signingKey;
+        this.publicKeys = publicKeys;
+    }
+
+    // JWK Set met private P-256 sleutels (zie KeyGenerator); oude sleutels blijven erin zolang er tokens mee bestaan
+    public static AsymmetricKeys load(Path keySetFile, String activeKeyId) {
+        final JWKSet keySet;
+        try {
+            keySet = JWKSet.load(keySetFile.toFile());
+        } catch (IOException | ParseException e) {
+            throw new IllegalStateException("Could not read JWT key set " + keySetFile, e);
+        }
+        final var signingKey = keySet.getKeys().stream()
+                .filter(key -> key instanceof ECKey && key.isPrivate())
+                .map(key -> (ECKey) key)
+                .filter(key -> Curve.P_256.equals(key.getCurve()))
+                .filter(key -> activeKeyId == null || activeKeyId.equals(key.getKeyID()))
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("No private P-256 key "
+                        + (activeKeyId == null ? "" : activeKeyId + " ") + "in " + keySetFile));
+        if (signingKey.getKeyID() == null) {
+            throw new IllegalStateException("JWT signing key in " + keySetFile + " has no kid");
+        }
+        return new AsymmetricKeys(signingKey, keySet.toPublicJWKSet());
+    }
+
+    public static AsymmetricKeys generate() {
+        final var signingKey = newSigningKey();
+        return new AsymmetricKeys(signingKey, new JWKSet(signingKey.toPublicJWK()));
+    }
+
+    public static AsymmetricKeys verifyOnly() {
+        return new AsymmetricKeys(null, new JWKSet());
+    }
+
+    public static ECKey newSigningKey() {
+        try {
+            return new ECKeyGenerator(Curve.P_256)
+                    .keyID(UUID.randomUUID().toString())
+                    .keyUse(KeyUse.SIGNATURE)
+                    .algorithm(JWSAlgorithm.ES256)
+                    .generate();
+        } catch (JOSEException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // null als deze instantie enkel verifieert
+    public ECKey signingKey() {
+        return signingKey;
+    }
+
+    public JWKSet publicKeys() {
+        return publicKeys;
+    }
+}
@@ -0,0 +1,47 @@
+package be.ucll.backend2.config;
+
+import java.util.concurrent.Semaphore;
+
+// Eén groep van routes: hoogstens maxConcurrent requests tegelijk. Is de groep vol, dan wordt een request
+// meteen geweigerd; wachten zou een worker thread bezet houden die een andere groep nodig heeft.
+public class Bulkhead {
+    private final String name;
+    private final ConcurrencyProperties.Priority priority;
+    private final int maxConcurrent;
+    private final Semaphore permits;
+
+    public Bulkhead(String name, ConcurrencyProperties.Priority priority, int maxConcurrent) {
+        if (maxConcurrent <= 0) {
+            throw new IllegalArgumentException("Bulkhead " + name + " needs a positive max-concurrent");
+        }
+        this.name = name;
+        this.priority = priority;
+        this.maxConcurrent = maxConcurrent;
+        this.permits = new Semaphore(maxConcurrent);
+    }
+
+    // Na true moet release() opgeroepen worden
+    public boolean tryAcquire() {
+        return permits.tryAcquire();
+    }
+
+    public void release() {
+        permits.release();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public ConcurrencyProperties.Priority getPriority() {
+        return priority;
+    }
+
+    public int getMaxConcurrent() {
+        return maxConcurrent;
+    }
+
+    public int getActive() {
+        return maxConcurrent - permits.availablePermits();
+    }
+}
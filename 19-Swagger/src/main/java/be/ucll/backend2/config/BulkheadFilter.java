@@ -0,0 +1,134 @@
+package be.ucll.backend2.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.PathContainer;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+// Verdeelt de requests (vóór springSecurityFilterChain, dus nog voor een JWT gecontroleerd wordt) over de
+// bulkheads uit concurrency.bulkheads. Een storm aan logins kan zo enkel de plaatsen van zijn eigen groep
+// opgebruiken: LOW groepen worden daarbovenop geweigerd zodra enkel de voor HIGH gereserveerde plaatsen nog vrij
+// zijn. Wie geweigerd wordt, krijgt meteen een 503 met Retry-After; er wordt nooit op een worker thread gewacht.
+// Requests die bij geen enkele groep horen (bv. Swagger UI, actuator) worden niet begrensd.
+public class BulkheadFilter extends OncePerRequestFilter {
+    private static final byte[] REJECTED = "{\"message\":\"Too many concurrent requests, please try again later.\"}"
+            .getBytes(StandardCharsets.UTF_8);
+
+    private final List<Route> routes = new ArrayList<>();
+    private final Map<Bulkhead, Counter> rejections;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final int lowPriorityLimit;
+    private final String retryAfter;
+
+    private record Route(List<PathPattern> paths, Set<String> methods, Bulkhead bulkhead) {
+        boolean matches(String method, PathContainer path) {
+            return (methods.isEmpty() || methods.contains(method))
+                    && paths.stream().anyMatch(pattern -> pattern.matches(path));
+        }
+    }
+
+    // workerThreads: hoeveel requests de server tegelijk kan behandelen (server.tomcat.threads.max)
+    public BulkheadFilter(ConcurrencyProperties.Bulkheads bulkheads, int workerThreads, MeterRegistry meterRegistry) {
+        // Alle groepen samen mogen nooit meer plaatsen krijgen dan er worker threads zijn, anders kan een volle
+        // groep de threads opgebruiken die een andere groep binnen zijn eigen limiet nog nodig heeft
+        final var limits = bulkheads.groups().values().stream()
+                .mapToInt(ConcurrencyProperties.Group::maxConcurrent)
+                .sum();
+        if (limits > workerThreads || bulkheads.total() > workerThreads) {
+            throw new IllegalStateException("concurrency.bulkheads needs at most " + workerThreads
+                    + " places (server.tomcat.threads.max), but the groups allow " + limits
+                    + " and total is " + bulkheads.total());
+        }
+        bulkheads.groups().forEach((name, group) -> {
+            final var bulkhead = new Bulkhead(name, group.priority(), group.maxConcurrent());
+            routes.add(new Route(
+                    group.paths().stream().map(PathPatternParser.defaultInstance::parse).toList(),
+                    group.methods().stream().map(method -> method.toUpperCase(Locale.ROOT)).collect(Collectors.toSet()),
+                    bulkhead));
+            Gauge.builder("http.server.bulkhead.active", bulkhead, Bulkhead::getActive)
+                    .description("Number of requests currently handled in this bulkhead")
+                    .tag("group", name)
+                    .register(meterRegistry);
+            Gauge.builder("http.server.bulkhead.max", bulkhead, Bulkhead::getMaxConcurrent)
+                    .tag("group", name)
+                    .register(meterRegistry);
+        });
+        this.rejections = routes.stream()
+                .map(Route::bulkhead)
+                .collect(Collectors.toMap(bulkhead -> bulkhead, bulkhead -> Counter
+                        .builder("http.server.bulkhead.rejected")
+                        .description("Number of requests answered with 503 because this bulkhead was full")
+                        .tag("group", bulkhead.getName())
+                        .register(meterRegistry)));
+        this.lowPriorityLimit = bulkheads.total() - bulkheads.reservedForHighPriority();
+        this.retryAfter = String.valueOf(Math.max(1L, bulkheads.retryAfter().toSeconds()));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        final var bulkhead = bulkheadFor(request);
+        if (bulkhead == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+        if (!admit(bulkhead)) {
+            rejections.get(bulkhead).increment();
+            reject(response);
+            return;
+        }
+        inFlight.incrementAndGet();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            inFlight.decrementAndGet();
+            bulkhead.release();
+        }
+    }
+
+    private Bulkhead bulkheadFor(HttpServletRequest request) {
+        final var path = PathContainer.parsePath(
+                request.getRequestURI().substring(request.getContextPath().length()));
+        for (final var route : routes) {
+            if (route.matches(request.getMethod(), path)) {
+                return route.bulkhead();
+            }
+        }
+        return null;
+    }
+
+    private boolean admit(Bulkhead bulkhead) {
+        if (bulkhead.getPriority() == ConcurrencyProperties.Priority.LOW && inFlight.get() >= lowPriorityLimit) {
+            return false;
+        }
+        return bulkhead.tryAcquire();
+    }
+
+    private void reject(HttpServletResponse response) throws IOException {
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, retryAfter);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setContentLength(REJECTED.length);
+        response.getOutputStream().write(REJECTED);
+    }
+}
@@ -0,0 +1,105 @@
+package be.ucll.backend2.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.security.oauth2.core.OAuth2TokenValidator;
+import org.springframework.security.oauth2.core.OAuth2TokenValidatorResult;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+
+// Clients sturen hetzelfde token honderden keren. In plaats van telkens de JSON te parsen, de HMAC te
+// berekenen en de validators te laten lopen, onthouden we de reeds geverifieerde Jwt tot hij vervalt.
+// Enkel succesvol geverifieerde tokens komen in de cache.
+public class CachingJwtDecoder implements JwtDecoder {
+    private final JwtDecoder delegate;
+    private final Cache<String, Jwt> cache;
+    private final long maxTimeToLive;
+    private final OAuth2TokenValidator<Jwt> cacheHitValidator;
+
+    public CachingJwtDecoder(JwtDecoder delegate, long maximumSize, Duration maxTimeToLive) {
+        this(delegate, maximumSize, maxTimeToLive, jwt -> OAuth2TokenValidatorResult.success());
+    }
+
+    // cacheHitValidator loopt ook bij elke cache hit, voor wat na het cachen nog kan veranderen (bv. intrekking)
+    public CachingJwtDecoder(JwtDecoder delegate,
+                             long maximumSize,
+                             Duration maxTimeToLive,
+                             OAuth2TokenValidator<Jwt> cacheHitValidator) {
+        this.delegate = delegate;
+        this.cacheHitValidator = cacheHitValidator;
+        this.maxTimeToLive = maxTimeToLive.toNanos();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new Expiry<String, Jwt>() {
+                    @Override
+                    public long expireAfterCreate(String key, Jwt jwt, long currentTime) {
+                        return timeToLive(jwt);
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, Jwt jwt, long currentTime, long currentDuration) {
+                        return timeToLive(jwt);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, Jwt jwt, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+    }
+
+    @Override
+    public Jwt decode(String token) throws JwtException {
+        final var key = digest(token);
+        final var cached = cache.getIfPresent(key);
+        if (cached != null && isNotExpired(cached)) {
+            if (!cacheHitValidator.validate(cached).hasErrors()) {
+                return cached;
+            }
+            // De delegate gooit de gepaste JwtValidationException
+            cache.invalidate(key);
+        }
+        // Gooit een JwtException als het token ongeldig is, dan wordt er niets gecachet
+        final var jwt = delegate.decode(token);
+        cache.put(key, jwt);
+        return jwt;
+    }
+
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "jwtDecoder");
+    }
+
+    private long timeToLive(Jwt jwt) {
+        if (jwt.getExpiresAt() == null) {
+            return maxTimeToLive;
+        }
+        final var remaining = Duration.between(Instant.now(), jwt.getExpiresAt()).toNanos();
+        return Math.clamp(remaining, 0L, maxTimeToLive);
+    }
+
+    private static boolean isNotExpired(Jwt jwt) {
+        return jwt.getExpiresAt() == null || jwt.getExpiresAt().isAfter(Instant.now());
+    }
+
+    // Key is een SHA-256 digest, zodat de cache geen volledige tokens bijhoudt
+    private static String digest(String token) {
+        try {
+            final var digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return new String(digest, StandardCharsets.ISO_8859_1);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
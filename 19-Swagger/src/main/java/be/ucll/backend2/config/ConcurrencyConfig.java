@@ -0,0 +1,107 @@
+package be.ucll.backend2.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.servlet.DispatcherType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBooleanProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.autoconfigure.web.ServerProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+
+// Met spring.threads.virtual.enabled=true draaien Tomcat, @Async en @Scheduled op virtual threads.
+// Hashen gebeurt sowieso op de begrensde PasswordHashingExecutor; hier wordt het gebruik van JDBC begrensd en
+// pinning opgevolgd. Met platform threads (de standaard) verandert er niets.
+// De bulkheads per groep van routes gelden in beide gevallen.
+@Configuration
+@EnableConfigurationProperties(ConcurrencyProperties.class)
+public class ConcurrencyConfig {
+    private static final Logger logger = LoggerFactory.getLogger(ConcurrencyConfig.class);
+
+    @Bean
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public static BeanPostProcessor concurrencyLimitingDataSourcePostProcessor(
+            ObjectProvider<ConcurrencyProperties> concurrencyProperties) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource) || bean instanceof ConcurrencyLimitingDataSource) {
+                    return bean;
+                }
+                final var jdbc = concurrencyProperties.getObject().jdbc();
+                final int permits;
+                if (jdbc.maxConcurrent() > 0) {
+                    permits = jdbc.maxConcurrent();
+                } else if (dataSource instanceof HikariDataSource hikariDataSource) {
+                    permits = hikariDataSource.getMaximumPoolSize();
+                } else {
+                    // Geen pool om op af te stemmen: niet begrenzen
+                    return bean;
+                }
+                logger.info("At most {} concurrent JDBC connections on DataSource {}", permits, beanName);
+                return new ConcurrencyLimitingDataSource(dataSource, permits, jdbc.acquireTimeout());
+            }
+        };
+    }
+
+    @Bean
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public MeterBinder concurrencyLimitingDataSourceMetrics(ObjectProvider<DataSource> dataSources) {
+        return meterRegistry -> dataSources.orderedStream()
+                .filter(ConcurrencyLimitingDataSource.class::isInstance)
+                .map(ConcurrencyLimitingDataSource.class::cast)
+                .forEach(dataSource -> bind(dataSource, meterRegistry));
+    }
+
+    private static void bind(ConcurrencyLimitingDataSource dataSource, MeterRegistry meterRegistry) {
+        Gauge.builder("jdbc.connections.limiter.available", dataSource,
+                        ConcurrencyLimitingDataSource::getAvailablePermits)
+                .description("Number of threads that can still get a JDBC connection without waiting")
+                .register(meterRegistry);
+        Gauge.builder("jdbc.connections.limiter.waiting", dataSource,
+                        ConcurrencyLimitingDataSource::getWaitingThreads)
+                .description("Number of threads waiting for a JDBC connection")
+                .register(meterRegistry);
+    }
+
+    @Bean
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    @ConditionalOnBooleanProperty(prefix = "concurrency.pinning", name = "enabled", matchIfMissing = true)
+    public VirtualThreadPinningMonitor virtualThreadPinningMonitor(ConcurrencyProperties concurrencyProperties,
+                                                                   MeterRegistry meterRegistry) {
+        return new VirtualThreadPinningMonitor(concurrencyProperties.pinning().threshold(), meterRegistry);
+    }
+
+    @Bean
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    @ConditionalOnBooleanProperty(prefix = "concurrency.bulkheads", name = "enabled", matchIfMissing = true)
+    public FilterRegistrationBean<BulkheadFilter> bulkheadFilter(ConcurrencyProperties concurrencyProperties,
+                                                                 ServerProperties serverProperties,
+                                                                 Environment environment,
+                                                                 MeterRegistry meterRegistry) {
+        // Met virtual threads is er geen pool van worker threads die opgebruikt kan worden
+        final var workerThreads = Threading.VIRTUAL.isActive(environment)
+                ? Integer.MAX_VALUE
+                : serverProperties.getTomcat().getThreads().getMax();
+        final var registration = new FilterRegistrationBean<>(
+                new BulkheadFilter(concurrencyProperties.bulkheads(), workerThreads, meterRegistry));
+        // Vóór springSecurityFilterChain: een geweigerd request kost bijna niets
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER - 2);
+        registration.setDispatcherTypes(DispatcherType.REQUEST);
+        return registration;
+    }
+}
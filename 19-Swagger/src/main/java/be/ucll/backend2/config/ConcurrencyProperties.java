@@ -0,0 +1,52 @@
+package be.ucll.backend2.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+@ConfigurationProperties(prefix = "concurrency")
+public record ConcurrencyProperties(// Enkel van toepassing met spring.threads.virtual.enabled=true
+                                    @DefaultValue Jdbc jdbc,
+                                    // Enkel van toepassing met spring.threads.virtual.enabled=true
+                                    @DefaultValue Pinning pinning,
+                                    @DefaultValue Bulkheads bulkheads) {
+    // maxConcurrent = 0 betekent: evenveel als de connection pool groot is
+    public record Jdbc(@DefaultValue("0") int maxConcurrent,
+                       @DefaultValue("5s") Duration acquireTimeout) {}
+
+    // Meld virtual threads die minstens threshold aan hun carrier thread vastzaten
+    public record Pinning(@DefaultValue("true") boolean enabled,
+                          @DefaultValue("20ms") Duration threshold) {}
+
+    // Begrenst per groep van routes hoeveel requests er tegelijk in de servlet variant behandeld worden
+    public record Bulkheads(@DefaultValue("true") boolean enabled,
+                            // Maximum aantal requests in alle groepen samen, hoogstens server.tomcat.threads.max
+                            @DefaultValue("200") int total,
+                            // Zoveel plaatsen van total kunnen enkel door HIGH groepen gebruikt worden
+                            @DefaultValue("50") int reservedForHighPriority,
+                            @DefaultValue("1s") Duration retryAfter,
+                            // In volgorde: de eerste groep waarvan een pad (en methode) overeenkomt
+                            @DefaultValue Map<String, Group> groups) {}
+
+    // methods leeg = alle methodes
+    public record Group(List<String> paths,
+                        @DefaultValue List<String> methods,
+                        @DefaultValue("HIGH") Priority priority,
+                        int maxConcurrent) {
+        public Group {
+            // Al bij het binden, een groep zonder paden zou anders pas bij het eerste request falen
+            if (paths == null || paths.isEmpty()) {
+                throw new IllegalArgumentException("Bulkhead group needs at least one path");
+            }
+        }
+    }
+
+    public enum Priority {
+        HIGH,
+        // Wordt geweigerd zodra enkel de gereserveerde plaatsen nog vrij zijn
+        LOW
+    }
+}
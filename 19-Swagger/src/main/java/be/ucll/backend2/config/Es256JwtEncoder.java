@@ -0,0 +1,38 @@
+package be.ucll.backend2.config;
+
+import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.source.ImmutableJWKSet;
+import org.springframework.security.oauth2.jose.jws.SignatureAlgorithm;
+import org.springframework.security.oauth2.jwt.*;
+
+import java.time.Instant;
+
+// Ondertekent tokens met een private EC sleutel; verifiëren kan met enkel de publieke sleutel uit de JWKS.
+// De ECDSA handtekening kost veel meer dan de JSON, dus hier volstaat NimbusJwtEncoder.
+public class Es256JwtEncoder implements AccessTokenEncoder {
+    private final JwtEncoder delegate;
+    private final JwsHeader header;
+    private final String issuer;
+
+    public Es256JwtEncoder(ECKey signingKey, String issuer) {
+        this.delegate = new NimbusJwtEncoder(new ImmutableJWKSet<>(new JWKSet(signingKey)));
+        this.header = JwsHeader.with(SignatureAlgorithm.ES256).keyId(signingKey.getKeyID()).type("JWT").build();
+        this.issuer = issuer;
+    }
+
+    @Override
+    public String encode(String tokenId, String subject, String emailAddress, long roles,
+                         Instant issuedAt, Instant expiresAt) {
+        final var claims = JwtClaimsSet.builder()
+                .issuer(issuer)
+                .issuedAt(issuedAt)
+                .expiresAt(expiresAt)
+                .id(tokenId)
+                .subject(subject)
+                .claim("email", emailAddress)
+                .claim(RoleClaimJwtAuthenticationConverter.CLAIM, roles)
+                .build();
+        return delegate.encode(JwtEncoderParameters.from(header, claims)).getTokenValue();
+    }
+}
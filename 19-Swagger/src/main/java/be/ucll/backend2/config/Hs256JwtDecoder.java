@@ -0,0 +1,422 @@
+package be.ucll.backend2.config;
+
+import org.springframework.security.oauth2.core.OAuth2TokenValidator;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.security.oauth2.jwt.JwtValidators;
+
+import javax.crypto.Mac;
+import javax.crypto.ShortBufferException;
+import java.io.Serial;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.InvalidKeyException;
+import java.security.MessageDigest;
+import java.time.Instant;
+import java.util.AbstractMap;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+
+// Snelle weg voor tokens die Hs256JwtEncoder zelf aangemaakt heeft. De sleutel wordt via de kid in de JwtKeyRing
+// opgezocht, de handtekening wordt over de ruwe bytes van het token gecontroleerd en enkel de claims die wij
+// uitgeven (iss, jti, sub, iat, exp, nbf, email, rol en scope van oudere tokens) worden rechtstreeks uit de payload
+// gelezen, zonder generieke JSON parser, JWSObject of claim converters. Enkel wat de validators en de autorisatie
+// lezen (jti, sub, rol, iat, exp, nbf) wordt meteen aangemaakt; iss, email en scope pas als iemand erom vraagt.
+// Alles wat daarvan afwijkt (andere header, onbekende claims, escapes, ongeldige handtekening, verlopen token...)
+// gaat naar de gewone NimbusJwtDecoder, zodat fouten en randgevallen exact hetzelfde afgehandeld worden.
+public class Hs256JwtDecoder implements JwtDecoder {
+    private static final byte[] HEADER_PREFIX = "{\"alg\":\"HS256\",\"typ\":\"JWT\",\"kid\":\""
+            .getBytes(StandardCharsets.US_ASCII);
+    private static final int MAXIMUM_ENCODED_HEADER_LENGTH = 160;
+    private static final int SIGNATURE_LENGTH = 32;
+    private static final int ENCODED_SIGNATURE_LENGTH = 43;
+    private static final byte[] BASE64URL_VALUES = new byte[128];
+    // Vanaf FIRST_DEFERRED worden de claims pas bij het eerste gebruik gelezen
+    private static final String[] CLAIMS = {"jti", "sub", "rol", "iat", "exp", "nbf", "iss", "email", "scope"};
+    private static final int ROL = 2;
+    private static final int IAT = 3;
+    private static final int EXP = 4;
+    private static final int NBF = 5;
+    private static final int FIRST_DEFERRED = 6;
+    private static final byte[][] CLAIM_BYTES = toAscii(CLAIMS);
+    // Hoeveel Buffers (met hun Mac) er bijgehouden worden; wie er tegelijk meer nodig heeft, gooit ze na gebruik weg
+    private static final int POOL_SIZE = 2 * Runtime.getRuntime().availableProcessors();
+
+    static {
+        Arrays.fill(BASE64URL_VALUES, (byte) -1);
+        final var alphabet = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_";
+        for (int i = 0; i < alphabet.length(); i++) {
+            BASE64URL_VALUES[alphabet.charAt(i)] = (byte) i;
+        }
+    }
+
+    private final JwtKeyRing keyRing;
+    private final JwtDecoder fallback;
+    private final OAuth2TokenValidator<Jwt> validator;
+    // Geen ThreadLocal: met virtual threads zou elk request een nieuwe Mac initialiseren
+    private final Queue<Buffers> pool = new ArrayBlockingQueue<>(POOL_SIZE);
+
+    public Hs256JwtDecoder(JwtKeyRing keyRing, JwtDecoder fallback) {
+        this(keyRing, fallback, JwtValidators.createDefault());
+    }
+
+    // validator moet dezelfde zijn als die van de fallback
+    public Hs256JwtDecoder(JwtKeyRing keyRing, JwtDecoder fallback, OAuth2TokenValidator<Jwt> validator) {
+        this.keyRing = keyRing;
+        this.fallback = fallback;
+        this.validator = validator;
+    }
+
+    @Override
+    public Jwt decode(String token) throws JwtException {
+        final var jwt = tryDecode(token);
+        return jwt != null ? jwt : fallback.decode(token);
+    }
+
+    // Geeft null terug als het token niet langs de snelle weg kan
+    private Jwt tryDecode(String token) {
+        if (token == null) {
+            return null;
+        }
+        final var headerEnd = token.indexOf('.');
+        final var signatureStart = token.lastIndexOf('.');
+        if (headerEnd <= 0 || headerEnd > MAXIMUM_ENCODED_HEADER_LENGTH || signatureStart <= headerEnd
+                || token.length() - signatureStart - 1 != ENCODED_SIGNATURE_LENGTH) {
+            return null;
+        }
+
+        final var b = Objects.requireNonNullElseGet(pool.poll(), () -> new Buffers(newMac()));
+        final Claims claims;
+        final JwtKeyRing.SigningKey key;
+        try {
+            key = b.readKey(keyRing, token, headerEnd);
+            if (key == null || !b.verify(key, token, signatureStart)) {
+                return null;
+            }
+            final var payloadLength = b.decodePayload(token, headerEnd + 1, signatureStart);
+            if (payloadLength < 0) {
+                return null;
+            }
+            claims = readClaims(token, b.payload, payloadLength);
+        } finally {
+            pool.offer(b);
+        }
+        if (claims == null || claims.values[EXP] == null) {
+            return null;
+        }
+
+        final Jwt jwt;
+        try {
+            jwt = new Hs256Jwt(token, key, claims);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        return validator.validate(jwt).hasErrors() ? null : jwt;
+    }
+
+    private static Mac newMac() {
+        try {
+            return Mac.getInstance("HmacSHA256");
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static byte[][] toAscii(String[] values) {
+        final var bytes = new byte[values.length][];
+        for (int i = 0; i < values.length; i++) {
+            bytes[i] = values[i].getBytes(StandardCharsets.US_ASCII);
+        }
+        return bytes;
+    }
+
+    private static int base64Url(String source, int start, int end, byte[] target) {
+        if ((end - start) % 4 == 1) {
+            return -1;
+        }
+        var t = 0;
+        var bits = 0;
+        var bitCount = 0;
+        for (int i = start; i < end; i++) {
+            final var c = source.charAt(i);
+            final var value = c < 128 ? BASE64URL_VALUES[c] : -1;
+            if (value < 0) {
+                return -1;
+            }
+            bits = bits << 6 | value;
+            bitCount += 6;
+            if (bitCount >= 8) {
+                bitCount -= 8;
+                target[t++] = (byte) (bits >>> bitCount);
+            }
+        }
+        return t;
+    }
+
+    // Leest een plat JSON object met enkel gekende claims; null bij alles wat we niet verwachten
+    private static Claims readClaims(String token, byte[] json, int length) {
+        final var claims = new Claims(token);
+        var i = skipWhitespace(json, 0, length);
+        if (i >= length || json[i++] != '{') {
+            return null;
+        }
+        i = skipWhitespace(json, i, length);
+        if (i < length && json[i] == '}') {
+            return null;
+        }
+        while (true) {
+            // key
+            if (i >= length || json[i++] != '"') {
+                return null;
+            }
+            final var keyStart = i;
+            while (i < length && json[i] != '"' && json[i] != '\\') {
+                i++;
+            }
+            if (i >= length || json[i] != '"') {
+                return null;
+            }
+            final var keyEnd = i++;
+            i = skipWhitespace(json, i, length);
+            if (i >= length || json[i++] != ':') {
+                return null;
+            }
+            i = skipWhitespace(json, i, length);
+
+            // value
+            final var claim = indexOf(CLAIM_BYTES, json, keyStart, keyEnd);
+            if (claim < 0 || claims.contains(claim)) {
+                return null;
+            }
+            if (claim == ROL || (claim >= IAT && claim <= NBF)) {
+                final var valueStart = i;
+                var value = 0L;
+                while (i < length && json[i] >= '0' && json[i] <= '9' && i - valueStart < 18) {
+                    value = value * 10 + (json[i++] - '0');
+                }
+                if (i == valueStart || (i < length && json[i] >= '0' && json[i] <= '9')) {
+                    return null;
+                }
+                claims.values[claim] = claim == ROL ? (Object) value : Instant.ofEpochSecond(value);
+            } else {
+                if (i >= length || json[i++] != '"') {
+                    return null;
+                }
+                final var valueStart = i;
+                while (i < length && json[i] != '"') {
+                    if (json[i] == '\\' || (json[i] >= 0 && json[i] < 0x20)) {
+                        return null;
+                    }
+                    i++;
+                }
+                if (i >= length) {
+                    return null;
+                }
+                if (claim < FIRST_DEFERRED) {
+                    claims.values[claim] = new String(json, valueStart, i - valueStart, StandardCharsets.UTF_8);
+                } else {
+                    // Enkel onthouden waar de waarde staat
+                    claims.offsets[2 * (claim - FIRST_DEFERRED)] = valueStart;
+                    claims.offsets[2 * (claim - FIRST_DEFERRED) + 1] = i;
+                }
+                i++;
+            }
+
+            i = skipWhitespace(json, i, length);
+            if (i >= length) {
+                return null;
+            }
+            final var separator = json[i++];
+            if (separator == '}') {
+                return skipWhitespace(json, i, length) == length ? claims : null;
+            }
+            if (separator != ',') {
+                return null;
+            }
+            i = skipWhitespace(json, i, length);
+        }
+    }
+
+    private static int indexOf(byte[][] keys, byte[] json, int start, int end) {
+        for (int k = 0; k < keys.length; k++) {
+            if (Arrays.equals(json, start, end, keys[k], 0, keys[k].length)) {
+                return k;
+            }
+        }
+        return -1;
+    }
+
+    private static int skipWhitespace(byte[] json, int i, int length) {
+        while (i < length && (json[i] == ' ' || json[i] == '\t' || json[i] == '\n' || json[i] == '\r')) {
+            i++;
+        }
+        return i;
+    }
+
+    // De claims van één token, als Map voor Jwt. iss, email en scope worden bij het eerste gebruik uit het token
+    // gelezen. Een Jwt kan in de CachingJwtDecoder door meerdere threads gedeeld worden: een thread die de waarde
+    // (nog) niet ziet, leest ze gewoon zelf opnieuw, en String is veilig te delen.
+    private static final class Claims extends AbstractMap<String, Object> {
+        private final String token;
+        private final Object[] values = new Object[CLAIMS.length];
+        // Begin en einde (in de payload) van elke uitgestelde claim; einde 0 = ontbreekt
+        private final int[] offsets = new int[2 * (CLAIMS.length - FIRST_DEFERRED)];
+
+        private Claims(String token) {
+            this.token = token;
+        }
+
+        private boolean contains(int claim) {
+            return values[claim] != null
+                    || (claim >= FIRST_DEFERRED && offsets[2 * (claim - FIRST_DEFERRED) + 1] > 0);
+        }
+
+        private Object value(int claim) {
+            final var value = values[claim];
+            if (value != null || !contains(claim)) {
+                return value;
+            }
+            final var payloadStart = token.indexOf('.') + 1;
+            final var payloadEnd = token.lastIndexOf('.');
+            final var payload = new byte[(payloadEnd - payloadStart) * 3 / 4 + 1];
+            base64Url(token, payloadStart, payloadEnd, payload);
+            for (int c = FIRST_DEFERRED; c < CLAIMS.length; c++) {
+                final var start = offsets[2 * (c - FIRST_DEFERRED)];
+                final var end = offsets[2 * (c - FIRST_DEFERRED) + 1];
+                if (end > 0) {
+                    values[c] = new String(payload, start, end - start, StandardCharsets.UTF_8);
+                }
+            }
+            return values[claim];
+        }
+
+        private static int index(Object key) {
+            for (int c = 0; c < CLAIMS.length; c++) {
+                if (CLAIMS[c].equals(key)) {
+                    return c;
+                }
+            }
+            return -1;
+        }
+
+        @Override
+        public Object get(Object key) {
+            final var claim = index(key);
+            return claim < 0 ? null : value(claim);
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            final var claim = index(key);
+            return claim >= 0 && contains(claim);
+        }
+
+        // Enkel voor wie alle claims overloopt (bv. equals of serialisatie)
+        @Override
+        public Set<Entry<String, Object>> entrySet() {
+            final var entries = new LinkedHashMap<String, Object>(CLAIMS.length * 2);
+            for (int c = 0; c < CLAIMS.length; c++) {
+                if (contains(c)) {
+                    entries.put(CLAIMS[c], value(c));
+                }
+            }
+            return Collections.unmodifiableMap(entries).entrySet();
+        }
+    }
+
+    // Jwt kopieert de claims die het meekrijgt in een LinkedHashMap; daarom krijgt het enkel exp en geeft getClaims()
+    // de Claims zelf terug
+    private static final class Hs256Jwt extends Jwt {
+        private final transient Claims claims;
+
+        private Hs256Jwt(String token, JwtKeyRing.SigningKey key, Claims claims) {
+            super(token, (Instant) claims.values[IAT], (Instant) claims.values[EXP],
+                    Map.of("alg", "HS256", "typ", "JWT", "kid", key.id()),
+                    Map.of(CLAIMS[EXP], claims.values[EXP]));
+            this.claims = claims;
+        }
+
+        @Override
+        public Map<String, Object> getClaims() {
+            return claims;
+        }
+
+        // Geserialiseerd als gewone Jwt, met alle claims
+        @Serial
+        private Object writeReplace() {
+            return new Jwt(getTokenValue(), getIssuedAt(), getExpiresAt(), getHeaders(), getClaims());
+        }
+    }
+
+    // Herbruikte buffers en Mac, telkens door één thread tegelijk gebruikt
+    private static final class Buffers {
+        private final Mac mac;
+        private JwtKeyRing.SigningKey key;
+        private final byte[] header = new byte[MAXIMUM_ENCODED_HEADER_LENGTH];
+        private final byte[] signature = new byte[SIGNATURE_LENGTH];
+        private final byte[] expectedSignature = new byte[SIGNATURE_LENGTH];
+        private byte[] signingInput = new byte[512];
+        private byte[] payload = new byte[384];
+
+        private Buffers(Mac mac) {
+            this.mac = mac;
+        }
+
+        // Zoekt de sleutel op via de kid in de header; null als de header niet exact de onze is
+        private JwtKeyRing.SigningKey readKey(JwtKeyRing keyRing, String token, int headerEnd) {
+            final var length = base64Url(token, 0, headerEnd, header);
+            final var keyIdLength = length - HEADER_PREFIX.length - 2;
+            if (keyIdLength <= 0
+                    || !Arrays.equals(header, 0, HEADER_PREFIX.length, HEADER_PREFIX, 0, HEADER_PREFIX.length)
+                    || header[length - 2] != '"'
+                    || header[length - 1] != '}') {
+                return null;
+            }
+            return keyRing.key(new String(header, HEADER_PREFIX.length, keyIdLength, StandardCharsets.US_ASCII));
+        }
+
+        private boolean verify(JwtKeyRing.SigningKey signingKey, String token, int signatureStart) {
+            if (signingKey != key) {
+                try {
+                    mac.init(signingKey.secretKey());
+                } catch (InvalidKeyException e) {
+                    throw new IllegalStateException(e);
+                }
+                key = signingKey;
+            }
+            if (signingInput.length < signatureStart) {
+                signingInput = new byte[signatureStart * 2];
+            }
+            for (int i = 0; i < signatureStart; i++) {
+                final var c = token.charAt(i);
+                if (c >= 128) {
+                    return false;
+                }
+                signingInput[i] = (byte) c;
+            }
+            mac.update(signingInput, 0, signatureStart);
+            try {
+                mac.doFinal(expectedSignature, 0);
+            } catch (ShortBufferException e) {
+                throw new IllegalStateException(e);
+            }
+            return base64Url(token, signatureStart + 1, token.length(), signature) == SIGNATURE_LENGTH
+                    && MessageDigest.isEqual(expectedSignature, signature);
+        }
+
+        private int decodePayload(String token, int start, int end) {
+            final var maximumLength = (end - start) * 3 / 4 + 1;
+            if (payload.length < maximumLength) {
+                payload = new byte[maximumLength * 2];
+            }
+            return base64Url(token, start, end, payload);
+        }
+    }
+}
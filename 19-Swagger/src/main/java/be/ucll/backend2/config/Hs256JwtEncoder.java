@@ -0,0 +1,221 @@
+package be.ucll.backend2.config;
+
+import javax.crypto.Mac;
+import javax.crypto.ShortBufferException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.InvalidKeyException;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+
+// Gespecialiseerde encoder voor onze eigen HS256 tokens. In plaats van per token een JwsHeader, JwtClaimsSet,
+// JWK lookup, nieuwe Mac en generieke JSON writer te gebruiken (NimbusJwtEncoder), is de header vooraf
+// geserialiseerd (per sleutel, met kid) en worden de claims rechtstreeks in herbruikte buffers geschreven. Die
+// buffers en hun Mac komen uit een kleine pool in plaats van een ThreadLocal: met virtual threads zou elk token
+// anders een nieuwe Mac initialiseren. Er wordt altijd ondertekend met de actieve sleutel uit de JwtKeyRing.
+public class Hs256JwtEncoder implements AccessTokenEncoder {
+    private static final byte[] BASE64URL = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_"
+            .getBytes(StandardCharsets.US_ASCII);
+    private static final int SIGNATURE_LENGTH = 32;
+    private static final int ENCODED_SIGNATURE_LENGTH = 43;
+    // Hoeveel Buffers (met hun Mac) er bijgehouden worden; wie er tegelijk meer nodig heeft, gooit ze na gebruik weg
+    private static final int POOL_SIZE = 2 * Runtime.getRuntime().availableProcessors();
+
+    private final JwtKeyRing keyRing;
+    private final byte[] issuerClaim;
+    private final Queue<Buffers> pool = new ArrayBlockingQueue<>(POOL_SIZE);
+
+    public Hs256JwtEncoder(JwtKeyRing keyRing, String issuer) {
+        this.keyRing = keyRing;
+        final var issuerBuffers = new Buffers(null);
+        issuerBuffers.appendAscii("{\"iss\":");
+        issuerBuffers.appendJsonString(issuer);
+        this.issuerClaim = Arrays.copyOf(issuerBuffers.json, issuerBuffers.jsonLength);
+    }
+
+    @Override
+    public String encode(String tokenId, String subject, String emailAddress, long roles,
+                         Instant issuedAt, Instant expiresAt) {
+        final var b = Objects.requireNonNullElseGet(pool.poll(), () -> new Buffers(newMac()));
+        try {
+            return encode(b, tokenId, subject, emailAddress, roles, issuedAt, expiresAt);
+        } finally {
+            pool.offer(b);
+        }
+    }
+
+    private String encode(Buffers b, String tokenId, String subject, String emailAddress, long roles,
+                          Instant issuedAt, Instant expiresAt) {
+        b.use(keyRing.activeKey());
+        b.jsonLength = 0;
+        b.append(issuerClaim, issuerClaim.length);
+        b.appendAscii(",\"iat\":");
+        b.appendLong(issuedAt.getEpochSecond());
+        b.appendAscii(",\"exp\":");
+        b.appendLong(expiresAt.getEpochSecond());
+        b.appendAscii(",\"jti\":");
+        b.appendJsonString(tokenId);
+        b.appendAscii(",\"sub\":");
+        b.appendJsonString(subject);
+        b.appendAscii(",\"email\":");
+        b.appendJsonString(emailAddress);
+        b.appendAscii(",\"rol\":");
+        b.appendLong(roles);
+        b.appendAscii("}");
+
+        // header.payload
+        final var encodedHeader = b.encodedHeader;
+        final var maximumLength = encodedHeader.length + (b.jsonLength + 2) / 3 * 4 + 1 + ENCODED_SIGNATURE_LENGTH;
+        if (b.token.length < maximumLength) {
+            b.token = new byte[maximumLength * 2];
+        }
+        System.arraycopy(encodedHeader, 0, b.token, 0, encodedHeader.length);
+        var length = base64Url(b.json, b.jsonLength, b.token, encodedHeader.length);
+
+        // .signature
+        b.mac.update(b.token, 0, length);
+        try {
+            b.mac.doFinal(b.signature, 0);
+        } catch (ShortBufferException e) {
+            throw new IllegalStateException(e);
+        }
+        b.token[length++] = '.';
+        length = base64Url(b.signature, SIGNATURE_LENGTH, b.token, length);
+        return new String(b.token, 0, length, StandardCharsets.US_ASCII);
+    }
+
+    private static Mac newMac() {
+        try {
+            return Mac.getInstance("HmacSHA256");
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static int base64Url(byte[] source, int sourceLength, byte[] target, int targetOffset) {
+        var t = targetOffset;
+        var s = 0;
+        while (sourceLength - s >= 3) {
+            final var bits = (source[s++] & 0xff) << 16 | (source[s++] & 0xff) << 8 | (source[s++] & 0xff);
+            target[t++] = BASE64URL[(bits >>> 18) & 0x3f];
+            target[t++] = BASE64URL[(bits >>> 12) & 0x3f];
+            target[t++] = BASE64URL[(bits >>> 6) & 0x3f];
+            target[t++] = BASE64URL[bits & 0x3f];
+        }
+        final var remaining = sourceLength - s;
+        if (remaining > 0) {
+            final var bits = (source[s] & 0xff) << 16 | (remaining == 2 ? (source[s + 1] & 0xff) << 8 : 0);
+            target[t++] = BASE64URL[(bits >>> 18) & 0x3f];
+            target[t++] = BASE64URL[(bits >>> 12) & 0x3f];
+            if (remaining == 2) {
+                target[t++] = BASE64URL[(bits >>> 6) & 0x3f];
+            }
+        }
+        return t;
+    }
+
+    // Herbruikte buffers en Mac, telkens door één thread tegelijk gebruikt
+    private static final class Buffers {
+        private final Mac mac;
+        private JwtKeyRing.SigningKey key;
+        private byte[] encodedHeader;
+        private final byte[] signature = new byte[SIGNATURE_LENGTH];
+        private byte[] json = new byte[256];
+        private int jsonLength;
+        private byte[] token = new byte[512];
+
+        private Buffers(Mac mac) {
+            this.mac = mac;
+        }
+
+        // Enkel na een rotatie moet de Mac opnieuw geïnitialiseerd en de header opnieuw geserialiseerd worden
+        private void use(JwtKeyRing.SigningKey signingKey) {
+            if (signingKey == key) {
+                return;
+            }
+            try {
+                mac.init(signingKey.secretKey());
+            } catch (InvalidKeyException e) {
+                throw new IllegalStateException(e);
+            }
+            final var header = "{\"alg\":\"HS256\",\"typ\":\"JWT\",\"kid\":\"" + signingKey.id() + "\"}";
+            encodedHeader = (Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString(header.getBytes(StandardCharsets.US_ASCII)) + ".")
+                    .getBytes(StandardCharsets.US_ASCII);
+            key = signingKey;
+        }
+
+        private void ensureCapacity(int extra) {
+            if (jsonLength + extra > json.length) {
+                json = Arrays.copyOf(json, Math.max(json.length * 2, jsonLength + extra));
+            }
+        }
+
+        private void append(byte[] bytes, int length) {
+            ensureCapacity(length);
+            System.arraycopy(bytes, 0, json, jsonLength, length);
+            jsonLength += length;
+        }
+
+        private void appendAscii(String value) {
+            ensureCapacity(value.length());
+            for (int i = 0; i < value.length(); i++) {
+                json[jsonLength++] = (byte) value.charAt(i);
+            }
+        }
+
+        private void appendLong(long value) {
+            appendAscii(Long.toString(value));
+        }
+
+        private void appendJsonString(String value) {
+            // Worst case: elk teken wordt \\u00XX
+            ensureCapacity(value.length() * 6 + 2);
+            json[jsonLength++] = '"';
+            for (int i = 0; i < value.length(); i++) {
+                final var c = value.charAt(i);
+                if (c >= 0x80) {
+                    // Zeldzaam (bv. internationale e-mailadressen): trage maar correcte UTF-8 weg voor de rest
+                    appendNonAscii(value.substring(i));
+                    break;
+                }
+                appendAsciiChar(c);
+            }
+            ensureCapacity(1);
+            json[jsonLength++] = '"';
+        }
+
+        private void appendAsciiChar(char c) {
+            if (c == '"' || c == '\\') {
+                json[jsonLength++] = '\\';
+                json[jsonLength++] = (byte) c;
+            } else if (c < 0x20) {
+                final var escaped = String.format("\\u%04x", (int) c);
+                for (int i = 0; i < escaped.length(); i++) {
+                    json[jsonLength++] = (byte) escaped.charAt(i);
+                }
+            } else {
+                json[jsonLength++] = (byte) c;
+            }
+        }
+
+        private void appendNonAscii(String value) {
+            for (int i = 0; i < value.length(); i++) {
+                final var c = value.charAt(i);
+                if (c < 0x80) {
+                    ensureCapacity(6);
+                    appendAsciiChar(c);
+                } else {
+                    final var end = Character.isHighSurrogate(c) && i + 1 < value.length() ? i + 2 : i + 1;
+                    final var bytes = value.substring(i, end).getBytes(StandardCharsets.UTF_8);
+                    append(bytes, bytes.length);
+                    i = end - 1;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package be.ucll.backend2.config;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSelector;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.OctetSequenceKey;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.proc.SecurityContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+// Alle HMAC sleutels waarmee tokens ondertekend of geverifieerd mogen worden, elk met een kid (key id).
+// Tokens worden ondertekend met de actieve sleutel, de decoder zoekt de sleutel op via de kid in de header.
+// Sleutels uit de properties liggen vast; sleutels uit een bestand worden periodiek herladen, zodat alle
+// replica's (met hetzelfde bestand) zonder herstart kunnen roteren. Een sleutel die uit het bestand verdwijnt
+// blijft nog een token lifetime geldig voor verificatie, zodat niemand uitgelogd wordt.
+//
+// Bestandsformaat (java.util.Properties):
+//   active-key-id=2026-10
+//   keys.2026-09=<base64url secret>
+//   keys.2026-10=<base64url secret>
+public class JwtKeyRing implements JWKSource<SecurityContext> {
+    private static final Logger logger = LoggerFactory.getLogger(JwtKeyRing.class);
+    private static final Pattern KEY_ID = Pattern.compile("[A-Za-z0-9._-]{1,64}");
+    private static final String KEY_PREFIX = "keys.";
+
+    public record SigningKey(String id, SecretKey secretKey) {}
+
+    private record Snapshot(SigningKey activeKey,
+                            Map<String, SigningKey> keys,
+                            Map<String, Instant> retiredUntil,
+                            JWKSet jwkSet,
+                            FileTime lastModified) {}
+
+    private final Map<String, SecretKey> staticKeys;
+    private final String staticActiveKeyId;
+    private final Path file;
+    private final long reloadIntervalNanos;
+    private final Duration retention;
+    private final AtomicLong nextReload = new AtomicLong();
+    private volatile Snapshot snapshot;
+
+    public JwtKeyRing(Map<String, SecretKey> staticKeys,
+                      String activeKeyId,
+                      Path file,
+                      Duration reloadInterval,
+                      Duration retention) {
+        staticKeys.keySet().forEach(JwtKeyRing::checkKeyId);
+        this.staticKeys = Map.copyOf(staticKeys);
+        this.staticActiveKeyId = activeKeyId;
+        this.file = file;
+        this.reloadIntervalNanos = reloadInterval.toNanos();
+        this.retention = retention;
+        this.nextReload.set(System.nanoTime() + reloadIntervalNanos);
+        // Faal meteen bij opstarten als de configuratie niet klopt
+        this.snapshot = load(null);
+    }
+
+    public static JwtKeyRing of(String keyId, SecretKey secretKey) {
+        return new JwtKeyRing(Map.of(keyId, secretKey), keyId, null, Duration.ZERO, Duration.ZERO);
+    }
+
+    public SigningKey activeKey() {
+        return snapshot().activeKey();
+    }
+
+    // null als de kid onbekend (of al te lang geleden ingetrokken) is
+    public SigningKey key(String keyId) {
+        return snapshot().keys().get(keyId);
+    }
+
+    @Override
+    public List<JWK> get(JWKSelector jwkSelector, SecurityContext context) {
+        return jwkSelector.select(snapshot().jwkSet());
+    }
+
+    private Snapshot snapshot() {
+        final var current = snapshot;
+        if (file == null) {
+            return current;
+        }
+        final var now = System.nanoTime();
+        final var next = nextReload.get();
+        // Slechts één thread kijkt per interval naar het bestand, de rest gebruikt de huidige snapshot
+        if (now - next >= 0 && nextReload.compareAndSet(next, now + reloadIntervalNanos)) {
+            try {
+                if (!Files.getLastModifiedTime(file).equals(current.lastModified())
+                        || hasExpiredRetiredKeys(current)) {
+                    snapshot = load(current);
+                    return snapshot;
+                }
+            } catch (IOException | RuntimeException e) {
+                logger.warn("Could not reload JWT key ring from {}, keeping current keys", file, e);
+            }
+        }
+        return current;
+    }
+
+    private Snapshot load(Snapshot previous) {
+        final var secrets = new LinkedHashMap<>(staticKeys);
+        var activeKeyId = staticActiveKeyId;
+        FileTime lastModified = null;
+        if (file != null) {
+            final var properties = new Properties();
+            try {
+                lastModified = Files.getLastModifiedTime(file);
+                try (final var reader = Files.newBufferedReader(file)) {
+                    properties.load(reader);
+                }
+            } catch (IOException e) {
+                throw new IllegalStateException("Could not read JWT key ring " + file, e);
+            }
+            for (final var name : properties.stringPropertyNames()) {
+                if (name.startsWith(KEY_PREFIX)) {
+                    final var keyId = checkKeyId(name.substring(KEY_PREFIX.length()));
+                    secrets.put(keyId, secretKey(properties.getProperty(name)));
+                }
+            }
+            activeKeyId = properties.getProperty("active-key-id", activeKeyId);
+        }
+        if (activeKeyId == null && secrets.size() == 1) {
+            activeKeyId = secrets.keySet().iterator().next();
+        }
+        if (activeKeyId == null || !secrets.containsKey(activeKeyId)) {
+            throw new IllegalStateException("Active JWT key " + activeKeyId + " is not in the key ring");
+        }
+
+        final var keys = new HashMap<String, SigningKey>();
+        secrets.forEach((keyId, secretKey) -> {
+            // Hergebruik het bestaande object als de sleutel niet veranderd is (de encoder cachet per sleutel een Mac)
+            final var existing = previous == null ? null : previous.keys().get(keyId);
+            keys.put(keyId, existing != null && existing.secretKey().equals(secretKey)
+                    ? existing
+                    : new SigningKey(keyId, secretKey));
+        });
+
+        // Verdwenen sleutels blijven nog even bruikbaar voor verificatie van tokens die al uitgegeven zijn
+        final var retiredUntil = new HashMap<String, Instant>();
+        if (previous != null) {
+            final var now = Instant.now();
+            previous.keys().forEach((keyId, key) -> {
+                if (!keys.containsKey(keyId)) {
+                    final var until = previous.retiredUntil().getOrDefault(keyId, now.plus(retention));
+                    if (until.isAfter(now)) {
+                        keys.put(keyId, key);
+                        retiredUntil.put(keyId, until);
+                    }
+                }
+            });
+        }
+
+        final var jwks = new ArrayList<JWK>(keys.size());
+        keys.values().forEach(key -> jwks.add(new OctetSequenceKey.Builder(key.secretKey())
+                .keyID(key.id())
+                .algorithm(JWSAlgorithm.HS256)
+                .build()));
+
+        if (previous != null && !previous.activeKey().id().equals(activeKeyId)) {
+            logger.info("JWT signing key rotated from {} to {}", previous.activeKey().id(), activeKeyId);
+        }
+        return new Snapshot(
+                keys.get(activeKeyId),
+                Map.copyOf(keys),
+                Map.copyOf(retiredUntil),
+                new JWKSet(jwks),
+                lastModified);
+    }
+
+    private static boolean hasExpiredRetiredKeys(Snapshot snapshot) {
+        final var now = Instant.now();
+        return snapshot.retiredUntil().values().stream().anyMatch(until -> !until.isAfter(now));
+    }
+
+    private static String checkKeyId(String keyId) {
+        if (!KEY_ID.matcher(keyId).matches()) {
+            throw new IllegalStateException("Invalid JWT key id: " + keyId);
+        }
+        return keyId;
+    }
+
+    // Afgeleide kid voor een enkele sleutel: elke replica met dezelfde sleutel komt op dezelfde kid uit
+    public static String keyId(SecretKey secretKey) {
+        try {
+            final var digest = MessageDigest.getInstance("SHA-256").digest(secretKey.getEncoded());
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(digest, 8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public static SecretKey secretKey(String base64UrlSecret) {
+        return new SecretKeySpec(Base64.getUrlDecoder().decode(base64UrlSecret.trim()), "HmacSHA256");
+    }
+}
@@ -3,11 +3,48 @@ package be.ucll.backend2.config;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.boot.context.properties.bind.DefaultValue;
 
+import java.net.URI;
+import java.nio.file.Path;
 import java.time.Duration;
+import java.util.Map;
 
 @ConfigurationProperties(prefix = "jwt")
 public record JwtProperties(String secretKey,
-                            @DefaultValue Token token) {
+                            @DefaultValue Token token,
+                            @DefaultValue RefreshToken refreshToken,
+                            @DefaultValue DecoderCache decoderCache,
+                            @DefaultValue CompactDecoder compactDecoder,
+                            @DefaultValue KeyRing keyRing,
+                            @DefaultValue("HS256") String algorithm,
+                            @DefaultValue Asymmetric asymmetric) {
     public record Token(@DefaultValue("self") String issuer,
                         @DefaultValue("30m") Duration lifetime) {}
+
+    // hashKey: base64url secret voor de HMAC van refresh tokens in de DB, los van de JWT sleutels
+    public record RefreshToken(@DefaultValue("30d") Duration lifetime,
+                               String hashKey) {}
+
+    // Cache van reeds geverifieerde tokens; maxTimeToLive is een bovengrens, exp van het token geldt altijd
+    public record DecoderCache(@DefaultValue("true") boolean enabled,
+                               @DefaultValue("10000") long maximumSize,
+                               @DefaultValue("5m") Duration maxTimeToLive) {}
+
+    // Lees onze eigen HS256 tokens zonder volledige JSON parsing; andere tokens gaan naar NimbusJwtDecoder
+    public record CompactDecoder(@DefaultValue("true") boolean enabled) {}
+
+    // Sleutels met kid (id -> base64url secret), eventueel uit een bestand dat periodiek herladen wordt.
+    // secretKey blijft werken als enkele sleutel, de kid wordt dan van de sleutel afgeleid.
+    public record KeyRing(String activeKeyId,
+                          Map<String, String> keys,
+                          Path file,
+                          @DefaultValue("30s") Duration reloadInterval) {}
+
+    // Enkel voor algorithm ES256. De sessieservice heeft keySetFile (private sleutels) en ondertekent,
+    // andere services hebben enkel jwkSetUri en houden de publieke sleutels lokaal in een cache.
+    public record Asymmetric(Path keySetFile,
+                             String activeKeyId,
+                             URI jwkSetUri,
+                             @DefaultValue("1h") Duration jwksMaxAge,
+                             @DefaultValue("15m") Duration jwksCacheTimeToLive,
+                             @DefaultValue("1m") Duration jwksRefreshAhead) {}
 }
@@ -0,0 +1,22 @@
+package be.ucll.backend2.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "security.login-rate-limit")
+public record LoginRateLimitProperties(@DefaultValue("true") boolean enabled,
+                                       @DefaultValue Account account,
+                                       @DefaultValue Address address,
+                                       @DefaultValue("100000") long maximumBuckets,
+                                       // Buckets die zo lang niet gebruikt zijn worden opgeruimd
+                                       @DefaultValue("10m") Duration idleTimeout) {
+    // Maximum aantal pogingen (capacity) per refillPeriod voor één e-mailadres
+    public record Account(@DefaultValue("5") int capacity,
+                          @DefaultValue("1m") Duration refillPeriod) {}
+
+    // Maximum aantal pogingen (capacity) per refillPeriod voor één IP-adres
+    public record Address(@DefaultValue("20") int capacity,
+                          @DefaultValue("1m") Duration refillPeriod) {}
+}
@@ -0,0 +1,96 @@
+package be.ucll.backend2.config;
+
+import be.ucll.backend2.exception.HashingMemoryExhaustedException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+// Argon2 is memory-hard: elke hash gebruikt bv. 64 MiB. Deze encoder laat maar zoveel hashes tegelijk toe
+// als het geheugenbudget toelaat; de rest wacht (fair) in de rij, maar nooit langer dan timeout.
+public class MemoryBudgetedPasswordEncoder implements PasswordEncoder {
+    // bv. $argon2id$v=19$m=65536,t=3,p=1$...
+    private static final Pattern MEMORY_PARAMETER = Pattern.compile("[$,]m=(\\d+)");
+
+    private final PasswordEncoder delegate;
+    private final Semaphore budget;
+    private final int budgetKibibytes;
+    private final int encodeKibibytes;
+    private final Duration timeout;
+
+    public MemoryBudgetedPasswordEncoder(PasswordEncoder delegate,
+                                         int budgetKibibytes,
+                                         int encodeKibibytes,
+                                         Duration timeout) {
+        this(delegate, new Semaphore(budgetKibibytes, true), budgetKibibytes, encodeKibibytes, timeout);
+    }
+
+    private MemoryBudgetedPasswordEncoder(PasswordEncoder delegate,
+                                          Semaphore budget,
+                                          int budgetKibibytes,
+                                          int encodeKibibytes,
+                                          Duration timeout) {
+        this.delegate = delegate;
+        this.budget = budget;
+        this.budgetKibibytes = budgetKibibytes;
+        this.encodeKibibytes = encodeKibibytes;
+        this.timeout = timeout;
+    }
+
+    // Een andere Argon2 encoder (bv. met oudere parameters) die hetzelfde geheugenbudget deelt
+    public MemoryBudgetedPasswordEncoder sharingBudget(PasswordEncoder delegate, int encodeKibibytes) {
+        return new MemoryBudgetedPasswordEncoder(delegate, budget, budgetKibibytes, encodeKibibytes, timeout);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return withBudget(encodeKibibytes, () -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        // Een bestaande hash kan met andere parameters gemaakt zijn dan we nu gebruiken
+        return withBudget(memoryOf(encodedPassword), () -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    private int memoryOf(String encodedPassword) {
+        if (encodedPassword != null) {
+            final var matcher = MEMORY_PARAMETER.matcher(encodedPassword);
+            if (matcher.find()) {
+                try {
+                    return Integer.parseInt(matcher.group(1));
+                } catch (NumberFormatException ignored) {
+                    // Val terug op de standaard hieronder
+                }
+            }
+        }
+        return encodeKibibytes;
+    }
+
+    private <T> T withBudget(int kibibytes, Supplier<T> hash) {
+        // Nooit meer vragen dan het volledige budget, anders raken we nooit aan de beurt
+        final var permits = Math.min(Math.max(kibibytes, 1), budgetKibibytes);
+        try {
+            if (!budget.tryAcquire(permits, timeout.toNanos(), TimeUnit.NANOSECONDS)) {
+                throw new HashingMemoryExhaustedException();
+            }
+        } catch (InterruptedException e) {
+            // bv. PasswordHashingExecutor die zelf al opgegeven heeft
+            Thread.currentThread().interrupt();
+            throw new HashingMemoryExhaustedException();
+        }
+        try {
+            return hash.get();
+        } finally {
+            budget.release(permits);
+        }
+    }
+}
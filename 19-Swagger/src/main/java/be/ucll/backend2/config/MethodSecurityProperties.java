@@ -0,0 +1,11 @@
+package be.ucll.backend2.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.expression.spel.SpelCompilerMode;
+
+@ConfigurationProperties(prefix = "security.method-security")
+public record MethodSecurityProperties(// MIXED compileert @PreAuthorize expressies na enkele evaluaties naar bytecode
+                                       // en interpreteert ze terug als dat mislukt; OFF interpreteert altijd
+                                       @DefaultValue("mixed") SpelCompilerMode spelCompilerMode) {
+}
@@ -0,0 +1,64 @@
+package be.ucll.backend2.config;
+
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.core.DefaultParameterNameDiscoverer;
+import org.springframework.core.ParameterNameDiscoverer;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
+import org.springframework.security.core.Authentication;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+// Controleert @OwnerOnly: het id van de ingelogde gebruiker (als long, zie UserJwtAuthenticationToken) moet gelijk
+// zijn aan het id in de opgegeven parameter. Welke parameter dat is, wordt één keer per methode opgezocht.
+public class OwnerAuthorizationManager implements AuthorizationManager<MethodInvocation> {
+    private static final AuthorizationDecision GRANTED = new AuthorizationDecision(true);
+    private static final AuthorizationDecision DENIED = new AuthorizationDecision(false);
+
+    private final ParameterNameDiscoverer parameterNameDiscoverer = new DefaultParameterNameDiscoverer();
+    private final Map<Method, Integer> ownerParameters = new ConcurrentHashMap<>();
+
+    @Override
+    public AuthorizationDecision check(Supplier<Authentication> authentication, MethodInvocation invocation) {
+        final var ownerParameter = ownerParameters.computeIfAbsent(invocation.getMethod(), this::ownerParameter);
+        if (!(invocation.getArguments()[ownerParameter] instanceof Long ownerId)) {
+            return DENIED;
+        }
+        return isOwner(authentication.get(), ownerId) ? GRANTED : DENIED;
+    }
+
+    // Ook voor de reactive controllers, waar @OwnerOnly niet werkt
+    public static boolean isOwner(Authentication authentication, long ownerId) {
+        final var userId = userId(authentication);
+        return userId != UserJwtAuthenticationToken.NO_USER_ID && userId == ownerId;
+    }
+
+    private static long userId(Authentication authentication) {
+        if (authentication instanceof UserJwtAuthenticationToken userJwtAuthenticationToken) {
+            return userJwtAuthenticationToken.getUserId();
+        }
+        // Andere authentications (bv. in tests): het subject staat in de naam
+        return authentication == null
+                ? UserJwtAuthenticationToken.NO_USER_ID
+                : UserJwtAuthenticationToken.userId(authentication.getName());
+    }
+
+    private int ownerParameter(Method method) {
+        final var ownerOnly = AnnotatedElementUtils.findMergedAnnotation(method, OwnerOnly.class);
+        final var names = parameterNameDiscoverer.getParameterNames(method);
+        if (ownerOnly != null && names != null) {
+            for (int i = 0; i < names.length; i++) {
+                final var type = method.getParameterTypes()[i];
+                if (names[i].equals(ownerOnly.value()) && (type == long.class || type == Long.class)) {
+                    return i;
+                }
+            }
+        }
+        throw new IllegalStateException("@OwnerOnly on " + method + " needs a long parameter named "
+                + (ownerOnly != null ? ownerOnly.value() : "id"));
+    }
+}
@@ -0,0 +1,13 @@
+package be.ucll.backend2.config;
+
+import java.lang.annotation.*;
+
+// Enkel de gebruiker zelf mag deze methode oproepen: het subject van het token moet gelijk zijn aan de parameter
+// met het id van de gebruiker (standaard "id"). Wordt gecontroleerd door OwnerAuthorizationManager, zonder SpEL.
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface OwnerOnly {
+    // Naam van de parameter (long of Long) met het id van de eigenaar
+    String value() default "id";
+}
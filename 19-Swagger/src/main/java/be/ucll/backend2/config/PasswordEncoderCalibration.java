@@ -0,0 +1,39 @@
+package be.ucll.backend2.config;
+
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+// Resultaat van het kalibreren van bcrypt: welke strength (work factor) gebruiken we op deze machine?
+public record PasswordEncoderCalibration(int bcryptStrength, Duration estimatedLatency) {
+    // Goedkope strength om mee te meten; elke strength hoger verdubbelt de kost
+    private static final int PROBE_STRENGTH = 8;
+    private static final int PROBE_RUNS = 5;
+
+    public static PasswordEncoderCalibration fixed(int strength) {
+        return new PasswordEncoderCalibration(strength, Duration.ZERO);
+    }
+
+    public static PasswordEncoderCalibration calibrate(Duration targetLatency, int minStrength, int maxStrength) {
+        final var encoder = new BCryptPasswordEncoder(PROBE_STRENGTH);
+        // Warm-up zodat de JIT de meting niet vertekent
+        encoder.encode("calibration");
+        encoder.encode("calibration");
+
+        final var samples = new long[PROBE_RUNS];
+        for (int i = 0; i < PROBE_RUNS; i++) {
+            final var start = System.nanoTime();
+            encoder.encode("calibration");
+            samples[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(samples);
+        final var probeNanos = Math.max(1L, samples[PROBE_RUNS / 2]);
+
+        // Hoogste strength waarvan de geschatte kost nog binnen het budget valt
+        final var doublings = (int) Math.floor(Math.log((double) targetLatency.toNanos() / probeNanos) / Math.log(2));
+        final var strength = Math.clamp(PROBE_STRENGTH + doublings, minStrength, maxStrength);
+        final var estimatedNanos = (long) (probeNanos * Math.pow(2, strength - PROBE_STRENGTH));
+        return new PasswordEncoderCalibration(strength, Duration.ofNanos(estimatedNanos));
+    }
+}
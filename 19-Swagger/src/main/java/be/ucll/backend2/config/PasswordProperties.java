@@ -0,0 +1,36 @@
+package be.ucll.backend2.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "security.password")
+public record PasswordProperties(// Encoder voor nieuwe hashes: bcrypt of argon2
+                                 @DefaultValue("bcrypt") String encodingId,
+                                 @DefaultValue("150ms") Duration targetLatency,
+                                 @DefaultValue Bcrypt bcrypt,
+                                 @DefaultValue Argon2 argon2,
+                                 @DefaultValue Hashing hashing) {
+    // strength = null betekent: kalibreer bij opstarten op basis van targetLatency
+    public record Bcrypt(Integer strength,
+                         @DefaultValue("10") int minStrength,
+                         @DefaultValue("16") int maxStrength) {}
+
+    // Argon2id. memory is het geheugen per hash, memoryBudget het totaal voor alle hashes samen.
+    // memoryBudgetTimeout is hoe lang een hash op geheugen mag wachten.
+    public record Argon2(@DefaultValue("16") int saltLength,
+                         @DefaultValue("32") int hashLength,
+                         @DefaultValue("1") int parallelism,
+                         @DefaultValue("64MB") DataSize memory,
+                         @DefaultValue("3") int iterations,
+                         @DefaultValue("256MB") DataSize memoryBudget,
+                         @DefaultValue("2s") Duration memoryBudgetTimeout) {}
+
+    // threads = 0 betekent: evenveel threads als er cores zijn
+    public record Hashing(@DefaultValue("0") int threads,
+                          @DefaultValue("64") int queueCapacity,
+                          @DefaultValue("5s") Duration timeout,
+                          @DefaultValue("1s") Duration retryAfter) {}
+}
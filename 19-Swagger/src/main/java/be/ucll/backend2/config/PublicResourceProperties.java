@@ -0,0 +1,12 @@
+package be.ucll.backend2.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "security.public-resources")
+public record PublicResourceProperties(// Cache voor de js/css/png van Swagger UI. De URLs bevatten geen versie, dus na
+                                       // een upgrade van springdoc kan een browser ze nog zo lang gebruiken.
+                                       @DefaultValue("1d") Duration assetMaxAge) {
+}
@@ -0,0 +1,65 @@
+package be.ucll.backend2.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
+import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
+import org.springframework.security.oauth2.server.resource.authentication.ReactiveJwtAuthenticationConverterAdapter;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+import org.springframework.security.web.server.context.NoOpServerSecurityContextRepository;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+// Security voor de reactive variant (spring.main.web-application-type=reactive, zie application-reactive.yaml).
+// Dezelfde regels als de servlet SecurityFilterChain, maar de rollen worden hier op URL niveau gecontroleerd.
+// @PreAuthorize zou met @EnableReactiveMethodSecurity ook op Mono/Flux methodes werken, maar SecurityConfig zet
+// altijd @EnableMethodSecurity aan (met RoleMethodSecurityExpressionHandler) en beide samen worden niet ondersteund.
+// @OwnerOnly is een servlet AuthorizationManager; ReactiveUserController roept OwnerAuthorizationManager.isOwner op.
+// Password encoder, JwtDecoder en RoleClaimJwtAuthenticationConverter komen uit SecurityConfig.
+@Configuration
+@EnableWebFluxSecurity
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveSecurityConfig {
+    @Bean
+    public SecurityWebFilterChain securityWebFilterChain(ServerHttpSecurity http,
+                                                         ReactiveJwtDecoder reactiveJwtDecoder) {
+        final var jwtAuthenticationConverter =
+                new ReactiveJwtAuthenticationConverterAdapter(new RoleClaimJwtAuthenticationConverter());
+        return http
+                .csrf(csrf -> csrf.disable())
+                .httpBasic(httpBasic -> httpBasic.disable())
+                .formLogin(formLogin -> formLogin.disable())
+                .logout(logout -> logout.disable())
+                .requestCache(requestCache -> requestCache.disable())
+                // Stateless: geen WebSession
+                .securityContextRepository(NoOpServerSecurityContextRepository.getInstance())
+                .oauth2ResourceServer(oauth2 -> oauth2.jwt(jwt -> jwt
+                        .jwtDecoder(reactiveJwtDecoder)
+                        .jwtAuthenticationConverter(jwtAuthenticationConverter)))
+                .authorizeExchange(exchanges -> exchanges
+                        .pathMatchers(HttpMethod.POST, "/api/v1/users").permitAll()
+                        .pathMatchers(HttpMethod.POST, "/api/v1/sessions").permitAll()
+                        .pathMatchers(HttpMethod.POST, "/api/v1/sessions/refresh").permitAll()
+                        .pathMatchers(HttpMethod.POST, "/api/v1/sessions/revoke").permitAll()
+                        .pathMatchers(HttpMethod.GET, "/.well-known/jwks.json").permitAll()
+                        // Zoals @PreAuthorize op MovieController en ActorController (RoleAuthorities bevat
+                        // de rollen die een rol insluit, dus EDITOR heeft ook READER)
+                        .pathMatchers(HttpMethod.GET, "/api/v1/movies", "/api/v1/actors", "/api/v1/actors/*")
+                        .hasRole("READER")
+                        .pathMatchers("/api/v1/movies", "/api/v1/actors", "/api/v1/actors/*").hasRole("EDITOR")
+                        .anyExchange().authenticated())
+                .build();
+    }
+
+    // Verifiëren is CPU werk, maar de intrekkingscontrole (TokenRevocationService) kan de database raadplegen.
+    // Daarom gebeurt decoderen, net zoals de andere JPA calls van deze variant, op Schedulers.boundedElastic().
+    @Bean
+    public ReactiveJwtDecoder reactiveJwtDecoder(JwtDecoder jwtDecoder) {
+        return token -> Mono.fromCallable(() -> jwtDecoder.decode(token))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+}
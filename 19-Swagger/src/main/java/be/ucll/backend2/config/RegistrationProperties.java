@@ -0,0 +1,18 @@
+package be.ucll.backend2.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "registration")
+public record RegistrationProperties(// false = POST /api/v1/users wacht tot de gebruiker opgeslagen is
+                                     @DefaultValue("false") boolean async,
+                                     @DefaultValue("2") int threads,
+                                     @DefaultValue("1000") int queueCapacity,
+                                     // Hoe lang kan de status van een registratie opgevraagd worden?
+                                     @DefaultValue("10m") Duration statusRetention,
+                                     // Begrenst het geheugen als er meer registraties binnenkomen dan er vervallen
+                                     @DefaultValue("10000") long statusMaximumSize,
+                                     @DefaultValue("1s") Duration retryAfter) {
+}
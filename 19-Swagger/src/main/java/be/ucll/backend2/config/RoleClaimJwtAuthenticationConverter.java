@@ -0,0 +1,44 @@
+package be.ucll.backend2.config;
+
+import be.ucll.backend2.model.RoleAuthorities;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.security.authentication.AbstractAuthenticationToken;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtGrantedAuthoritiesConverter;
+
+import java.util.Collection;
+import java.util.List;
+
+// Zet de compacte "rol" claim om naar authorities. De claim is een bitmask met bit i voor Role.values()[i], bv.
+// "rol":3 in plaats van "scope":"ROLE_READER ROLE_EDITOR". De authorities komen uit RoleAuthorities, die voor elke
+// mogelijke waarde één gedeelde lijst heeft, dus er wordt niets gesplitst of per request aangemaakt.
+// Tokens met enkel een scope claim (uitgegeven vóór deze wijziging) gaan via de standaard converter.
+public class RoleClaimJwtAuthenticationConverter implements Converter<Jwt, AbstractAuthenticationToken> {
+    public static final String CLAIM = "rol";
+
+    private final JwtGrantedAuthoritiesConverter scopeConverter = new JwtGrantedAuthoritiesConverter();
+
+    public RoleClaimJwtAuthenticationConverter() {
+        // Rollen staan al met ROLE_ prefix in de scope claim
+        scopeConverter.setAuthorityPrefix("");
+    }
+
+    // De waarde van de claim voor authorities zoals ROLE_READER; andere authorities worden niet in het token gezet
+    public static long encode(Collection<String> authorities) {
+        var roles = 0L;
+        for (final var authority : authorities) {
+            if (authority.startsWith("ROLE_")) {
+                roles |= RoleAuthorities.bit(authority);
+            }
+        }
+        return roles;
+    }
+
+    @Override
+    public AbstractAuthenticationToken convert(Jwt jwt) {
+        if (jwt.getClaims().get(CLAIM) instanceof Number roles) {
+            return new UserJwtAuthenticationToken(jwt, RoleAuthorities.of(roles.longValue()));
+        }
+        return new UserJwtAuthenticationToken(jwt, List.copyOf(scopeConverter.convert(jwt)));
+    }
+}
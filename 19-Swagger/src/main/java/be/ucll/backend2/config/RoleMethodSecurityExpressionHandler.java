@@ -0,0 +1,154 @@
+package be.ucll.backend2.config;
+
+import be.ucll.backend2.model.RoleAuthorities;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.expression.EvaluationContext;
+import org.springframework.expression.spel.support.StandardEvaluationContext;
+import org.springframework.security.access.expression.method.DefaultMethodSecurityExpressionHandler;
+import org.springframework.security.access.expression.method.MethodSecurityExpressionOperations;
+import org.springframework.security.core.Authentication;
+
+import java.util.function.Supplier;
+
+// hasRole, hasAnyRole en hasAuthority (voor rollen) in @PreAuthorize worden bittesten op RoleAuthorities, in plaats
+// van per check alle authorities door de RoleHierarchy te halen en strings te vergelijken.
+// Al de rest (principal, #parameters, hasPermission, filter- en returnObject) gaat naar de standaard root.
+public class RoleMethodSecurityExpressionHandler extends DefaultMethodSecurityExpressionHandler {
+    @Override
+    public EvaluationContext createEvaluationContext(Supplier<Authentication> authentication, MethodInvocation mi) {
+        final var context = super.createEvaluationContext(authentication, mi);
+        if (context instanceof StandardEvaluationContext standardContext
+                && standardContext.getRootObject().getValue() instanceof MethodSecurityExpressionOperations root) {
+            standardContext.setRootObject(new RoleExpressionRoot(root));
+        }
+        return context;
+    }
+
+    public static final class RoleExpressionRoot implements MethodSecurityExpressionOperations {
+        private final MethodSecurityExpressionOperations delegate;
+        private RoleAuthorities roles;
+
+        private RoleExpressionRoot(MethodSecurityExpressionOperations delegate) {
+            this.delegate = delegate;
+        }
+
+        private RoleAuthorities roles() {
+            if (roles == null) {
+                final var authentication = getAuthentication();
+                roles = RoleAuthorities.of(authentication.getAuthorities());
+            }
+            return roles;
+        }
+
+        @Override
+        public boolean hasRole(String role) {
+            // Rollen die niet in Role staan (bv. ROLE_AUDITOR van een andere issuer) hebben geen bit
+            return RoleAuthorities.bit(role) != 0
+                    ? roles().hasRole(role)
+                    : delegate.hasRole(role);
+        }
+
+        @Override
+        public boolean hasAnyRole(String... roles) {
+            for (final var role : roles) {
+                if (hasRole(role)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public boolean hasAuthority(String authority) {
+            // Andere authorities dan rollen zitten niet in de bitmask
+            return authority.startsWith("ROLE_") && RoleAuthorities.bit(authority) != 0
+                    ? roles().hasRole(authority)
+                    : delegate.hasAuthority(authority);
+        }
+
+        @Override
+        public boolean hasAnyAuthority(String... authorities) {
+            for (final var authority : authorities) {
+                if (hasAuthority(authority)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        // Voor "principal" in SpEL expressies
+        public Object getPrincipal() {
+            return getAuthentication().getPrincipal();
+        }
+
+        @Override
+        public Authentication getAuthentication() {
+            return delegate.getAuthentication();
+        }
+
+        @Override
+        public boolean permitAll() {
+            return delegate.permitAll();
+        }
+
+        @Override
+        public boolean denyAll() {
+            return delegate.denyAll();
+        }
+
+        @Override
+        public boolean isAnonymous() {
+            return delegate.isAnonymous();
+        }
+
+        @Override
+        public boolean isAuthenticated() {
+            return delegate.isAuthenticated();
+        }
+
+        @Override
+        public boolean isRememberMe() {
+            return delegate.isRememberMe();
+        }
+
+        @Override
+        public boolean isFullyAuthenticated() {
+            return delegate.isFullyAuthenticated();
+        }
+
+        @Override
+        public boolean hasPermission(Object target, Object permission) {
+            return delegate.hasPermission(target, permission);
+        }
+
+        @Override
+        public boolean hasPermission(Object targetId, String targetType, Object permission) {
+            return delegate.hasPermission(targetId, targetType, permission);
+        }
+
+        @Override
+        public void setFilterObject(Object filterObject) {
+            delegate.setFilterObject(filterObject);
+        }
+
+        @Override
+        public Object getFilterObject() {
+            return delegate.getFilterObject();
+        }
+
+        @Override
+        public void setReturnObject(Object returnObject) {
+            delegate.setReturnObject(returnObject);
+        }
+
+        @Override
+        public Object getReturnObject() {
+            return delegate.getReturnObject();
+        }
+
+        @Override
+        public Object getThis() {
+            return delegate.getThis();
+        }
+    }
+}
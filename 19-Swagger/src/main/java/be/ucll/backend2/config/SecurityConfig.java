@@ -1,51 +1,93 @@
 package be.ucll.backend2.config;
 
+import be.ucll.backend2.model.RoleAuthorities;
 import com.nimbusds.jose.JWSAlgorithm;
-import com.nimbusds.jose.jwk.JWK;
-import com.nimbusds.jose.jwk.JWKSet;
-import com.nimbusds.jose.jwk.OctetSequenceKey;
-import com.nimbusds.jose.jwk.source.ImmutableJWKSet;
+import com.nimbusds.jose.proc.JWSVerificationKeySelector;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.servlet.http.HttpServletRequest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.beans.factory.config.BeanDefinition;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBooleanProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.boot.autoconfigure.h2.H2ConsoleProperties;
 import org.springframework.boot.autoconfigure.security.servlet.PathRequest;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
 import org.springframework.core.annotation.Order;
+import org.springframework.expression.spel.SpelParserConfiguration;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
+import org.springframework.security.access.expression.method.MethodSecurityExpressionHandler;
+import org.springframework.security.access.hierarchicalroles.RoleHierarchy;
 import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.config.Customizer;
+import org.springframework.security.authorization.method.AuthorizationManagerBeforeMethodInterceptor;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.factory.PasswordEncoderFactories;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.NoOpPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
-import org.springframework.security.oauth2.jose.jws.MacAlgorithm;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
+import org.springframework.security.crypto.scrypt.SCryptPasswordEncoder;
+import org.springframework.security.oauth2.core.DelegatingOAuth2TokenValidator;
+import org.springframework.security.oauth2.core.OAuth2TokenValidator;
+import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.security.oauth2.jwt.JwtDecoder;
-import org.springframework.security.oauth2.jwt.JwtEncoder;
+import org.springframework.security.oauth2.jwt.JwtValidators;
 import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
-import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.header.writers.CacheControlHeadersWriter;
+import org.springframework.security.web.header.writers.DelegatingRequestMatcherHeaderWriter;
+import org.springframework.security.web.header.writers.StaticHeadersWriter;
+import org.springframework.security.web.util.matcher.NegatedRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
 
 import javax.crypto.SecretKey;
 import javax.crypto.spec.SecretKeySpec;
 
 import java.security.SecureRandom;
-import java.util.Base64;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
 
 @Configuration
 @EnableMethodSecurity
-@EnableConfigurationProperties({JwtProperties.class, H2ConsoleProperties.class})
+@EnableConfigurationProperties({
+        JwtProperties.class,
+        PasswordProperties.class,
+        UserCacheProperties.class,
+        LoginRateLimitProperties.class,
+        TokenRevocationProperties.class,
+        MethodSecurityProperties.class,
+        PublicResourceProperties.class,
+        RegistrationProperties.class,
+        H2ConsoleProperties.class
+})
 public class SecurityConfig {
     private static final Logger logger = LoggerFactory.getLogger(SecurityConfig.class);
+    // Argon2PasswordEncoder.defaultsForSpringSecurity_v5_8() gebruikt m=16384 (16 MiB)
+    private static final int LEGACY_ARGON2_MEMORY_KIBIBYTES = 16384;
 
     // Source: https://docs.spring.io/spring-boot/3.5/reference/data/sql.html#data.sql.h2-web-console.spring-security
     @Bean
     @Order(0)
     @ConditionalOnBooleanProperty(prefix = "spring.h2.console", name = "enabled")
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
     public SecurityFilterChain h2SecurityFilterChain(HttpSecurity http) throws Exception {
         return http
                 .securityMatcher(PathRequest.toH2Console())
@@ -55,63 +97,268 @@ public class SecurityConfig {
                 .build();
     }
 
+    // De hiërarchie staat in Role en is al in RoleAuthorities gecompileerd; ook voor hasRole op URLs
     @Bean
+    public static RoleHierarchy roleHierarchy() {
+        return authorities -> {
+            final var roles = RoleAuthorities.of(authorities);
+            if (authorities instanceof RoleAuthorities) {
+                return roles;
+            }
+            // Authorities die geen gekende rol zijn (bv. ROLE_ANONYMOUS) blijven behouden
+            final var reachable = new ArrayList<GrantedAuthority>(roles);
+            for (final var authority : authorities) {
+                if (!roles.contains(authority) && RoleAuthorities.bit(authority.getAuthority()) == 0) {
+                    reachable.add(authority);
+                }
+            }
+            return reachable;
+        };
+    }
+
+    @Bean
+    public static MethodSecurityExpressionHandler methodSecurityExpressionHandler(
+            RoleHierarchy roleHierarchy,
+            MethodSecurityProperties methodSecurityProperties) {
+        final var expressionHandler = new RoleMethodSecurityExpressionHandler();
+        expressionHandler.setRoleHierarchy(roleHierarchy);
+        // Elke expressie wordt één keer per methode geparsed en gecachet, dus ook de gecompileerde versie blijft
+        expressionHandler.setExpressionParser(new SpelExpressionParser(new SpelParserConfiguration(
+                methodSecurityProperties.spelCompilerMode(), SecurityConfig.class.getClassLoader())));
+        return expressionHandler;
+    }
+
+    // De filter chains hieronder zijn voor de servlet variant; de reactive variant staat in ReactiveSecurityConfig.
+    // Documentatie en foutpagina's: publiek, dus geen JWT verwerking, geen anonymous authentication, request cache,
+    // logout of CSRF. De statische bestanden van Swagger UI mogen door de browser gecachet worden.
+    @Bean
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
     @Order(1)
+    public SecurityFilterChain publicResourcesSecurityFilterChain(HttpSecurity http,
+                                                                  PublicResourceProperties publicResourceProperties)
+            throws Exception {
+        final RequestMatcher swaggerUiAsset = SecurityConfig::isSwaggerUiAsset;
+        final var assetCacheControl = new StaticHeadersWriter(HttpHeaders.CACHE_CONTROL, CacheControl
+                .maxAge(publicResourceProperties.assetMaxAge())
+                .cachePublic()
+                .getHeaderValue());
+        return http
+                .securityMatcher("/v3/api-docs/**", "/swagger-ui/**", "/swagger-ui.html", "/error")
+                .csrf(csrf -> csrf.disable())
+                .anonymous(anonymous -> anonymous.disable())
+                .requestCache(requestCache -> requestCache.disable())
+                .logout(logout -> logout.disable())
+                .servletApi(servletApi -> servletApi.disable())
+                .sessionManagement(
+                        sessionManagement ->
+                                sessionManagement.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+                .headers(headers -> headers
+                        // no-cache voor alles behalve de statische bestanden
+                        .cacheControl(cacheControl -> cacheControl.disable())
+                        .addHeaderWriter(new DelegatingRequestMatcherHeaderWriter(swaggerUiAsset, assetCacheControl))
+                        .addHeaderWriter(new DelegatingRequestMatcherHeaderWriter(
+                                new NegatedRequestMatcher(swaggerUiAsset), new CacheControlHeadersWriter())))
+                .authorizeHttpRequests(authorizeRequests -> authorizeRequests.anyRequest().permitAll())
+                .build();
+    }
+
+    private static boolean isSwaggerUiAsset(HttpServletRequest request) {
+        final var path = request.getRequestURI().substring(request.getContextPath().length());
+        // swagger-initializer.js bevat de configuratie (URL van de API docs) en wordt niet gecachet
+        return path.startsWith("/swagger-ui/")
+                && !path.endsWith("/swagger-initializer.js")
+                && (path.endsWith(".js") || path.endsWith(".css") || path.endsWith(".png") || path.endsWith(".map"));
+    }
+
+    @Bean
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    @Order(2)
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         return http
                 .csrf(csrf -> csrf.disable())
                 .sessionManagement(
                         sessionManagement ->
                                 sessionManagement.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
-                .oauth2ResourceServer(oauth2 -> oauth2.jwt(Customizer.withDefaults()))
+                .oauth2ResourceServer(oauth2 -> oauth2.jwt(
+                        jwt -> jwt.jwtAuthenticationConverter(new RoleClaimJwtAuthenticationConverter())))
                 .authorizeHttpRequests(
                         authorizeRequests ->
                                 authorizeRequests
                                         .requestMatchers(HttpMethod.POST, "/api/v1/users").permitAll()
                                         .requestMatchers(HttpMethod.POST, "/api/v1/sessions").permitAll()
-                                        // Laat OpenAPI toegang toe
-                                        .requestMatchers("/v3/api-docs/**").permitAll()
-                                        // Laat toegang toe tot Swagger UI
-                                        .requestMatchers("/swagger-ui/**", "/swagger-ui.html").permitAll()
-                                        .requestMatchers("/error").permitAll()
+                                        // Refresh tokens vervangen het access token, dat er dan misschien niet meer is
+                                        .requestMatchers(HttpMethod.POST, "/api/v1/sessions/refresh").permitAll()
+                                        .requestMatchers(HttpMethod.POST, "/api/v1/sessions/revoke").permitAll()
+                                        // Status van een asynchrone registratie (id is een willekeurige UUID)
+                                        .requestMatchers(HttpMethod.GET, "/api/v1/registrations/*").permitAll()
+                                        // Publieke sleutels om ES256 tokens te verifiëren
+                                        .requestMatchers(HttpMethod.GET, "/.well-known/jwks.json").permitAll()
+                                        // OpenAPI, Swagger UI en /error: zie publicResourcesSecurityFilterChain
                                         .anyRequest().authenticated()
                 )
                 .build();
     }
 
+    // @OwnerOnly: eigen AuthorizationManager in plaats van een SpEL expressie
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public static Advisor ownerOnlyAuthorizationAdvisor() {
+        return new AuthorizationManagerBeforeMethodInterceptor(
+                new AnnotationMatchingPointcut(null, OwnerOnly.class, true),
+                new OwnerAuthorizationManager());
+    }
+
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return PasswordEncoderFactories.createDelegatingPasswordEncoder();
+    public PasswordEncoderCalibration passwordEncoderCalibration(PasswordProperties passwordProperties) {
+        final var bcrypt = passwordProperties.bcrypt();
+        if (bcrypt.strength() != null) {
+            return PasswordEncoderCalibration.fixed(bcrypt.strength());
+        }
+        final var calibration = PasswordEncoderCalibration.calibrate(
+                passwordProperties.targetLatency(),
+                bcrypt.minStrength(),
+                bcrypt.maxStrength());
+        logger.info("Calibrated bcrypt strength {} (~{} ms per hash, target {} ms)",
+                calibration.bcryptStrength(),
+                calibration.estimatedLatency().toMillis(),
+                passwordProperties.targetLatency().toMillis());
+        return calibration;
+    }
+
+    @Bean
+    public MeterBinder passwordEncoderMetrics(PasswordEncoderCalibration passwordEncoderCalibration) {
+        return registry -> Gauge
+                .builder("security.password.bcrypt.strength", passwordEncoderCalibration,
+                        PasswordEncoderCalibration::bcryptStrength)
+                .description("bcrypt work factor chosen at startup")
+                .register(registry);
+    }
+
+    // Zoals PasswordEncoderFactories.createDelegatingPasswordEncoder(), maar bcrypt met de gekalibreerde
+    // strength en Argon2id met onze eigen parameters. De verouderde ids (ldap, MD4, MD5, SHA-1, SHA-256,
+    // sha256 en pbkdf2/scrypt zonder @SpringSecurity_v5_8) zitten er bewust niet in: zulke hashes kunnen
+    // niet meer inloggen en moeten een nieuw wachtwoord krijgen. Nieuwe hashes gebruiken
+    // security.password.encoding-id; hashes met een ander {id} of zwakkere parameters worden bij de
+    // volgende login automatisch opnieuw gehasht via UserDetailsServiceImpl.updatePassword.
+    @Bean
+    @SuppressWarnings("deprecation")
+    public PasswordEncoder passwordEncoder(PasswordProperties passwordProperties,
+                                           PasswordEncoderCalibration passwordEncoderCalibration) {
+        final var argon2 = passwordProperties.argon2();
+        final var argon2MemoryKibibytes = Math.toIntExact(argon2.memory().toKilobytes());
+        final var argon2Encoder = new MemoryBudgetedPasswordEncoder(
+                new Argon2PasswordEncoder(
+                        argon2.saltLength(),
+                        argon2.hashLength(),
+                        argon2.parallelism(),
+                        argon2MemoryKibibytes,
+                        argon2.iterations()),
+                Math.toIntExact(argon2.memoryBudget().toKilobytes()),
+                argon2MemoryKibibytes,
+                argon2.memoryBudgetTimeout());
+        // Ook oude hashes met de Spring Security 5.8 standaard (16 MiB) tellen mee voor het budget
+        final var legacyArgon2Encoder = argon2Encoder.sharingBudget(
+                Argon2PasswordEncoder.defaultsForSpringSecurity_v5_8(),
+                LEGACY_ARGON2_MEMORY_KIBIBYTES);
+
+        final Map<String, PasswordEncoder> encoders = new HashMap<>();
+        encoders.put("bcrypt", new BCryptPasswordEncoder(passwordEncoderCalibration.bcryptStrength()));
+        encoders.put("argon2", argon2Encoder);
+        encoders.put("noop", NoOpPasswordEncoder.getInstance());
+        encoders.put("pbkdf2@SpringSecurity_v5_8", Pbkdf2PasswordEncoder.defaultsForSpringSecurity_v5_8());
+        encoders.put("scrypt@SpringSecurity_v5_8", SCryptPasswordEncoder.defaultsForSpringSecurity_v5_8());
+        encoders.put("argon2@SpringSecurity_v5_8", legacyArgon2Encoder);
+        if (!encoders.containsKey(passwordProperties.encodingId())) {
+            throw new IllegalStateException("Unknown password encoding id: " + passwordProperties.encodingId());
+        }
+        return new DelegatingPasswordEncoder(passwordProperties.encodingId(), encoders);
     }
 
     @Bean
-    public SecretKey secretKey(JwtProperties jwtProperties) {
-        if (jwtProperties.secretKey() == null) {
+    @ConditionalOnProperty(prefix = "jwt", name = "algorithm", havingValue = "HS256", matchIfMissing = true)
+    public JwtKeyRing jwtKeyRing(JwtProperties jwtProperties) {
+        final var keyRing = jwtProperties.keyRing();
+        final Map<String, SecretKey> keys = new HashMap<>();
+        if (keyRing.keys() != null) {
+            keyRing.keys().forEach((keyId, secret) -> keys.put(keyId, JwtKeyRing.secretKey(secret)));
+        }
+        if (jwtProperties.secretKey() != null) {
+            final var secretKey = JwtKeyRing.secretKey(jwtProperties.secretKey());
+            keys.put(JwtKeyRing.keyId(secretKey), secretKey);
+        } else if (keys.isEmpty() && keyRing.file() == null) {
             logger.warn("No secret key configured, using autogenerated key");
             byte[] key = new byte[32];
             new SecureRandom().nextBytes(key);
-            return new SecretKeySpec(key, "HmacSHA256");
-        } else {
-            final var secretBytes = Base64.getUrlDecoder().decode(jwtProperties.secretKey());
-            return new SecretKeySpec(secretBytes, "HmacSHA256");
+            final var secretKey = new SecretKeySpec(key, "HmacSHA256");
+            keys.put(JwtKeyRing.keyId(secretKey), secretKey);
         }
+        // Ingetrokken sleutels blijven geldig zolang er nog tokens mee ondertekend kunnen zijn (+ clock skew)
+        return new JwtKeyRing(
+                keys,
+                keyRing.activeKeyId(),
+                keyRing.file(),
+                keyRing.reloadInterval(),
+                jwtProperties.token().lifetime().plusSeconds(60L));
     }
 
     @Bean
-    public JwtEncoder jwtEncoder(SecretKey secretKey) {
-        final JWK jwk = new OctetSequenceKey.Builder(secretKey)
-                .algorithm(JWSAlgorithm.HS256)
-                .build();
-        final var jwks = new ImmutableJWKSet<>(new JWKSet(jwk));
-        return new NimbusJwtEncoder(jwks);
+    @ConditionalOnProperty(prefix = "jwt", name = "algorithm", havingValue = "HS256", matchIfMissing = true)
+    public Hs256JwtEncoder jwtEncoder(JwtKeyRing jwtKeyRing, JwtProperties jwtProperties) {
+        return new Hs256JwtEncoder(jwtKeyRing, jwtProperties.token().issuer());
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "jwt", name = "algorithm", havingValue = "HS256", matchIfMissing = true)
+    public JwtDecoder jwtDecoder(JwtKeyRing jwtKeyRing,
+                                 JwtProperties jwtProperties,
+                                 OAuth2TokenValidator<Jwt> tokenRevocationValidator) {
+        // Nimbus kiest de sleutel via de kid; tokens zonder kid worden met alle sleutels geprobeerd
+        final var jwtProcessor = new DefaultJWTProcessor<SecurityContext>();
+        jwtProcessor.setJWSKeySelector(new JWSVerificationKeySelector<>(JWSAlgorithm.HS256, jwtKeyRing));
+        // Claims worden door de validators van Spring Security gecontroleerd, zoals bij NimbusJwtDecoder.withSecretKey
+        jwtProcessor.setJWTClaimsSetVerifier((claims, context) -> {});
+        final var validator = jwtValidator(tokenRevocationValidator);
+        final var nimbusJwtDecoder = new NimbusJwtDecoder(jwtProcessor);
+        nimbusJwtDecoder.setJwtValidator(validator);
+        JwtDecoder decoder = nimbusJwtDecoder;
+        if (jwtProperties.compactDecoder().enabled()) {
+            decoder = new Hs256JwtDecoder(jwtKeyRing, decoder, validator);
+        }
+        return cachingJwtDecoder(decoder, jwtProperties, tokenRevocationValidator);
+    }
+
+    // Standaard validators (exp, nbf) plus de intrekkingscontrole op jti
+    static OAuth2TokenValidator<Jwt> jwtValidator(OAuth2TokenValidator<Jwt> tokenRevocationValidator) {
+        return new DelegatingOAuth2TokenValidator<>(JwtValidators.createDefault(), tokenRevocationValidator);
+    }
+
+    // Een gecachet token kan nadien nog ingetrokken worden, dus dat wordt bij elke cache hit nagekeken
+    static JwtDecoder cachingJwtDecoder(JwtDecoder decoder,
+                                        JwtProperties jwtProperties,
+                                        OAuth2TokenValidator<Jwt> tokenRevocationValidator) {
+        final var decoderCache = jwtProperties.decoderCache();
+        if (!decoderCache.enabled()) {
+            return decoder;
+        }
+        return new CachingJwtDecoder(
+                decoder,
+                decoderCache.maximumSize(),
+                decoderCache.maxTimeToLive(),
+                tokenRevocationValidator);
     }
 
+    // Publiceer hit ratio en evictions van de JWT cache (enkel als die aan staat)
     @Bean
-    public JwtDecoder jwtDecoder(SecretKey secretKey) {
-        return NimbusJwtDecoder.withSecretKey(secretKey).macAlgorithm(MacAlgorithm.HS256).build();
+    public MeterBinder jwtDecoderMetrics(JwtDecoder jwtDecoder) {
+        return registry -> {
+            if (jwtDecoder instanceof CachingJwtDecoder cachingJwtDecoder) {
+                cachingJwtDecoder.bindTo(registry);
+            }
+        };
     }
 
     @Bean
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
     public AuthenticationManager authenticationManager(AuthenticationConfiguration authenticationConfiguration) throws Exception {
         return authenticationConfiguration.getAuthenticationManager();
     }
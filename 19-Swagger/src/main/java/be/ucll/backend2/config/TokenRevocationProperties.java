@@ -0,0 +1,16 @@
+package be.ucll.backend2.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "security.token-revocation")
+public record TokenRevocationProperties(// Grootte van de Bloom filter; wordt groter bij een rebuild als er meer zijn
+                                        @DefaultValue("100000") int expectedRevocations,
+                                        @DefaultValue("0.01") double falsePositiveProbability,
+                                        // Hoe snel een intrekking op een andere node zichtbaar wordt
+                                        @DefaultValue("5s") Duration refreshInterval,
+                                        // Verlopen intrekkingen opruimen en de filter opnieuw opbouwen
+                                        @DefaultValue("10m") Duration rebuildInterval) {
+}
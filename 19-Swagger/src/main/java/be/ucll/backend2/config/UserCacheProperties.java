@@ -0,0 +1,13 @@
+package be.ucll.backend2.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "security.user-cache")
+public record UserCacheProperties(@DefaultValue("10000") long maximumSize,
+                                  @DefaultValue("5m") Duration timeToLive,
+                                  // Hoe lang onthouden we dat een e-mailadres niet bestaat?
+                                  @DefaultValue("30s") Duration negativeTimeToLive) {
+}
@@ -0,0 +1,13 @@
+package be.ucll.backend2.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.nio.file.Path;
+
+@ConfigurationProperties(prefix = "user-import")
+public record UserImportProperties(Path file,
+                                   @DefaultValue("1000") int batchSize,
+                                   // threads = 0 betekent: evenveel threads als er cores zijn
+                                   @DefaultValue("0") int threads) {
+}
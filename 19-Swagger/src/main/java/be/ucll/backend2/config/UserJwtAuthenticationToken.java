@@ -0,0 +1,45 @@
+package be.ucll.backend2.config;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+
+import java.util.Collection;
+
+// Authentication voor onze access tokens (zie RoleClaimJwtAuthenticationConverter). Het subject is het id van de
+// gebruiker en wordt één keer per request naar een long omgezet, voor checks zoals @OwnerOnly.
+public class UserJwtAuthenticationToken extends JwtAuthenticationToken {
+    // Subject dat geen id is (bv. een token van een andere uitgever)
+    public static final long NO_USER_ID = Long.MIN_VALUE;
+
+    private final Collection<GrantedAuthority> authorities;
+    private final long userId;
+
+    // AbstractAuthenticationToken kopieert de authorities die het meekrijgt; hier blijft de (gedeelde) lijst behouden
+    public UserJwtAuthenticationToken(Jwt jwt, Collection<GrantedAuthority> authorities) {
+        super(jwt, AuthorityUtils.NO_AUTHORITIES, jwt.getSubject());
+        this.authorities = authorities;
+        this.userId = userId(jwt.getSubject());
+    }
+
+    public static long userId(String subject) {
+        if (subject == null) {
+            return NO_USER_ID;
+        }
+        try {
+            return Long.parseLong(subject);
+        } catch (NumberFormatException e) {
+            return NO_USER_ID;
+        }
+    }
+
+    public long getUserId() {
+        return userId;
+    }
+
+    @Override
+    public Collection<GrantedAuthority> getAuthorities() {
+        return authorities;
+    }
+}
@@ -0,0 +1,65 @@
+package be.ucll.backend2.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Volgt via JFR (jdk.VirtualThreadPinned) op wanneer een virtual thread zijn carrier thread niet kon vrijgeven,
+// bv. bij blokkerende I/O binnen een synchronized blok in de JDBC driver of Hibernate.
+// Elk event telt mee in jvm.threads.virtual.pinned; de eerste keer per plaats in de code komt er een waarschuwing.
+public class VirtualThreadPinningMonitor implements DisposableBean {
+    private static final Logger logger = LoggerFactory.getLogger(VirtualThreadPinningMonitor.class);
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+    private final Timer pinned;
+    private final Set<String> reportedLocations = ConcurrentHashMap.newKeySet();
+    private final RecordingStream recordingStream;
+
+    public VirtualThreadPinningMonitor(Duration threshold, MeterRegistry meterRegistry) {
+        this.pinned = Timer.builder("jvm.threads.virtual.pinned")
+                .description("Time virtual threads could not unmount from their carrier thread")
+                .register(meterRegistry);
+        this.recordingStream = new RecordingStream();
+        recordingStream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        recordingStream.onEvent(PINNED_EVENT, this::onPinned);
+        recordingStream.startAsync();
+    }
+
+    private void onPinned(RecordedEvent event) {
+        pinned.record(event.getDuration());
+        final var location = location(event);
+        if (reportedLocations.add(location)) {
+            logger.warn("Virtual thread pinned for {} ms at {}", event.getDuration().toMillis(), location);
+        } else {
+            logger.debug("Virtual thread pinned for {} ms at {}", event.getDuration().toMillis(), location);
+        }
+    }
+
+    // Het eerste frame buiten de JDK, daar zit de synchronized of native call die het probleem veroorzaakt
+    private static String location(RecordedEvent event) {
+        final var stackTrace = event.getStackTrace();
+        if (stackTrace == null) {
+            return "unknown";
+        }
+        for (final var frame : stackTrace.getFrames()) {
+            final var type = frame.getMethod().getType().getName();
+            if (!type.startsWith("java.") && !type.startsWith("jdk.") && !type.startsWith("sun.")) {
+                return type + "." + frame.getMethod().getName() + ":" + frame.getLineNumber();
+            }
+        }
+        return "JDK";
+    }
+
+    @Override
+    public void destroy() {
+        recordingStream.close();
+    }
+}
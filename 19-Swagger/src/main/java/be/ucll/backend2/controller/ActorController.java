@@ -3,6 +3,7 @@ package be.ucll.backend2.controller;
 import be.ucll.backend2.exception.ActorNotFoundException;
 import be.ucll.backend2.model.Actor;
 import be.ucll.backend2.service.ActorService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -13,6 +14,7 @@ import java.util.List;
 import java.util.Map;
 
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping("/api/v1/actors")
 public class ActorController {
     private final ActorService actorService;
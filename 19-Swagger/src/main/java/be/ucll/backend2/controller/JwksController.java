@@ -0,0 +1,61 @@
+package be.ucll.backend2.controller;
+
+import be.ucll.backend2.config.AsymmetricKeys;
+import be.ucll.backend2.config.JwtProperties;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.Map;
+
+// Publieke sleutels voor ES256. Ze veranderen zelden, dus clients en proxies mogen ze lang cachen
+// en met If-None-Match revalideren.
+@RestController
+@ConditionalOnProperty(prefix = "jwt", name = "algorithm", havingValue = "ES256")
+public class JwksController {
+    private final Map<String, Object> jwkSet;
+    private final String eTag;
+    private final CacheControl cacheControl;
+
+    public JwksController(AsymmetricKeys asymmetricKeys, JwtProperties jwtProperties) {
+        this.jwkSet = asymmetricKeys.publicKeys().toJSONObject(true);
+        this.eTag = eTag(asymmetricKeys.publicKeys().toString(true));
+        final var maxAge = jwtProperties.asymmetric().jwksMaxAge();
+        this.cacheControl = CacheControl.maxAge(maxAge)
+                .cachePublic()
+                .staleWhileRevalidate(maxAge)
+                .staleIfError(maxAge);
+    }
+
+    @GetMapping("/.well-known/jwks.json")
+    public ResponseEntity<Map<String, Object>> getJwks() {
+        // Een instantie die enkel verifieert (jwt.asymmetric.jwk-set-uri) heeft zelf geen sleutels. Een lege set
+        // zou achter een load balancer een uur lang gecachet worden, dus geen set en niets cachen.
+        if (jwkSet.get("keys") instanceof Collection<?> keys && keys.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .cacheControl(CacheControl.noStore())
+                    .body(Map.of("message", "This instance does not sign tokens and publishes no keys."));
+        }
+        return ResponseEntity.ok()
+                .cacheControl(cacheControl)
+                .eTag(eTag)
+                .body(jwkSet);
+    }
+
+    private static String eTag(String json) {
+        try {
+            final var digest = MessageDigest.getInstance("SHA-256").digest(json.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -3,6 +3,7 @@ package be.ucll.backend2.controller;
 import be.ucll.backend2.controller.dto.CreateMovieDto;
 import be.ucll.backend2.model.Movie;
 import be.ucll.backend2.service.MovieService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
@@ -11,6 +12,7 @@ import java.util.List;
 import java.util.Optional;
 
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping("/api/v1/movies")
 public class MovieController {
     private final MovieService movieService;
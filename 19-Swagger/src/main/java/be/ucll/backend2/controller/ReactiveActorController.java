@@ -0,0 +1,60 @@
+package be.ucll.backend2.controller;
+
+import be.ucll.backend2.exception.ActorNotFoundException;
+import be.ucll.backend2.model.Actor;
+import be.ucll.backend2.service.ReactiveActorService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// Reactive variant van ActorController; de rollen worden in ReactiveSecurityConfig gecontroleerd
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequestMapping("/api/v1/actors")
+public class ReactiveActorController {
+    private final ReactiveActorService actorService;
+
+    public ReactiveActorController(ReactiveActorService actorService) {
+        this.actorService = actorService;
+    }
+
+    @GetMapping
+    public Flux<Actor> getAllActors() {
+        return actorService.getAllActors();
+    }
+
+    @GetMapping("/{id}")
+    public Mono<Actor> getActorById(@PathVariable long id) {
+        return actorService.getActorById(id);
+    }
+
+    @PostMapping
+    @ResponseStatus(HttpStatus.CREATED)
+    public Mono<Actor> createActor(@RequestBody Actor actor) {
+        return actorService.createActor(actor);
+    }
+
+    @PutMapping("/{id}")
+    public Mono<Actor> updateActor(@PathVariable long id, @RequestBody Actor actor) {
+        return actorService.updateActor(id, actor);
+    }
+
+    @DeleteMapping("/{id}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public Mono<Void> deleteActor(@PathVariable long id) {
+        return actorService.deleteActor(id);
+    }
+
+    @ExceptionHandler({ActorNotFoundException.class})
+    public ResponseEntity<Map<String,String>> handleActorNotFoundException(ActorNotFoundException e) {
+        Map<String, String> map = new HashMap<>();
+        map.put("message", e.getMessage());
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(map);
+    }
+}
@@ -0,0 +1,40 @@
+package be.ucll.backend2.controller;
+
+import be.ucll.backend2.controller.dto.CreateMovieDto;
+import be.ucll.backend2.model.Movie;
+import be.ucll.backend2.service.ReactiveMovieService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Optional;
+
+// Reactive variant van MovieController; de rollen worden in ReactiveSecurityConfig gecontroleerd
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequestMapping("/api/v1/movies")
+public class ReactiveMovieController {
+    private final ReactiveMovieService movieService;
+
+    public ReactiveMovieController(ReactiveMovieService movieService) {
+        this.movieService = movieService;
+    }
+
+    @GetMapping
+    public Flux<Movie> getMovies(@RequestParam Optional<Integer> startYear,
+                                 @RequestParam Optional<Integer> endYear) {
+        if (startYear.isPresent() || endYear.isPresent()) {
+            return movieService.getMoviesBetween(startYear, endYear);
+        } else {
+            return movieService.getAllMovies();
+        }
+    }
+
+    @PostMapping
+    @ResponseStatus(HttpStatus.CREATED)
+    public Mono<Movie> createMovie(@RequestBody CreateMovieDto movie) {
+        return movieService.createMovie(movie);
+    }
+}
@@ -0,0 +1,107 @@
+package be.ucll.backend2.controller;
+
+import be.ucll.backend2.controller.dto.AuthenticationRequest;
+import be.ucll.backend2.controller.dto.AuthenticationResponse;
+import be.ucll.backend2.controller.dto.RefreshRequest;
+import be.ucll.backend2.exception.HashingCapacityExceededException;
+import be.ucll.backend2.exception.InvalidRefreshTokenException;
+import be.ucll.backend2.exception.TokenSigningUnavailableException;
+import be.ucll.backend2.exception.TooManyLoginAttemptsException;
+import be.ucll.backend2.service.ReactiveSessionService;
+import jakarta.validation.Valid;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// Reactive variant van SessionController
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequestMapping("/api/v1/sessions")
+public class ReactiveSessionController {
+    private final ReactiveSessionService sessionService;
+
+    public ReactiveSessionController(ReactiveSessionService sessionService) {
+        this.sessionService = sessionService;
+    }
+
+    @PostMapping
+    public Mono<AuthenticationResponse> authenticate(@Valid @RequestBody AuthenticationRequest authenticationRequest,
+                                                     ServerHttpRequest request) {
+        final var remoteAddress = request.getRemoteAddress();
+        return sessionService.authenticate(
+                authenticationRequest.emailAddress(),
+                authenticationRequest.password(),
+                remoteAddress == null ? "unknown" : remoteAddress.getAddress().getHostAddress()
+        );
+    }
+
+    @PostMapping("/refresh")
+    public Mono<AuthenticationResponse> refresh(@Valid @RequestBody RefreshRequest refreshRequest) {
+        return sessionService.refresh(refreshRequest.refreshToken());
+    }
+
+    @PostMapping("/revoke")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public Mono<Void> revoke(@Valid @RequestBody RefreshRequest refreshRequest) {
+        return sessionService.revoke(refreshRequest.refreshToken());
+    }
+
+    // Uitloggen: het access token waarmee deze request gedaan wordt, is meteen niet meer geldig
+    @DeleteMapping("/current")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public Mono<Void> revokeCurrent(@AuthenticationPrincipal Jwt jwt) {
+        return sessionService.revokeAccessToken(jwt.getId(), jwt.getExpiresAt());
+    }
+
+    // In de servlet variant vertaalt Spring Security dit naar 401; hier komt de fout pas na de filter chain
+    @ExceptionHandler(BadCredentialsException.class)
+    public ResponseEntity<Map<String,String>> handleBadCredentialsException(BadCredentialsException e) {
+        Map<String, String> map = new HashMap<>();
+        map.put("message", e.getMessage());
+        return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(map);
+    }
+
+    @ExceptionHandler(HashingCapacityExceededException.class)
+    public ResponseEntity<Map<String,String>> handleHashingCapacityExceededException(HashingCapacityExceededException e) {
+        Map<String, String> map = new HashMap<>();
+        map.put("message", e.getMessage());
+        return ResponseEntity
+                .status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1L, e.getRetryAfter().toSeconds())))
+                .body(map);
+    }
+
+    @ExceptionHandler(TooManyLoginAttemptsException.class)
+    public ResponseEntity<Map<String,String>> handleTooManyLoginAttemptsException(TooManyLoginAttemptsException e) {
+        Map<String, String> map = new HashMap<>();
+        map.put("message", e.getMessage());
+        return ResponseEntity
+                .status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1L, e.getRetryAfter().toSeconds())))
+                .body(map);
+    }
+
+    @ExceptionHandler(InvalidRefreshTokenException.class)
+    public ResponseEntity<Map<String,String>> handleInvalidRefreshTokenException(InvalidRefreshTokenException e) {
+        Map<String, String> map = new HashMap<>();
+        map.put("message", e.getMessage());
+        return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(map);
+    }
+
+    @ExceptionHandler(TokenSigningUnavailableException.class)
+    public ResponseEntity<Map<String,String>> handleTokenSigningUnavailableException(TokenSigningUnavailableException e) {
+        Map<String, String> map = new HashMap<>();
+        map.put("message", e.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(map);
+    }
+}
@@ -0,0 +1,81 @@
+package be.ucll.backend2.controller;
+
+import be.ucll.backend2.config.OwnerAuthorizationManager;
+import be.ucll.backend2.controller.dto.UserDto;
+import be.ucll.backend2.exception.EmailAddressNotUniqueException;
+import be.ucll.backend2.exception.HashingCapacityExceededException;
+import be.ucll.backend2.exception.UserNotFoundException;
+import be.ucll.backend2.model.User;
+import be.ucll.backend2.service.ReactiveUserService;
+import jakarta.validation.Valid;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// Reactive variant van UserController
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequestMapping("/api/v1/users")
+public class ReactiveUserController {
+    private final ReactiveUserService userService;
+
+    public ReactiveUserController(ReactiveUserService userService) {
+        this.userService = userService;
+    }
+
+    @GetMapping("/{id}")
+    public Mono<User> getUser(@PathVariable long id, Authentication authentication) {
+        return checkOwner(authentication, id).then(userService.getUser(id));
+    }
+
+    @PostMapping
+    public Mono<User> registerUser(@Valid @RequestBody UserDto userDto) {
+        return userService.registerUser(userDto);
+    }
+
+    @PutMapping("/{id}")
+    public Mono<User> updateUser(@PathVariable long id,
+                                 @Valid @RequestBody UserDto userDto,
+                                 Authentication authentication) {
+        return checkOwner(authentication, id).then(userService.updateUser(id, userDto));
+    }
+
+    // Wat @OwnerOnly in UserController doet
+    private static Mono<Void> checkOwner(Authentication authentication, long id) {
+        return OwnerAuthorizationManager.isOwner(authentication, id)
+                ? Mono.empty()
+                : Mono.error(new AccessDeniedException("Access Denied"));
+    }
+
+    @ExceptionHandler(EmailAddressNotUniqueException.class)
+    public ResponseEntity<Map<String,String>> handleEmailAddressNotUniqueException(EmailAddressNotUniqueException e) {
+        Map<String, String> map = new HashMap<>();
+        map.put("message", e.getMessage());
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(map);
+    }
+
+    @ExceptionHandler(UserNotFoundException.class)
+    public ResponseEntity<Map<String,String>> handleUserNotFoundException(UserNotFoundException e) {
+        Map<String, String> map = new HashMap<>();
+        map.put("message", e.getMessage());
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(map);
+    }
+
+    @ExceptionHandler(HashingCapacityExceededException.class)
+    public ResponseEntity<Map<String,String>> handleHashingCapacityExceededException(HashingCapacityExceededException e) {
+        Map<String, String> map = new HashMap<>();
+        map.put("message", e.getMessage());
+        return ResponseEntity
+                .status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1L, e.getRetryAfter().toSeconds())))
+                .body(map);
+    }
+}
@@ -0,0 +1,36 @@
+package be.ucll.backend2.controller;
+
+import be.ucll.backend2.controller.dto.RegistrationStatus;
+import be.ucll.backend2.exception.RegistrationNotFoundException;
+import be.ucll.backend2.service.RegistrationService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequestMapping("/api/v1/registrations")
+public class RegistrationController {
+    private final RegistrationService registrationService;
+
+    public RegistrationController(RegistrationService registrationService) {
+        this.registrationService = registrationService;
+    }
+
+    @GetMapping("/{id}")
+    public RegistrationStatus getRegistration(@PathVariable UUID id) throws RegistrationNotFoundException {
+        return registrationService.getStatus(id).orElseThrow(() -> new RegistrationNotFoundException(id));
+    }
+
+    @ExceptionHandler(RegistrationNotFoundException.class)
+    public ResponseEntity<Map<String,String>> handleRegistrationNotFoundException(RegistrationNotFoundException e) {
+        Map<String, String> map = new HashMap<>();
+        map.put("message", e.getMessage());
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(map);
+    }
+}
@@ -2,14 +2,27 @@ package be.ucll.backend2.controller;
 
 import be.ucll.backend2.controller.dto.AuthenticationRequest;
 import be.ucll.backend2.controller.dto.AuthenticationResponse;
+import be.ucll.backend2.controller.dto.RefreshRequest;
+import be.ucll.backend2.exception.HashingCapacityExceededException;
+import be.ucll.backend2.exception.InvalidRefreshTokenException;
+import be.ucll.backend2.exception.TokenSigningUnavailableException;
+import be.ucll.backend2.exception.TooManyLoginAttemptsException;
 import be.ucll.backend2.service.SessionService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
-import org.springframework.web.bind.annotation.PostMapping;
-import org.springframework.web.bind.annotation.RequestBody;
-import org.springframework.web.bind.annotation.RequestMapping;
-import org.springframework.web.bind.annotation.RestController;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.Map;
 
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping("/api/v1/sessions")
 public class SessionController {
     private final SessionService sessionService;
@@ -19,11 +32,66 @@ public class SessionController {
     }
 
     @PostMapping
-    public AuthenticationResponse authenticate(@Valid @RequestBody AuthenticationRequest authenticationRequest) {
-        final var token = sessionService.authenticate(
+    public AuthenticationResponse authenticate(@Valid @RequestBody AuthenticationRequest authenticationRequest,
+                                               HttpServletRequest request)
+            throws HashingCapacityExceededException, TooManyLoginAttemptsException, TokenSigningUnavailableException {
+        return sessionService.authenticate(
                 authenticationRequest.emailAddress(),
-                authenticationRequest.password()
+                authenticationRequest.password(),
+                request.getRemoteAddr()
         );
-        return new AuthenticationResponse(token);
+    }
+
+    @PostMapping("/refresh")
+    public AuthenticationResponse refresh(@Valid @RequestBody RefreshRequest refreshRequest)
+            throws InvalidRefreshTokenException, TokenSigningUnavailableException {
+        return sessionService.refresh(refreshRequest.refreshToken());
+    }
+
+    @PostMapping("/revoke")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void revoke(@Valid @RequestBody RefreshRequest refreshRequest) {
+        sessionService.revoke(refreshRequest.refreshToken());
+    }
+
+    // Uitloggen: het access token waarmee deze request gedaan wordt, is meteen niet meer geldig
+    @DeleteMapping("/current")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void revokeCurrent(@AuthenticationPrincipal Jwt jwt) {
+        sessionService.revokeAccessToken(jwt.getId(), jwt.getExpiresAt());
+    }
+
+    @ExceptionHandler(HashingCapacityExceededException.class)
+    public ResponseEntity<Map<String,String>> handleHashingCapacityExceededException(HashingCapacityExceededException e) {
+        Map<String, String> map = new HashMap<>();
+        map.put("message", e.getMessage());
+        return ResponseEntity
+                .status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1L, e.getRetryAfter().toSeconds())))
+                .body(map);
+    }
+
+    @ExceptionHandler(TooManyLoginAttemptsException.class)
+    public ResponseEntity<Map<String,String>> handleTooManyLoginAttemptsException(TooManyLoginAttemptsException e) {
+        Map<String, String> map = new HashMap<>();
+        map.put("message", e.getMessage());
+        return ResponseEntity
+                .status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1L, e.getRetryAfter().toSeconds())))
+                .body(map);
+    }
+
+    @ExceptionHandler(InvalidRefreshTokenException.class)
+    public ResponseEntity<Map<String,String>> handleInvalidRefreshTokenException(InvalidRefreshTokenException e) {
+        Map<String, String> map = new HashMap<>();
+        map.put("message", e.getMessage());
+        return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(map);
+    }
+
+    @ExceptionHandler(TokenSigningUnavailableException.class)
+    public ResponseEntity<Map<String,String>> handleTokenSigningUnavailableException(TokenSigningUnavailableException e) {
+        Map<String, String> map = new HashMap<>();
+        map.put("message", e.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(map);
     }
 }
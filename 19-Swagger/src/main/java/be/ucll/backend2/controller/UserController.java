@@ -1,45 +1,61 @@
 package be.ucll.backend2.controller;
 
+import be.ucll.backend2.config.OwnerOnly;
 import be.ucll.backend2.controller.dto.UserDto;
 import be.ucll.backend2.exception.EmailAddressNotUniqueException;
+import be.ucll.backend2.exception.HashingCapacityExceededException;
 import be.ucll.backend2.exception.UserNotFoundException;
 import be.ucll.backend2.model.User;
 import be.ucll.backend2.model.UserDetailsImpl;
+import be.ucll.backend2.service.RegistrationService;
 import be.ucll.backend2.service.UserService;
 import jakarta.validation.Valid;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.access.prepost.PreAuthorize;
-import org.springframework.security.core.annotation.AuthenticationPrincipal;
-import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.web.bind.annotation.*;
 
+import java.net.URI;
 import java.util.HashMap;
 import java.util.Map;
 
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping("/api/v1/users")
 public class UserController {
     private final UserService userService;
+    private final RegistrationService registrationService;
 
-    public UserController(UserService userService) {
+    public UserController(UserService userService, RegistrationService registrationService) {
         this.userService = userService;
+        this.registrationService = registrationService;
     }
 
     @GetMapping("/{id}")
-    @PreAuthorize("#jwt.subject == '' + #id")
-    public User getUser(@AuthenticationPrincipal Jwt jwt, @PathVariable long id) throws UserNotFoundException {
+    @OwnerOnly
+    public User getUser(@PathVariable long id) throws UserNotFoundException {
         return userService.getUser(id);
     }
 
     @PostMapping
-    public User registerUser(@Valid @RequestBody UserDto userDto) throws EmailAddressNotUniqueException {
-        return userService.registerUser(userDto);
+    public ResponseEntity<?> registerUser(@Valid @RequestBody UserDto userDto)
+            throws EmailAddressNotUniqueException, HashingCapacityExceededException {
+        if (!registrationService.isAsync()) {
+            return ResponseEntity.ok(userService.registerUser(userDto));
+        }
+        // Asynchroon: 202 Accepted, de client kan de status opvragen via de Location header
+        final var status = registrationService.submit(userDto);
+        return ResponseEntity
+                .accepted()
+                .location(URI.create("/api/v1/registrations/" + status.id()))
+                .body(status);
     }
 
     @PutMapping("/{id}")
-    @PreAuthorize("principal.subject == '' + #id")
-    public User updateUser(@PathVariable long id, @Valid @RequestBody UserDto userDto) throws UserNotFoundException, EmailAddressNotUniqueException {
+    @OwnerOnly
+    public User updateUser(@PathVariable long id, @Valid @RequestBody UserDto userDto)
+            throws UserNotFoundException, EmailAddressNotUniqueException, HashingCapacityExceededException {
         return userService.updateUser(id, userDto);
     }
 
@@ -56,4 +72,14 @@ public class UserController {
         map.put("message", e.getMessage());
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(map);
     }
+
+    @ExceptionHandler(HashingCapacityExceededException.class)
+    public ResponseEntity<Map<String,String>> handleHashingCapacityExceededException(HashingCapacityExceededException e) {
+        Map<String, String> map = new HashMap<>();
+        map.put("message", e.getMessage());
+        return ResponseEntity
+                .status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1L, e.getRetryAfter().toSeconds())))
+                .body(map);
+    }
 }
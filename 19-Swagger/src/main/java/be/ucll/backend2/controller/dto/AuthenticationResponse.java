@@ -1,6 +1,7 @@
 package be.ucll.backend2.controller.dto;
 
 public record AuthenticationResponse(
-        String token
+        String token,
+        String refreshToken
 ) {
 }
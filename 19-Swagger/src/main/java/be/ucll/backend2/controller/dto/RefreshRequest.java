@@ -0,0 +1,8 @@
+package be.ucll.backend2.controller.dto;
+
+import jakarta.validation.constraints.NotBlank;
+
+public record RefreshRequest(
+        @NotBlank String refreshToken
+) {
+}
@@ -0,0 +1,28 @@
+package be.ucll.backend2.controller.dto;
+
+import java.util.UUID;
+
+public record RegistrationStatus(
+        UUID id,
+        State state,
+        Long userId,
+        String message
+) {
+    public enum State {
+        PENDING,
+        COMPLETED,
+        FAILED
+    }
+
+    public static RegistrationStatus pending(UUID id) {
+        return new RegistrationStatus(id, State.PENDING, null, null);
+    }
+
+    public static RegistrationStatus completed(UUID id, long userId) {
+        return new RegistrationStatus(id, State.COMPLETED, userId, null);
+    }
+
+    public static RegistrationStatus failed(UUID id, String message) {
+        return new RegistrationStatus(id, State.FAILED, null, message);
+    }
+}
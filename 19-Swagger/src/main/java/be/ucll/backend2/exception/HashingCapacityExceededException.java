@@ -0,0 +1,16 @@
+package be.ucll.backend2.exception;
+
+import java.time.Duration;
+
+public class HashingCapacityExceededException extends Exception {
+    private final Duration retryAfter;
+
+    public HashingCapacityExceededException(Duration retryAfter) {
+        super("Too many concurrent password hashing requests, please try again later.");
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
@@ -0,0 +1,9 @@
+package be.ucll.backend2.exception;
+
+// Unchecked, want PasswordEncoder laat geen checked exceptions toe. PasswordHashingExecutor en
+// ReactivePasswordHashingExecutor zetten hem om naar een HashingCapacityExceededException (503).
+public class HashingMemoryExhaustedException extends RuntimeException {
+    public HashingMemoryExhaustedException() {
+        super("Not enough memory available for password hashing, please try again later.");
+    }
+}
@@ -0,0 +1,7 @@
+package be.ucll.backend2.exception;
+
+public class InvalidRefreshTokenException extends Exception {
+    public InvalidRefreshTokenException() {
+        super("Invalid or expired refresh token.");
+    }
+}
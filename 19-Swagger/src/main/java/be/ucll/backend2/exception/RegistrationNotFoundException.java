@@ -0,0 +1,9 @@
+package be.ucll.backend2.exception;
+
+import java.util.UUID;
+
+public class RegistrationNotFoundException extends Exception {
+    public RegistrationNotFoundException(UUID id) {
+        super("Could not find registration with id " + id);
+    }
+}
@@ -0,0 +1,7 @@
+package be.ucll.backend2.exception;
+
+public class TokenSigningUnavailableException extends Exception {
+    public TokenSigningUnavailableException() {
+        super("This instance only verifies tokens, log in via the session service instead.");
+    }
+}
@@ -0,0 +1,16 @@
+package be.ucll.backend2.exception;
+
+import java.time.Duration;
+
+public class TooManyLoginAttemptsException extends Exception {
+    private final Duration retryAfter;
+
+    public TooManyLoginAttemptsException(Duration retryAfter) {
+        super("Too many login attempts, please try again later.");
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
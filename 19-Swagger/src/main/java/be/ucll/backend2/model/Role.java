@@ -1,6 +1,20 @@
 package be.ucll.backend2.model;
 
+import java.util.List;
+
+// De volgorde bepaalt de bit in de rol claim van access tokens: nieuwe rollen enkel achteraan toevoegen.
+// Een rol heeft ook alle rechten van de rollen die ze omvat (zie RoleAuthorities).
 public enum Role {
     READER,
-    EDITOR
+    EDITOR(READER);
+
+    private final List<Role> includes;
+
+    Role(Role... includes) {
+        this.includes = List.of(includes);
+    }
+
+    public List<Role> includes() {
+        return includes;
+    }
 }
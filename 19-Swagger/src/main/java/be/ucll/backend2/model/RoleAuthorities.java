@@ -0,0 +1,119 @@
+package be.ucll.backend2.model;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.*;
+
+// De rolhiërarchie uit Role, bij het opstarten gecompileerd. Een combinatie van rollen is een bitmask (bit i voor
+// Role.values()[i]) en voor elke mogelijke combinatie bestaat één gedeelde, onveranderlijke lijst authorities die
+// zijn eigen mask kent. Daardoor maakt getAuthorities geen nieuwe objecten meer en is hasRole een bittest.
+public final class RoleAuthorities extends AbstractList<GrantedAuthority> implements RandomAccess {
+    private static final String ROLE_PREFIX = "ROLE_";
+    private static final Role[] ROLES = Role.values();
+    private static final long ALL_ROLES = (1L << ROLES.length) - 1;
+    // Rol -> bit van de rol zelf en van alle rollen die ze (onrechtstreeks) omvat
+    private static final long[] REACHABLE = new long[ROLES.length];
+    // "READER" en "ROLE_READER" -> bit, zodat hasRole niet eerst een prefix moet toevoegen
+    private static final Map<String, Long> BITS = new HashMap<>();
+    private static final RoleAuthorities[] BY_ROLES;
+
+    static {
+        if (ROLES.length > 16) {
+            throw new IllegalStateException("Too many roles to precompute every combination");
+        }
+        for (final var role : ROLES) {
+            REACHABLE[role.ordinal()] = reachable(role, 0L);
+            BITS.put(role.name(), 1L << role.ordinal());
+            BITS.put(ROLE_PREFIX + role.name(), 1L << role.ordinal());
+        }
+        BY_ROLES = new RoleAuthorities[1 << ROLES.length];
+        for (int roles = 0; roles < BY_ROLES.length; roles++) {
+            // Combinaties met dezelfde gesloten mask delen hetzelfde object
+            final var closed = (int) close(roles);
+            if (BY_ROLES[closed] == null) {
+                BY_ROLES[closed] = new RoleAuthorities(closed);
+            }
+            BY_ROLES[roles] = BY_ROLES[closed];
+        }
+    }
+
+    private final long roles;
+    private final GrantedAuthority[] authorities;
+
+    private RoleAuthorities(long roles) {
+        this.roles = roles;
+        this.authorities = Arrays.stream(ROLES)
+                .filter(role -> (roles & 1L << role.ordinal()) != 0)
+                .map(role -> new SimpleGrantedAuthority(ROLE_PREFIX + role.name()))
+                .toArray(GrantedAuthority[]::new);
+    }
+
+    private static long reachable(Role role, long visited) {
+        var roles = visited | 1L << role.ordinal();
+        for (final var included : role.includes()) {
+            if ((roles & 1L << included.ordinal()) == 0) {
+                roles = reachable(included, roles);
+            }
+        }
+        return roles;
+    }
+
+    private static long close(long roles) {
+        var closed = 0L;
+        for (int i = 0; i < ROLES.length; i++) {
+            if ((roles & 1L << i) != 0) {
+                closed |= REACHABLE[i];
+            }
+        }
+        return closed;
+    }
+
+    public static RoleAuthorities of(Role role) {
+        return BY_ROLES[(int) REACHABLE[role.ordinal()]];
+    }
+
+    // Onbekende bits (een rol die pas in een nieuwere versie bestaat) worden genegeerd
+    public static RoleAuthorities of(long roles) {
+        return BY_ROLES[(int) (roles & ALL_ROLES)];
+    }
+
+    // Voor authorities die niet van ons komen (bv. @WithMockUser): de rollen erin, met alles wat ze omvatten
+    public static RoleAuthorities of(Collection<? extends GrantedAuthority> authorities) {
+        if (authorities instanceof RoleAuthorities roleAuthorities) {
+            return roleAuthorities;
+        }
+        var roles = 0L;
+        for (final var authority : authorities) {
+            final var name = authority.getAuthority();
+            if (name != null && name.startsWith(ROLE_PREFIX)) {
+                roles |= bit(name);
+            }
+        }
+        return of(roles);
+    }
+
+    // Bit voor "READER" of "ROLE_READER"; 0 als het geen gekende rol is
+    public static long bit(String role) {
+        final var bit = BITS.get(role);
+        return bit != null ? bit : 0L;
+    }
+
+    public long roles() {
+        return roles;
+    }
+
+    public boolean hasRole(String role) {
+        return (roles & bit(role)) != 0;
+    }
+
+    @Override
+    public GrantedAuthority get(int index) {
+        return authorities[index];
+    }
+
+    @Override
+    public int size() {
+        return authorities.length;
+    }
+}
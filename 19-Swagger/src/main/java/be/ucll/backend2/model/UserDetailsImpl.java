@@ -1,29 +1,28 @@
 package be.ucll.backend2.model;
 
 import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
 import java.util.Collection;
-import java.util.List;
 
-public record UserDetailsImpl(User user) implements UserDetails {
+// Immutable projectie van een User: enkel wat nodig is om in te loggen, zonder managed entity
+public record UserDetailsImpl(Long id, String emailAddress, String hashedPassword, Role role) implements UserDetails {
+    public UserDetailsImpl withHashedPassword(String hashedPassword) {
+        return new UserDetailsImpl(id, emailAddress, hashedPassword, role);
+    }
+
     @Override
     public String getUsername() {
-        return user.getEmailAddress();
+        return emailAddress;
     }
 
     @Override
     public String getPassword() {
-        return user.getHashedPassword();
+        return hashedPassword;
     }
 
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
-        final List<String> roles = switch (user.getRole()) {
-            case Role.READER -> List.of("ROLE_READER");
-            case Role.EDITOR -> List.of("ROLE_READER", "ROLE_EDITOR");
-        };
-        return roles.stream().map(role -> new SimpleGrantedAuthority(role)).toList();
+        return RoleAuthorities.of(role);
     }
 }
@@ -0,0 +1,70 @@
+package be.ucll.backend2.repository;
+
+import be.ucll.backend2.model.Actor;
+import io.r2dbc.spi.Readable;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// R2DBC versie van ActorRepository voor de reactive variant
+@Repository
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveActorRepository {
+    private final DatabaseClient databaseClient;
+
+    public ReactiveActorRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    public Flux<Actor> findAll() {
+        return databaseClient.sql("select id, name from actor order by id")
+                .map(ReactiveActorRepository::actor)
+                .all();
+    }
+
+    public Mono<Actor> findById(long id) {
+        return databaseClient.sql("select id, name from actor where id = :id")
+                .bind("id", id)
+                .map(ReactiveActorRepository::actor)
+                .one();
+    }
+
+    public Mono<Actor> save(Actor actor) {
+        return databaseClient.sql("insert into actor (name) values (:name)")
+                .bind("name", actor.getName())
+                .filter(statement -> statement.returnGeneratedValues("id"))
+                .map(row -> row.get("id", Long.class))
+                .one()
+                .map(id -> {
+                    actor.setId(id);
+                    return actor;
+                });
+    }
+
+    // Geeft false terug als er geen acteur met dit id is
+    public Mono<Boolean> update(long id, Actor actor) {
+        return databaseClient.sql("update actor set name = :name where id = :id")
+                .bind("name", actor.getName())
+                .bind("id", id)
+                .fetch()
+                .rowsUpdated()
+                .map(rowsUpdated -> rowsUpdated > 0);
+    }
+
+    // De koppelingen met films verdwijnen via ON DELETE CASCADE
+    public Mono<Boolean> deleteById(long id) {
+        return databaseClient.sql("delete from actor where id = :id")
+                .bind("id", id)
+                .fetch()
+                .rowsUpdated()
+                .map(rowsUpdated -> rowsUpdated > 0);
+    }
+
+    private static Actor actor(Readable row) {
+        final var actor = new Actor(row.get("name", String.class));
+        actor.setId(row.get("id", Long.class));
+        return actor;
+    }
+}
@@ -0,0 +1,96 @@
+package be.ucll.backend2.repository;
+
+import be.ucll.backend2.model.Actor;
+import be.ucll.backend2.model.Movie;
+import io.r2dbc.spi.Readable;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// R2DBC versie van MovieRepository voor de reactive variant. De acteurs worden zoals bij JPA (EAGER) meteen
+// mee opgehaald, maar in dezelfde query via een join.
+@Repository
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveMovieRepository {
+    private static final String SELECT = """
+            select m.id, m.title, m.director, m."year", a.id as actor_id, a.name as actor_name
+            from movie m
+            left join movie_actors ma on ma.movie_id = m.id
+            left join actor a on a.id = ma.actor_id
+            """;
+
+    private final DatabaseClient databaseClient;
+
+    public ReactiveMovieRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    public Flux<Movie> findAll() {
+        return movies(databaseClient.sql(SELECT + "order by m.id"));
+    }
+
+    public Flux<Movie> findByYearAfter(int year) {
+        return movies(databaseClient.sql(SELECT + "where m.\"year\" > :year order by m.id")
+                .bind("year", year));
+    }
+
+    public Flux<Movie> findByYearBefore(int year) {
+        return movies(databaseClient.sql(SELECT + "where m.\"year\" < :year order by m.id")
+                .bind("year", year));
+    }
+
+    public Flux<Movie> findByYearBetween(int yearStart, int yearEnd) {
+        return movies(databaseClient.sql(SELECT + "where m.\"year\" between :yearStart and :yearEnd order by m.id")
+                .bind("yearStart", yearStart)
+                .bind("yearEnd", yearEnd));
+    }
+
+    public Mono<Movie> save(Movie movie) {
+        return databaseClient.sql("insert into movie (title, director, \"year\") values (:title, :director, :year)")
+                .bind("title", movie.getTitle())
+                .bind("director", movie.getDirector())
+                .bind("year", movie.getYear())
+                .filter(statement -> statement.returnGeneratedValues("id"))
+                .map(row -> row.get("id", Long.class))
+                .one()
+                .map(id -> {
+                    movie.setId(id);
+                    return movie;
+                });
+    }
+
+    // Eén rij per (film, acteur), gesorteerd op film: opeenvolgende rijen met hetzelfde id vormen één film
+    private static Flux<Movie> movies(DatabaseClient.GenericExecuteSpec spec) {
+        return spec.map(ReactiveMovieRepository::row)
+                .all()
+                .bufferUntilChanged(row -> row.movie().getId())
+                .map(rows -> {
+                    final var movie = rows.getFirst().movie();
+                    for (final var row : rows) {
+                        if (row.actor() != null) {
+                            movie.addActor(row.actor());
+                        }
+                    }
+                    return movie;
+                });
+    }
+
+    private record Row(Movie movie, Actor actor) {}
+
+    private static Row row(Readable row) {
+        final var movie = new Movie(
+                row.get("title", String.class),
+                row.get("director", String.class),
+                row.get("year", Integer.class));
+        movie.setId(row.get("id", Long.class));
+        final var actorId = row.get("actor_id", Long.class);
+        if (actorId == null) {
+            return new Row(movie, null);
+        }
+        final var actor = new Actor(row.get("actor_name", String.class));
+        actor.setId(actorId);
+        return new Row(movie, actor);
+    }
+}
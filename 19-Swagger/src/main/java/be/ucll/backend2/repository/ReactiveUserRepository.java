@@ -0,0 +1,108 @@
+package be.ucll.backend2.repository;
+
+import be.ucll.backend2.model.Role;
+import be.ucll.backend2.model.User;
+import be.ucll.backend2.model.UserDetailsImpl;
+import io.r2dbc.spi.Readable;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+// R2DBC versie van UserRepository voor de reactive variant
+@Repository
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveUserRepository {
+    private final DatabaseClient databaseClient;
+
+    public ReactiveUserRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    public Mono<User> findById(long id) {
+        return databaseClient.sql("select id, email_address, hashed_password, role from \"user\" where id = :id")
+                .bind("id", id)
+                .map(ReactiveUserRepository::user)
+                .one();
+    }
+
+    // Read-only projectie voor login, zoals UserRepository.findUserDetailsByEmailAddress
+    public Mono<UserDetailsImpl> findUserDetailsByEmailAddress(String emailAddress) {
+        return databaseClient.sql("""
+                        select id, email_address, hashed_password, role
+                        from "user"
+                        where email_address = :emailAddress
+                        """)
+                .bind("emailAddress", emailAddress)
+                .map(row -> new UserDetailsImpl(
+                        row.get("id", Long.class),
+                        row.get("email_address", String.class),
+                        row.get("hashed_password", String.class),
+                        Role.valueOf(row.get("role", String.class))))
+                .one();
+    }
+
+    public Mono<Boolean> existsByEmailAddress(String emailAddress) {
+        return databaseClient.sql("select count(*) from \"user\" where email_address = :emailAddress")
+                .bind("emailAddress", emailAddress)
+                .map(row -> row.get(0, Long.class))
+                .one()
+                .map(count -> count > 0);
+    }
+
+    public Mono<Boolean> existsByEmailAddressAndIdNot(String emailAddress, long id) {
+        return databaseClient.sql("select count(*) from \"user\" where email_address = :emailAddress and id <> :id")
+                .bind("emailAddress", emailAddress)
+                .bind("id", id)
+                .map(row -> row.get(0, Long.class))
+                .one()
+                .map(count -> count > 0);
+    }
+
+    public Mono<User> save(User user) {
+        if (user.getId() != null) {
+            return databaseClient.sql("""
+                            update "user"
+                            set email_address = :emailAddress, hashed_password = :hashedPassword, role = :role
+                            where id = :id
+                            """)
+                    .bind("emailAddress", user.getEmailAddress())
+                    .bind("hashedPassword", user.getHashedPassword())
+                    .bind("role", user.getRole().name())
+                    .bind("id", user.getId())
+                    .then()
+                    .thenReturn(user);
+        }
+        return databaseClient.sql("""
+                        insert into "user" (email_address, hashed_password, role)
+                        values (:emailAddress, :hashedPassword, :role)
+                        """)
+                .bind("emailAddress", user.getEmailAddress())
+                .bind("hashedPassword", user.getHashedPassword())
+                .bind("role", user.getRole().name())
+                .filter(statement -> statement.returnGeneratedValues("id"))
+                .map(row -> row.get("id", Long.class))
+                .one()
+                .map(id -> {
+                    user.setId(id);
+                    return user;
+                });
+    }
+
+    public Mono<Long> updateHashedPassword(long id, String hashedPassword) {
+        return databaseClient.sql("update \"user\" set hashed_password = :hashedPassword where id = :id")
+                .bind("hashedPassword", hashedPassword)
+                .bind("id", id)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    private static User user(Readable row) {
+        final var user = new User(
+                row.get("email_address", String.class),
+                row.get("hashed_password", String.class));
+        user.setId(row.get("id", Long.class));
+        user.setRole(Role.valueOf(row.get("role", String.class)));
+        return user;
+    }
+}
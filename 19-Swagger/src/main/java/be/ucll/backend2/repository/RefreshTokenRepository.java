@@ -0,0 +1,30 @@
+package be.ucll.backend2.repository;
+
+import be.ucll.backend2.model.RefreshToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Optional;
+
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
+    Optional<RefreshToken> findByTokenHash(String tokenHash);
+
+    // Geeft 1 terug als wij het token ingetrokken hebben, 0 als iemand anders ons voor was
+    @Modifying
+    @Transactional
+    @Query("update RefreshToken t set t.revoked = true where t.id = :id and t.revoked = false")
+    int revoke(Long id);
+
+    @Modifying
+    @Transactional
+    @Query("update RefreshToken t set t.revoked = true where t.userId = :userId")
+    int revokeAllForUser(Long userId);
+
+    @Modifying
+    @Transactional
+    @Query("delete from RefreshToken t where t.userId = :userId and t.expiresAt < :now")
+    int deleteExpiredForUser(Long userId, Instant now);
+}
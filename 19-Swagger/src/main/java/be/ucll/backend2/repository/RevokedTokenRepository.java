@@ -0,0 +1,23 @@
+package be.ucll.backend2.repository;
+
+import be.ucll.backend2.model.RevokedToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface RevokedTokenRepository extends JpaRepository<RevokedToken, String> {
+    @Query("select t.jti from RevokedToken t where t.expiresAt > :now")
+    List<String> findActiveJtis(Instant now);
+
+    @Query("select t.jti from RevokedToken t where t.revokedAt >= :since and t.expiresAt > :now")
+    List<String> findJtisRevokedSince(Instant since, Instant now);
+
+    @Modifying
+    @Transactional
+    @Query("delete from RevokedToken t where t.expiresAt <= :now")
+    int deleteExpired(Instant now);
+}
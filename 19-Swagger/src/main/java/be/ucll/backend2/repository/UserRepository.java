@@ -1,10 +1,36 @@
 package be.ucll.backend2.repository;
 
 import be.ucll.backend2.model.User;
+import be.ucll.backend2.model.UserDetailsImpl;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmailAddress(String emailAddress);
+    boolean existsByEmailAddress(String emailAddress);
+    boolean existsByEmailAddressAndIdNot(String emailAddress, Long id);
+
+    // Read-only projectie voor login: geen managed entity, geen dirty checking
+    @Query("""
+           select new be.ucll.backend2.model.UserDetailsImpl(u.id, u.emailAddress, u.hashedPassword, u.role)
+           from User u
+           where u.emailAddress = :emailAddress
+           """)
+    Optional<UserDetailsImpl> findUserDetailsByEmailAddress(String emailAddress);
+
+    @Query("""
+           select new be.ucll.backend2.model.UserDetailsImpl(u.id, u.emailAddress, u.hashedPassword, u.role)
+           from User u
+           where u.id = :id
+           """)
+    Optional<UserDetailsImpl> findUserDetailsById(Long id);
+
+    @Modifying
+    @Transactional
+    @Query("update User u set u.hashedPassword = :hashedPassword where u.id = :id")
+    int updateHashedPassword(Long id, String hashedPassword);
 }
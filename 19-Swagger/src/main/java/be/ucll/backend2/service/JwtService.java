@@ -1,49 +1,51 @@
 package be.ucll.backend2.service;
 
+import be.ucll.backend2.config.AccessTokenEncoder;
 import be.ucll.backend2.config.JwtProperties;
+import be.ucll.backend2.config.RoleClaimJwtAuthenticationConverter;
+import be.ucll.backend2.model.RoleAuthorities;
 import be.ucll.backend2.model.UserDetailsImpl;
-import org.springframework.security.oauth2.jose.jws.MacAlgorithm;
-import org.springframework.security.oauth2.jwt.JwsHeader;
-import org.springframework.security.oauth2.jwt.JwtClaimsSet;
-import org.springframework.security.oauth2.jwt.JwtEncoder;
-import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
 import org.springframework.stereotype.Service;
 
 import java.time.Instant;
 import java.util.Collection;
+import java.util.UUID;
 
 @Service
 public class JwtService {
-    private final JwtEncoder jwtEncoder;
+    private final AccessTokenEncoder jwtEncoder;
     private final JwtProperties jwtProperties;
 
-    public JwtService(JwtEncoder jwtEncoder, JwtProperties jwtProperties) {
+    public JwtService(AccessTokenEncoder jwtEncoder, JwtProperties jwtProperties) {
         this.jwtEncoder = jwtEncoder;
         this.jwtProperties = jwtProperties;
     }
 
+    public boolean canSign() {
+        return jwtEncoder.canSign();
+    }
+
     public String generateToken(long id, String emailAddress, Collection<String> roles) {
-        final var now = Instant.now();
-        final var expiresAt = now.plus(jwtProperties.token().lifetime());
-        final var header = JwsHeader
-            .with(MacAlgorithm.HS256)
-            .type("JWT")
-            .build();
-        final var claims = JwtClaimsSet.builder()
-                .issuer(jwtProperties.token().issuer())
-                .issuedAt(now)
-                .expiresAt(expiresAt)
-                .subject(String.valueOf(id))
-                .claim("email", emailAddress)
-                .claim("scope", String.join(" ", roles))
-                .build();
-        return jwtEncoder.encode(JwtEncoderParameters.from(header, claims)).getTokenValue();
+        return generateToken(id, emailAddress, RoleClaimJwtAuthenticationConverter.encode(roles));
     }
 
     public String generateToken(UserDetailsImpl userDetails) {
         return generateToken(
-                userDetails.user().getId(),
-                userDetails.user().getEmailAddress(),
-                userDetails.getAuthorities().stream().map(grantedAuthority -> grantedAuthority.toString()).toList());
+                userDetails.id(),
+                userDetails.emailAddress(),
+                RoleAuthorities.of(userDetails.role()).roles());
+    }
+
+    private String generateToken(long id, String emailAddress, long roles) {
+        final var now = Instant.now();
+        final var expiresAt = now.plus(jwtProperties.token().lifetime());
+        // jti maakt het mogelijk om dit ene token in te trekken (TokenRevocationService)
+        return jwtEncoder.encode(
+                UUID.randomUUID().toString(),
+                String.valueOf(id),
+                emailAddress,
+                roles,
+                now,
+                expiresAt);
     }
 }
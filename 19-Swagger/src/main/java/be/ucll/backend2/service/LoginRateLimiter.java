@@ -0,0 +1,95 @@
+package be.ucll.backend2.service;
+
+import be.ucll.backend2.config.LoginRateLimitProperties;
+import be.ucll.backend2.exception.TooManyLoginAttemptsException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Token bucket per e-mailadres en per IP-adres. Wordt nagekeken vóór we de gebruiker opzoeken of een
+// wachtwoord hashen, zodat credential stuffing geen CPU meer kost.
+@Component
+public class LoginRateLimiter {
+    private final boolean enabled;
+    private final Limit accountLimit;
+    private final Limit addressLimit;
+    private final Cache<String, Bucket> accountBuckets;
+    private final Cache<String, Bucket> addressBuckets;
+    private final Counter accountRejections;
+    private final Counter addressRejections;
+
+    public LoginRateLimiter(LoginRateLimitProperties properties, MeterRegistry meterRegistry) {
+        this.enabled = properties.enabled();
+        this.accountLimit = new Limit(properties.account().capacity(), properties.account().refillPeriod());
+        this.addressLimit = new Limit(properties.address().capacity(), properties.address().refillPeriod());
+        // Begrensd in aantal, en ongebruikte buckets verdwijnen vanzelf
+        this.accountBuckets = Caffeine.newBuilder()
+                .maximumSize(properties.maximumBuckets())
+                .expireAfterAccess(properties.idleTimeout())
+                .build();
+        this.addressBuckets = Caffeine.newBuilder()
+                .maximumSize(properties.maximumBuckets())
+                .expireAfterAccess(properties.idleTimeout())
+                .build();
+        this.accountRejections = Counter.builder("security.login.rate-limited")
+                .tag("key", "account")
+                .register(meterRegistry);
+        this.addressRejections = Counter.builder("security.login.rate-limited")
+                .tag("key", "address")
+                .register(meterRegistry);
+    }
+
+    public void acquire(String emailAddress, String clientAddress) throws TooManyLoginAttemptsException {
+        if (!enabled) {
+            return;
+        }
+        final var now = System.nanoTime();
+        final var addressWait = addressBuckets
+                .get(clientAddress, key -> new Bucket())
+                .tryAcquire(now, addressLimit);
+        if (addressWait > 0) {
+            addressRejections.increment();
+            throw new TooManyLoginAttemptsException(Duration.ofNanos(addressWait));
+        }
+        final var accountWait = accountBuckets
+                .get(emailAddress.toLowerCase(Locale.ROOT), key -> new Bucket())
+                .tryAcquire(now, accountLimit);
+        if (accountWait > 0) {
+            accountRejections.increment();
+            throw new TooManyLoginAttemptsException(Duration.ofNanos(accountWait));
+        }
+    }
+
+    private record Limit(long emissionInterval, long tolerance) {
+        Limit(int capacity, Duration refillPeriod) {
+            this(refillPeriod.toNanos() / capacity, refillPeriod.toNanos() / capacity * capacity);
+        }
+    }
+
+    // Token bucket als GCRA: één AtomicLong met het tijdstip waarop de bucket terug vol is.
+    // Geen locks nodig, enkel een compare-and-set.
+    private static final class Bucket {
+        private final AtomicLong theoreticalArrivalTime = new AtomicLong(Long.MIN_VALUE);
+
+        // Geeft 0 terug als er een token was, anders hoe lang (in ns) er gewacht moet worden
+        long tryAcquire(long now, Limit limit) {
+            while (true) {
+                final var arrivalTime = theoreticalArrivalTime.get();
+                final var newArrivalTime = Math.max(arrivalTime, now) + limit.emissionInterval();
+                final var wait = newArrivalTime - now - limit.tolerance();
+                if (wait > 0) {
+                    return wait;
+                }
+                if (theoreticalArrivalTime.compareAndSet(arrivalTime, newArrivalTime)) {
+                    return 0;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package be.ucll.backend2.service;
+
+import be.ucll.backend2.config.PasswordProperties;
+import be.ucll.backend2.exception.HashingCapacityExceededException;
+import be.ucll.backend2.exception.HashingMemoryExhaustedException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+// Wachtwoorden hashen (bcrypt) kost veel CPU. We doen dit daarom op een aparte, begrensde thread pool,
+// zodat een piek aan logins de Tomcat threads (of met virtual threads: de carrier threads) niet opgebruikt.
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class PasswordHashingExecutor implements DisposableBean {
+    private final ThreadPoolExecutor executor;
+    private final Timer hashTimer;
+    private final Duration timeout;
+    private final Duration retryAfter;
+
+    public PasswordHashingExecutor(PasswordProperties passwordProperties, MeterRegistry meterRegistry) {
+        final var hashing = passwordProperties.hashing();
+        final var threads = hashing.threads() > 0 ? hashing.threads() : Runtime.getRuntime().availableProcessors();
+        final var threadCounter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                threads,
+                threads,
+                0L,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(hashing.queueCapacity()),
+                runnable -> {
+                    final var thread = new Thread(runnable, "password-hashing-" + threadCounter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                // Gooi RejectedExecutionException als de queue vol zit
+                new ThreadPoolExecutor.AbortPolicy());
+        this.timeout = hashing.timeout();
+        this.retryAfter = hashing.retryAfter();
+
+        Gauge.builder("security.password.hashing.queue", executor, e -> e.getQueue().size())
+                .description("Number of password hashing tasks waiting for a thread")
+                .register(meterRegistry);
+        Gauge.builder("security.password.hashing.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Number of password hashing tasks currently running")
+                .register(meterRegistry);
+        Gauge.builder("security.password.hashing.threads", executor, ThreadPoolExecutor::getMaximumPoolSize)
+                .register(meterRegistry);
+        this.hashTimer = Timer.builder("security.password.hashing.duration")
+                .description("Time spent hashing or verifying a password")
+                .register(meterRegistry);
+    }
+
+    public <T> T execute(Supplier<T> task) throws HashingCapacityExceededException {
+        final Callable<T> callable = () -> hashTimer.record(task);
+        final Future<T> future;
+        try {
+            future = executor.submit(callable);
+        } catch (RejectedExecutionException e) {
+            throw new HashingCapacityExceededException(retryAfter);
+        }
+
+        try {
+            return future.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            // Te lang gewacht op het Argon2 geheugenbudget: ook een 503
+            if (e.getCause() instanceof HashingMemoryExhaustedException) {
+                throw new HashingCapacityExceededException(retryAfter);
+            }
+            // Gooi bv. een BadCredentialsException gewoon opnieuw
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw new HashingCapacityExceededException(retryAfter);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new HashingCapacityExceededException(retryAfter);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,42 @@
+package be.ucll.backend2.service;
+
+import be.ucll.backend2.exception.ActorNotFoundException;
+import be.ucll.backend2.model.Actor;
+import be.ucll.backend2.repository.ReactiveActorRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveActorService {
+    private final ReactiveActorRepository actorRepository;
+
+    public ReactiveActorService(ReactiveActorRepository actorRepository) {
+        this.actorRepository = actorRepository;
+    }
+
+    public Flux<Actor> getAllActors() {
+        return actorRepository.findAll();
+    }
+
+    public Mono<Actor> getActorById(long id) {
+        return actorRepository.findById(id)
+                .switchIfEmpty(Mono.error(() -> new ActorNotFoundException(id)));
+    }
+
+    public Mono<Actor> createActor(Actor actor) {
+        return actorRepository.save(actor);
+    }
+
+    public Mono<Actor> updateActor(long id, Actor actor) {
+        return actorRepository.update(id, actor)
+                .flatMap(updated -> updated ? getActorById(id) : Mono.error(new ActorNotFoundException(id)));
+    }
+
+    public Mono<Void> deleteActor(long id) {
+        return actorRepository.deleteById(id)
+                .flatMap(deleted -> deleted ? Mono.<Void>empty() : Mono.error(new ActorNotFoundException(id)));
+    }
+}
@@ -0,0 +1,46 @@
+package be.ucll.backend2.service;
+
+import be.ucll.backend2.controller.dto.CreateMovieDto;
+import be.ucll.backend2.model.Movie;
+import be.ucll.backend2.repository.ReactiveMovieRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Optional;
+
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveMovieService {
+    private final ReactiveMovieRepository movieRepository;
+
+    public ReactiveMovieService(ReactiveMovieRepository movieRepository) {
+        this.movieRepository = movieRepository;
+    }
+
+    public Flux<Movie> getAllMovies() {
+        return movieRepository.findAll();
+    }
+
+    public Flux<Movie> getMoviesBetween(Optional<Integer> startYear, Optional<Integer> endYear) {
+        if (startYear.isPresent() && endYear.isPresent()) {
+            return movieRepository.findByYearBetween(startYear.get(), endYear.get());
+        } else if (startYear.isPresent()) {
+            return movieRepository.findByYearAfter(startYear.get());
+        } else if (endYear.isPresent()) {
+            return movieRepository.findByYearBefore(endYear.get());
+        } else {
+            return movieRepository.findAll();
+        }
+    }
+
+    public Mono<Movie> createMovie(CreateMovieDto movie) {
+        var movieToSave = new Movie(
+                movie.title(),
+                movie.director(),
+                movie.year()
+        );
+        return movieRepository.save(movieToSave);
+    }
+}
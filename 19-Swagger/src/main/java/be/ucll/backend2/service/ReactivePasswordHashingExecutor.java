@@ -0,0 +1,64 @@
+package be.ucll.backend2.service;
+
+import be.ucll.backend2.config.PasswordProperties;
+import be.ucll.backend2.exception.HashingCapacityExceededException;
+import be.ucll.backend2.exception.HashingMemoryExhaustedException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
+
+// Reactive tegenhanger van PasswordHashingExecutor: bcrypt mag de event loop niet blokkeren, dus hashen gebeurt op
+// een eigen bounded elastic scheduler met evenveel threads en dezelfde wachtrij als de servlet variant.
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactivePasswordHashingExecutor implements DisposableBean {
+    private final Scheduler scheduler;
+    private final Timer hashTimer;
+    private final Duration timeout;
+    private final Duration retryAfter;
+
+    public ReactivePasswordHashingExecutor(PasswordProperties passwordProperties, MeterRegistry meterRegistry) {
+        final var hashing = passwordProperties.hashing();
+        final var threads = hashing.threads() > 0 ? hashing.threads() : Runtime.getRuntime().availableProcessors();
+        this.scheduler = Schedulers.newBoundedElastic(threads, hashing.queueCapacity(), "password-hashing", 60, true);
+        this.timeout = hashing.timeout();
+        this.retryAfter = hashing.retryAfter();
+        this.hashTimer = Timer.builder("security.password.hashing.duration")
+                .description("Time spent hashing or verifying a password")
+                .register(meterRegistry);
+    }
+
+    // Voor UserDetailsRepositoryReactiveAuthenticationManager, die zelf het wachtwoord nakijkt
+    public Scheduler scheduler() {
+        return scheduler;
+    }
+
+    public <T> Mono<T> execute(Callable<T> task) {
+        return limit(Mono.fromCallable(() -> hashTimer.recordCallable(task)).subscribeOn(scheduler));
+    }
+
+    // Volle wachtrij of te lang wachten (ook op het Argon2 geheugenbudget): 503, zoals bij PasswordHashingExecutor
+    public <T> Mono<T> limit(Mono<T> hashing) {
+        return hashing
+                .timeout(timeout)
+                .onErrorMap(e -> e instanceof RejectedExecutionException
+                                || e instanceof TimeoutException
+                                || e instanceof HashingMemoryExhaustedException,
+                        e -> new HashingCapacityExceededException(retryAfter));
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.dispose();
+    }
+}
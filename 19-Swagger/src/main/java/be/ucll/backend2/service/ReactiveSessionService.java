@@ -0,0 +1,97 @@
+package be.ucll.backend2.service;
+
+import be.ucll.backend2.controller.dto.AuthenticationResponse;
+import be.ucll.backend2.exception.TokenSigningUnavailableException;
+import be.ucll.backend2.model.UserDetailsImpl;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.security.authentication.ReactiveAuthenticationManager;
+import org.springframework.security.authentication.UserDetailsRepositoryReactiveAuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Instant;
+
+// Reactive tegenhanger van SessionService. Het wachtwoord wordt op de hashing scheduler nagekeken.
+// Refresh tokens en ingetrokken access tokens blijven via JPA gaan; die (korte) DB calls gebeuren op
+// Schedulers.boundedElastic() zodat ze de event loop niet blokkeren.
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveSessionService {
+    private final ReactiveAuthenticationManager authenticationManager;
+    private final ReactivePasswordHashingExecutor passwordHashingExecutor;
+    private final JwtService jwtService;
+    private final LoginRateLimiter loginRateLimiter;
+    private final RefreshTokenService refreshTokenService;
+    private final TokenRevocationService tokenRevocationService;
+
+    public ReactiveSessionService(ReactiveUserDetailsServiceImpl userDetailsService,
+                                  PasswordEncoder passwordEncoder,
+                                  ReactivePasswordHashingExecutor passwordHashingExecutor,
+                                  JwtService jwtService,
+                                  LoginRateLimiter loginRateLimiter,
+                                  RefreshTokenService refreshTokenService,
+                                  TokenRevocationService tokenRevocationService) {
+        final var authenticationManager = new UserDetailsRepositoryReactiveAuthenticationManager(userDetailsService);
+        authenticationManager.setPasswordEncoder(passwordEncoder);
+        authenticationManager.setUserDetailsPasswordService(userDetailsService);
+        authenticationManager.setScheduler(passwordHashingExecutor.scheduler());
+        this.authenticationManager = authenticationManager;
+        this.passwordHashingExecutor = passwordHashingExecutor;
+        this.jwtService = jwtService;
+        this.loginRateLimiter = loginRateLimiter;
+        this.refreshTokenService = refreshTokenService;
+        this.tokenRevocationService = tokenRevocationService;
+    }
+
+    public Mono<AuthenticationResponse> authenticate(String emailAddress, String password, String clientAddress) {
+        return Mono
+                .fromCallable(() -> {
+                    requireSigning();
+                    // Eerst throttlen, nog vóór we de gebruiker opzoeken of een wachtwoord hashen
+                    loginRateLimiter.acquire(emailAddress, clientAddress);
+                    return new UsernamePasswordAuthenticationToken(emailAddress, password);
+                })
+                .flatMap(authentication -> passwordHashingExecutor.limit(
+                        authenticationManager.authenticate(authentication)))
+                .flatMap(authentication -> issue((UserDetailsImpl) authentication.getPrincipal()));
+    }
+
+    public Mono<AuthenticationResponse> refresh(String refreshToken) {
+        return Mono
+                .fromCallable(() -> {
+                    // Vóór consume, zoals in SessionService
+                    requireSigning();
+                    return refreshTokenService.consume(refreshToken);
+                })
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMap(this::issue);
+    }
+
+    public Mono<Void> revoke(String refreshToken) {
+        return Mono.fromRunnable(() -> refreshTokenService.revoke(refreshToken))
+                .subscribeOn(Schedulers.boundedElastic())
+                .then();
+    }
+
+    public Mono<Void> revokeAccessToken(String tokenId, Instant expiresAt) {
+        return Mono.fromRunnable(() -> tokenRevocationService.revoke(tokenId, expiresAt))
+                .subscribeOn(Schedulers.boundedElastic())
+                .then();
+    }
+
+    private Mono<AuthenticationResponse> issue(UserDetailsImpl userDetails) {
+        return Mono.fromCallable(() -> new AuthenticationResponse(
+                        jwtService.generateToken(userDetails),
+                        refreshTokenService.issue(userDetails.id())))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    private void requireSigning() throws TokenSigningUnavailableException {
+        if (!jwtService.canSign()) {
+            throw new TokenSigningUnavailableException();
+        }
+    }
+}
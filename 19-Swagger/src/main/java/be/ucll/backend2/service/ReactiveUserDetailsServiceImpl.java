@@ -0,0 +1,41 @@
+package be.ucll.backend2.service;
+
+import be.ucll.backend2.model.UserDetailsImpl;
+import be.ucll.backend2.repository.ReactiveUserRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.security.core.userdetails.ReactiveUserDetailsPasswordService;
+import org.springframework.security.core.userdetails.ReactiveUserDetailsService;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.util.Locale;
+
+// Reactive tegenhanger van UserDetailsServiceImpl. Zonder UserDetailsCache: een lookup blokkeert hier geen thread.
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveUserDetailsServiceImpl implements ReactiveUserDetailsService, ReactiveUserDetailsPasswordService {
+    private final ReactiveUserRepository userRepository;
+
+    public ReactiveUserDetailsServiceImpl(ReactiveUserRepository userRepository) {
+        this.userRepository = userRepository;
+    }
+
+    @Override
+    public Mono<UserDetails> findByUsername(String username) {
+        return userRepository
+                .findUserDetailsByEmailAddress(username.toLowerCase(Locale.ROOT))
+                .cast(UserDetails.class);
+    }
+
+    @Override
+    public Mono<UserDetails> updatePassword(UserDetails userDetails, String newPassword) {
+        if (!(userDetails instanceof UserDetailsImpl userDetailsImpl)) {
+            // Don't know how to update this
+            return Mono.just(userDetails);
+        }
+        return userRepository
+                .updateHashedPassword(userDetailsImpl.id(), newPassword)
+                .thenReturn(userDetailsImpl.withHashedPassword(newPassword));
+    }
+}
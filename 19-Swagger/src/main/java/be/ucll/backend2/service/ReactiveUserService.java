@@ -0,0 +1,75 @@
+package be.ucll.backend2.service;
+
+import be.ucll.backend2.controller.dto.UserDto;
+import be.ucll.backend2.exception.EmailAddressNotUniqueException;
+import be.ucll.backend2.exception.UserNotFoundException;
+import be.ucll.backend2.model.User;
+import be.ucll.backend2.repository.ReactiveUserRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.Locale;
+
+// Reactive tegenhanger van UserService. Registreren is hier altijd synchroon: er wacht geen thread op het hashen.
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveUserService {
+    private final PasswordEncoder passwordEncoder;
+    private final ReactiveUserRepository userRepository;
+    private final ReactivePasswordHashingExecutor passwordHashingExecutor;
+    private final RefreshTokenService refreshTokenService;
+
+    public ReactiveUserService(PasswordEncoder passwordEncoder,
+                               ReactiveUserRepository userRepository,
+                               ReactivePasswordHashingExecutor passwordHashingExecutor,
+                               RefreshTokenService refreshTokenService) {
+        this.passwordEncoder = passwordEncoder;
+        this.userRepository = userRepository;
+        this.passwordHashingExecutor = passwordHashingExecutor;
+        this.refreshTokenService = refreshTokenService;
+    }
+
+    public Mono<User> getUser(long id) {
+        return userRepository.findById(id)
+                .switchIfEmpty(Mono.error(() -> new UserNotFoundException(id)));
+    }
+
+    public Mono<User> registerUser(UserDto userDto) {
+        // Goedkope check op de unique index vóór we (duur) hashen. De unique constraint blijft de echte garantie.
+        return userRepository.existsByEmailAddress(userDto.emailAddress().toLowerCase(Locale.ROOT))
+                .flatMap(exists -> exists
+                        ? Mono.<String>error(new EmailAddressNotUniqueException(userDto.emailAddress()))
+                        : hash(userDto.password()))
+                .flatMap(hashedPassword -> userRepository.save(new User(userDto.emailAddress(), hashedPassword)))
+                .onErrorMap(DataIntegrityViolationException.class,
+                        e -> new EmailAddressNotUniqueException(userDto.emailAddress()));
+    }
+
+    public Mono<User> updateUser(long id, UserDto userDto) {
+        return getUser(id)
+                .flatMap(user -> userRepository
+                        .existsByEmailAddressAndIdNot(userDto.emailAddress().toLowerCase(Locale.ROOT), id)
+                        .flatMap(exists -> exists
+                                ? Mono.<String>error(new EmailAddressNotUniqueException(userDto.emailAddress()))
+                                : hash(userDto.password()))
+                        .flatMap(hashedPassword -> {
+                            user.setEmailAddress(userDto.emailAddress());
+                            user.setHashedPassword(hashedPassword);
+                            return userRepository.save(user);
+                        })
+                        // Zoals in UserService; de refresh tokens staan in JPA, dus niet op een event loop thread
+                        .flatMap(savedUser -> Mono.fromRunnable(() -> refreshTokenService.revokeAllForUser(id))
+                                .subscribeOn(Schedulers.boundedElastic())
+                                .thenReturn(savedUser)))
+                .onErrorMap(DataIntegrityViolationException.class,
+                        e -> new EmailAddressNotUniqueException(userDto.emailAddress()));
+    }
+
+    private Mono<String> hash(String password) {
+        return passwordHashingExecutor.execute(() -> passwordEncoder.encode(password));
+    }
+}
@@ -0,0 +1,105 @@
+package be.ucll.backend2.service;
+
+import be.ucll.backend2.config.JwtKeyRing;
+import be.ucll.backend2.config.JwtProperties;
+import be.ucll.backend2.exception.InvalidRefreshTokenException;
+import be.ucll.backend2.model.RefreshToken;
+import be.ucll.backend2.model.UserDetailsImpl;
+import be.ucll.backend2.repository.RefreshTokenRepository;
+import be.ucll.backend2.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Mac;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.HexFormat;
+
+// Refresh tokens laten een client een nieuw access token halen zonder opnieuw het wachtwoord
+// te sturen (en dus zonder bcrypt). Elk refresh token kan maar één keer gebruikt worden.
+@Service
+public class RefreshTokenService {
+    private static final Logger logger = LoggerFactory.getLogger(RefreshTokenService.class);
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final UserRepository userRepository;
+    private final JwtProperties jwtProperties;
+    private final SecureRandom secureRandom = new SecureRandom();
+    private final SecretKey hashKey;
+
+    public RefreshTokenService(RefreshTokenRepository refreshTokenRepository,
+                               UserRepository userRepository,
+                               JwtProperties jwtProperties) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.userRepository = userRepository;
+        this.jwtProperties = jwtProperties;
+        if (jwtProperties.refreshToken().hashKey() != null) {
+            this.hashKey = JwtKeyRing.secretKey(jwtProperties.refreshToken().hashKey());
+        } else {
+            logger.warn("No refresh token hash key configured, using autogenerated key");
+            final var key = new byte[32];
+            secureRandom.nextBytes(key);
+            this.hashKey = new SecretKeySpec(key, "HmacSHA256");
+        }
+    }
+
+    public String issue(long userId) {
+        final var now = Instant.now();
+        refreshTokenRepository.deleteExpiredForUser(userId, now);
+        final var bytes = new byte[32];
+        secureRandom.nextBytes(bytes);
+        final var token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        refreshTokenRepository.save(
+                new RefreshToken(hash(token), userId, now.plus(jwtProperties.refreshToken().lifetime())));
+        return token;
+    }
+
+    // Trekt het token in (rotatie) en geeft de gebruiker terug waarvoor een nieuw token mag gemaakt worden
+    public UserDetailsImpl consume(String token) throws InvalidRefreshTokenException {
+        final var refreshToken = refreshTokenRepository
+                .findByTokenHash(hash(token))
+                .orElseThrow(() -> new InvalidRefreshTokenException());
+        if (refreshToken.getExpiresAt().isBefore(Instant.now())) {
+            throw new InvalidRefreshTokenException();
+        }
+        if (refreshToken.isRevoked() || refreshTokenRepository.revoke(refreshToken.getId()) == 0) {
+            // Een ingetrokken token wordt opnieuw gebruikt: mogelijk gestolen, trek alles van deze gebruiker in
+            refreshTokenRepository.revokeAllForUser(refreshToken.getUserId());
+            throw new InvalidRefreshTokenException();
+        }
+        // Rollen opnieuw uit de DB halen, zodat wijzigingen meteen in het nieuwe access token zitten
+        return userRepository
+                .findUserDetailsById(refreshToken.getUserId())
+                .orElseThrow(() -> new InvalidRefreshTokenException());
+    }
+
+    public void revoke(String token) {
+        refreshTokenRepository
+                .findByTokenHash(hash(token))
+                .ifPresent(refreshToken -> refreshTokenRepository.revoke(refreshToken.getId()));
+    }
+
+    // Na een wijziging van wachtwoord of e-mailadres moet de gebruiker opnieuw inloggen
+    public void revokeAllForUser(long userId) {
+        refreshTokenRepository.revokeAllForUser(userId);
+    }
+
+    // Refresh tokens zijn lang en willekeurig, dus een snelle HMAC volstaat (geen bcrypt nodig). Zonder de sleutel
+    // helpt een gelekte tabel niets. Bewust een eigen sleutel en niet die van de JWT's: na een rotatie van de
+    // JWT sleutels moeten refresh tokens blijven werken.
+    private String hash(String token) {
+        try {
+            final var mac = Mac.getInstance("HmacSHA256");
+            mac.init(hashKey);
+            return HexFormat.of().formatHex(mac.doFinal(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package be.ucll.backend2.service;
+
+import be.ucll.backend2.config.RegistrationProperties;
+import be.ucll.backend2.controller.dto.RegistrationStatus;
+import be.ucll.backend2.controller.dto.UserDto;
+import be.ucll.backend2.exception.EmailAddressNotUniqueException;
+import be.ucll.backend2.exception.HashingCapacityExceededException;
+import be.ucll.backend2.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Asynchrone registratie: valideren en het e-mailadres reserveren gebeurt meteen,
+// hashen en opslaan gebeurt later op een begrensde worker pool.
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class RegistrationService implements DisposableBean {
+    private static final Logger logger = LoggerFactory.getLogger(RegistrationService.class);
+
+    private final UserService userService;
+    private final UserRepository userRepository;
+    private final boolean async;
+    private final Duration retryAfter;
+    private final ThreadPoolExecutor executor;
+    private final Cache<UUID, RegistrationStatus> statuses;
+    // E-mailadressen waarvoor een registratie in de wachtrij zit
+    private final Set<String> reservedEmailAddresses = ConcurrentHashMap.newKeySet();
+
+    public RegistrationService(UserService userService,
+                               UserRepository userRepository,
+                               RegistrationProperties registrationProperties) {
+        this.userService = userService;
+        this.userRepository = userRepository;
+        this.async = registrationProperties.async();
+        this.retryAfter = registrationProperties.retryAfter();
+        final var threadCounter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                registrationProperties.threads(),
+                registrationProperties.threads(),
+                0L,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(registrationProperties.queueCapacity()),
+                runnable -> {
+                    final var thread = new Thread(runnable, "registration-" + threadCounter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.statuses = Caffeine.newBuilder()
+                .maximumSize(registrationProperties.statusMaximumSize())
+                .expireAfterWrite(registrationProperties.statusRetention())
+                .build();
+    }
+
+    public boolean isAsync() {
+        return async;
+    }
+
+    public RegistrationStatus submit(UserDto userDto)
+            throws EmailAddressNotUniqueException, HashingCapacityExceededException {
+        final var emailAddress = userDto.emailAddress().toLowerCase(Locale.ROOT);
+        if (!reservedEmailAddresses.add(emailAddress)) {
+            throw new EmailAddressNotUniqueException(userDto.emailAddress());
+        }
+        if (userRepository.existsByEmailAddress(emailAddress)) {
+            reservedEmailAddresses.remove(emailAddress);
+            throw new EmailAddressNotUniqueException(userDto.emailAddress());
+        }
+
+        final var status = RegistrationStatus.pending(UUID.randomUUID());
+        statuses.put(status.id(), status);
+        try {
+            executor.execute(() -> register(status.id(), userDto, emailAddress));
+        } catch (RejectedExecutionException e) {
+            statuses.invalidate(status.id());
+            reservedEmailAddresses.remove(emailAddress);
+            throw new HashingCapacityExceededException(retryAfter);
+        }
+        return status;
+    }
+
+    public Optional<RegistrationStatus> getStatus(UUID id) {
+        return Optional.ofNullable(statuses.getIfPresent(id));
+    }
+
+    private void register(UUID id, UserDto userDto, String emailAddress) {
+        try {
+            final var user = userService.registerUser(userDto);
+            statuses.put(id, RegistrationStatus.completed(id, user.getId()));
+        } catch (EmailAddressNotUniqueException | HashingCapacityExceededException e) {
+            statuses.put(id, RegistrationStatus.failed(id, e.getMessage()));
+        } catch (RuntimeException e) {
+            logger.error("Registration {} failed", id, e);
+            statuses.put(id, RegistrationStatus.failed(id, "Registration failed"));
+        } finally {
+            reservedEmailAddresses.remove(emailAddress);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+    }
+}
@@ -1,24 +1,80 @@
 package be.ucll.backend2.service;
 
+import be.ucll.backend2.controller.dto.AuthenticationResponse;
+import be.ucll.backend2.exception.HashingCapacityExceededException;
+import be.ucll.backend2.exception.InvalidRefreshTokenException;
+import be.ucll.backend2.exception.TokenSigningUnavailableException;
+import be.ucll.backend2.exception.TooManyLoginAttemptsException;
 import be.ucll.backend2.model.UserDetailsImpl;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.stereotype.Service;
 
+import java.time.Instant;
+
 @Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class SessionService {
     private final AuthenticationManager authenticationManager;
     private final JwtService jwtService;
+    private final PasswordHashingExecutor passwordHashingExecutor;
+    private final LoginRateLimiter loginRateLimiter;
+    private final RefreshTokenService refreshTokenService;
+    private final TokenRevocationService tokenRevocationService;
 
-    public SessionService(AuthenticationManager authenticationManager, JwtService jwtService) {
+    public SessionService(AuthenticationManager authenticationManager,
+                          JwtService jwtService,
+                          PasswordHashingExecutor passwordHashingExecutor,
+                          LoginRateLimiter loginRateLimiter,
+                          RefreshTokenService refreshTokenService,
+                          TokenRevocationService tokenRevocationService) {
         this.authenticationManager = authenticationManager;
         this.jwtService = jwtService;
+        this.passwordHashingExecutor = passwordHashingExecutor;
+        this.loginRateLimiter = loginRateLimiter;
+        this.refreshTokenService = refreshTokenService;
+        this.tokenRevocationService = tokenRevocationService;
     }
 
-    public String authenticate(String emailAddress, String password) {
+    public AuthenticationResponse authenticate(String emailAddress, String password, String clientAddress)
+            throws HashingCapacityExceededException, TooManyLoginAttemptsException, TokenSigningUnavailableException {
+        requireSigning();
+        // Eerst throttlen, nog vóór we de gebruiker opzoeken of een wachtwoord hashen
+        loginRateLimiter.acquire(emailAddress, clientAddress);
         final var usernamePasswordAuthentication = new UsernamePasswordAuthenticationToken(emailAddress, password);
-        final var authentication = authenticationManager.authenticate(usernamePasswordAuthentication);
+        // Het wachtwoord nakijken gebeurt op de hashing thread pool, niet op de Tomcat thread
+        final var authentication = passwordHashingExecutor.execute(
+                () -> authenticationManager.authenticate(usernamePasswordAuthentication));
         final var userDetails = (UserDetailsImpl) authentication.getPrincipal();
-        return jwtService.generateToken(userDetails);
+        return new AuthenticationResponse(
+                jwtService.generateToken(userDetails),
+                refreshTokenService.issue(userDetails.id()));
+    }
+
+    // Geen PasswordEncoder nodig: enkel het refresh token wordt nagekeken
+    public AuthenticationResponse refresh(String refreshToken)
+            throws InvalidRefreshTokenException, TokenSigningUnavailableException {
+        // Vóór consume, anders is het refresh token verbruikt zonder dat er een nieuw access token komt
+        requireSigning();
+        final var userDetails = refreshTokenService.consume(refreshToken);
+        return new AuthenticationResponse(
+                jwtService.generateToken(userDetails),
+                refreshTokenService.issue(userDetails.id()));
+    }
+
+    public void revoke(String refreshToken) {
+        refreshTokenService.revoke(refreshToken);
+    }
+
+    // Het access token zelf is stateless; het wordt geweigerd tot zijn exp via TokenRevocationService
+    public void revokeAccessToken(String tokenId, Instant expiresAt) {
+        tokenRevocationService.revoke(tokenId, expiresAt);
+    }
+
+    private void requireSigning() throws TokenSigningUnavailableException {
+        if (!jwtService.canSign()) {
+            throw new TokenSigningUnavailableException();
+        }
     }
 }
@@ -0,0 +1,151 @@
+package be.ucll.backend2.service;
+
+import be.ucll.backend2.config.TokenRevocationProperties;
+import be.ucll.backend2.model.RevokedToken;
+import be.ucll.backend2.repository.RevokedTokenRepository;
+import be.ucll.backend2.util.BloomFilter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.security.oauth2.core.OAuth2Error;
+import org.springframework.security.oauth2.core.OAuth2ErrorCodes;
+import org.springframework.security.oauth2.core.OAuth2TokenValidator;
+import org.springframework.security.oauth2.core.OAuth2TokenValidatorResult;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Ingetrokken access tokens (op jti). De DB is de bron van waarheid, maar een Bloom filter in het geheugen
+// beantwoordt het gewone geval ("niet ingetrokken") zonder query. Enkel als de filter "misschien" zegt,
+// kijken we in de DB. Intrekkingen op andere nodes worden elke refreshInterval opgehaald.
+@Service
+public class TokenRevocationService implements OAuth2TokenValidator<Jwt>, DisposableBean {
+    private static final Logger logger = LoggerFactory.getLogger(TokenRevocationService.class);
+    private static final OAuth2Error REVOKED = new OAuth2Error(
+            OAuth2ErrorCodes.INVALID_TOKEN, "The token has been revoked", null);
+    // Marge voor klokverschillen tussen nodes en transacties die later committen
+    private static final long REFRESH_OVERLAP_SECONDS = 60L;
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final TokenRevocationProperties tokenRevocationProperties;
+    private final ScheduledExecutorService scheduler;
+    private final Counter filteredLookups;
+    private final Counter revokedLookups;
+    private final Counter falsePositiveLookups;
+    private volatile BloomFilter filter;
+    private volatile Instant lastRefresh = Instant.EPOCH;
+
+    public TokenRevocationService(RevokedTokenRepository revokedTokenRepository,
+                                  TokenRevocationProperties tokenRevocationProperties,
+                                  MeterRegistry meterRegistry) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.tokenRevocationProperties = tokenRevocationProperties;
+        this.filter = new BloomFilter(
+                tokenRevocationProperties.expectedRevocations(),
+                tokenRevocationProperties.falsePositiveProbability());
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            final var thread = new Thread(runnable, "token-revocation");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.filteredLookups = lookupCounter(meterRegistry, "filtered");
+        this.revokedLookups = lookupCounter(meterRegistry, "revoked");
+        this.falsePositiveLookups = lookupCounter(meterRegistry, "false-positive");
+    }
+
+    private static Counter lookupCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("security.token-revocation.lookups")
+                .description("Revocation checks by outcome; false-positive means a DB lookup for nothing")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    // Pas starten als het schema er is (schema.sql wordt bij opstarten uitgevoerd)
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        rebuild();
+        final var refreshInterval = tokenRevocationProperties.refreshInterval().toMillis();
+        final var rebuildInterval = tokenRevocationProperties.rebuildInterval().toMillis();
+        scheduler.scheduleWithFixedDelay(
+                () -> run(this::refresh), refreshInterval, refreshInterval, TimeUnit.MILLISECONDS);
+        scheduler.scheduleWithFixedDelay(
+                () -> run(this::rebuild), rebuildInterval, rebuildInterval, TimeUnit.MILLISECONDS);
+    }
+
+    public void revoke(String jti, Instant expiresAt) {
+        final var now = Instant.now();
+        if (jti == null || expiresAt == null || !expiresAt.isAfter(now)) {
+            return;
+        }
+        revokedTokenRepository.save(new RevokedToken(jti, expiresAt, now));
+        filter.put(jti);
+    }
+
+    public boolean isRevoked(String jti) {
+        if (!filter.mightContain(jti)) {
+            filteredLookups.increment();
+            return false;
+        }
+        if (revokedTokenRepository.existsById(jti)) {
+            revokedLookups.increment();
+            return true;
+        }
+        falsePositiveLookups.increment();
+        return false;
+    }
+
+    // Tokens zonder jti (van vóór deze wijziging) kunnen niet ingetrokken worden en vervallen vanzelf
+    @Override
+    public OAuth2TokenValidatorResult validate(Jwt jwt) {
+        final var jti = jwt.getId();
+        if (jti != null && isRevoked(jti)) {
+            return OAuth2TokenValidatorResult.failure(REVOKED);
+        }
+        return OAuth2TokenValidatorResult.success();
+    }
+
+    // Intrekkingen van andere nodes toevoegen
+    private void refresh() {
+        final var now = Instant.now();
+        final var since = lastRefresh.minusSeconds(REFRESH_OVERLAP_SECONDS);
+        final var current = filter;
+        revokedTokenRepository.findJtisRevokedSince(since, now).forEach(current::put);
+        lastRefresh = now;
+    }
+
+    // Een Bloom filter kan niets verwijderen: bouw een nieuwe met enkel de nog niet verlopen intrekkingen
+    private void rebuild() {
+        final var now = Instant.now();
+        revokedTokenRepository.deleteExpired(now);
+        final var jtis = revokedTokenRepository.findActiveJtis(now);
+        final var rebuilt = new BloomFilter(
+                Math.max(tokenRevocationProperties.expectedRevocations(), jtis.size() * 2),
+                tokenRevocationProperties.falsePositiveProbability());
+        jtis.forEach(rebuilt::put);
+        filter = rebuilt;
+        // Wat tijdens de rebuild lokaal aan de oude filter toegevoegd werd, haalt de volgende refresh op
+        lastRefresh = now;
+        logger.debug("Rebuilt token revocation filter with {} entries", jtis.size());
+    }
+
+    private static void run(Runnable task) {
+        try {
+            task.run();
+        } catch (RuntimeException e) {
+            logger.warn("Token revocation refresh failed, retrying later", e);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.shutdown();
+    }
+}
@@ -0,0 +1,64 @@
+package be.ucll.backend2.service;
+
+import be.ucll.backend2.config.UserCacheProperties;
+import be.ucll.backend2.model.UserDetailsImpl;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.Optional;
+import java.util.function.Function;
+
+// Cache voor UserDetailsServiceImpl.loadUserByUsername, zodat niet elke login een query naar de DB doet.
+// Onbekende e-mailadressen worden ook (korter) onthouden, zodat credential stuffing de DB niet belast.
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class UserDetailsCache {
+    private final Cache<String, Optional<UserDetailsImpl>> cache;
+
+    public UserDetailsCache(UserCacheProperties userCacheProperties, MeterRegistry meterRegistry) {
+        final var timeToLive = userCacheProperties.timeToLive().toNanos();
+        final var negativeTimeToLive = userCacheProperties.negativeTimeToLive().toNanos();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(userCacheProperties.maximumSize())
+                .expireAfter(new Expiry<String, Optional<UserDetailsImpl>>() {
+                    @Override
+                    public long expireAfterCreate(String key, Optional<UserDetailsImpl> value, long currentTime) {
+                        return value.isPresent() ? timeToLive : negativeTimeToLive;
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, Optional<UserDetailsImpl> value,
+                                                  long currentTime, long currentDuration) {
+                        return expireAfterCreate(key, value, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, Optional<UserDetailsImpl> value,
+                                                long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "userDetails");
+    }
+
+    public Optional<UserDetailsImpl> get(String emailAddress,
+                                         Function<String, Optional<UserDetailsImpl>> loader) {
+        return cache.get(key(emailAddress), loader);
+    }
+
+    public void invalidate(String emailAddress) {
+        cache.invalidate(key(emailAddress));
+    }
+
+    private static String key(String emailAddress) {
+        return emailAddress.toLowerCase(Locale.ROOT);
+    }
+}
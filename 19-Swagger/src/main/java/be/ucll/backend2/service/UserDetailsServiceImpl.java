@@ -2,39 +2,41 @@ package be.ucll.backend2.service;
 
 import be.ucll.backend2.model.UserDetailsImpl;
 import be.ucll.backend2.repository.UserRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
-import java.util.Locale;
-
 @Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class UserDetailsServiceImpl implements UserDetailsService, UserDetailsPasswordService {
     private final UserRepository userRepository;
+    private final UserDetailsCache userDetailsCache;
 
-    public UserDetailsServiceImpl(UserRepository userRepository) {
+    public UserDetailsServiceImpl(UserRepository userRepository, UserDetailsCache userDetailsCache) {
         this.userRepository = userRepository;
+        this.userDetailsCache = userDetailsCache;
     }
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        final var user = userRepository
-            .findByEmailAddress(username.toLowerCase(Locale.ROOT))
+        // De cache geeft de key al in kleine letters mee aan de loader
+        return userDetailsCache
+            .get(username, userRepository::findUserDetailsByEmailAddress)
             .orElseThrow(() -> new UsernameNotFoundException(username));
-        return new UserDetailsImpl(user);
     }
 
     @Override
     public UserDetails updatePassword(UserDetails userDetails, String newPassword) {
-        if (!(userDetails instanceof UserDetailsImpl)) {
+        if (!(userDetails instanceof UserDetailsImpl userDetailsImpl)) {
             // Don't know how to update this
             return userDetails;
         }
-        final var oldUser = ((UserDetailsImpl) userDetails).user();
-        oldUser.setHashedPassword(newPassword);
-        final var updatedUser = userRepository.save(oldUser);
-        return new UserDetailsImpl(updatedUser);
+        // Enkel de hash updaten, zonder de volledige entity te laden
+        userRepository.updateHashedPassword(userDetailsImpl.id(), newPassword);
+        userDetailsCache.invalidate(userDetailsImpl.emailAddress());
+        return userDetailsImpl.withHashedPassword(newPassword);
     }
 }
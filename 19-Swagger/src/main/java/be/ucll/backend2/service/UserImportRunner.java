@@ -0,0 +1,54 @@
+package be.ucll.backend2.service;
+
+import be.ucll.backend2.config.UserImportProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Files;
+import java.util.Locale;
+
+// Start de applicatie met --user-import.file=users.ndjson (of users.csv) om gebruikers in bulk te importeren.
+// De import draait in de gewone applicatie, die daarna gewoon requests blijft behandelen. Let op: met
+// spring.sql.init.mode=always maakt schema.sql bij elke start de tabellen opnieuw aan, en met de in-memory H2
+// database is er sowieso niets blijvend. De import overleeft een herstart dus enkel tegen een persistente
+// database met spring.sql.init.mode=never.
+@Component
+@ConditionalOnProperty(prefix = "user-import", name = "file")
+@EnableConfigurationProperties(UserImportProperties.class)
+public class UserImportRunner implements CommandLineRunner {
+    private static final Logger logger = LoggerFactory.getLogger(UserImportRunner.class);
+
+    private final UserImportService userImportService;
+    private final UserImportProperties userImportProperties;
+
+    public UserImportRunner(UserImportService userImportService, UserImportProperties userImportProperties) {
+        this.userImportService = userImportService;
+        this.userImportProperties = userImportProperties;
+    }
+
+    @Override
+    public void run(String... args) throws Exception {
+        final var file = userImportProperties.file();
+        final var format = file.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".csv")
+                ? UserImportService.Format.CSV
+                : UserImportService.Format.NDJSON;
+        logger.info("Importing users from {} ({})", file, format);
+        final var start = System.nanoTime();
+        try (final var reader = Files.newBufferedReader(file)) {
+            final var result = userImportService.importUsers(
+                    reader,
+                    format,
+                    userImportProperties.batchSize(),
+                    userImportProperties.threads());
+            logger.info("Imported {} users in {} ms ({} conflicts, {} invalid lines)",
+                    result.imported(),
+                    (System.nanoTime() - start) / 1_000_000,
+                    result.conflicts(),
+                    result.invalid());
+        }
+    }
+}
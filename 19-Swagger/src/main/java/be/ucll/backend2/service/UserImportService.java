@@ -0,0 +1,203 @@
+package be.ucll.backend2.service;
+
+import be.ucll.backend2.controller.dto.UserDto;
+import be.ucll.backend2.model.Role;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+
+// Importeert gebruikers in bulk: het bestand wordt lijn per lijn gelezen en per batch verwerkt,
+// zodat het geheugengebruik constant blijft, ook voor miljoenen rijen.
+@Service
+public class UserImportService {
+    private static final Logger logger = LoggerFactory.getLogger(UserImportService.class);
+
+    private static final String INSERT_SQL =
+            "INSERT INTO \"user\" (email_address, hashed_password, role) VALUES (?, ?, ?)";
+    private static final String EXISTING_SQL =
+            "SELECT email_address FROM \"user\" WHERE email_address IN (:emailAddresses)";
+    private static final String CSV_HEADER = "emailAddress,password";
+
+    public enum Format {
+        CSV,
+        NDJSON
+    }
+
+    public record Result(long imported, long conflicts, long invalid) {}
+
+    private record Row(long lineNumber, String emailAddress, String password) {}
+
+    private static final class Counts {
+        private long imported;
+        private long conflicts;
+        private long invalid;
+    }
+
+    private final PasswordEncoder passwordEncoder;
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final UserDetailsCache userDetailsCache;
+
+    public UserImportService(PasswordEncoder passwordEncoder,
+                             JdbcTemplate jdbcTemplate,
+                             NamedParameterJdbcTemplate namedParameterJdbcTemplate,
+                             PlatformTransactionManager transactionManager,
+                             ObjectMapper objectMapper,
+                             Validator validator,
+                             ObjectProvider<UserDetailsCache> userDetailsCache) {
+        this.passwordEncoder = passwordEncoder;
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedParameterJdbcTemplate = namedParameterJdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        // Enkel de servlet variant heeft een UserDetailsCache
+        this.userDetailsCache = userDetailsCache.getIfAvailable();
+    }
+
+    public Result importUsers(BufferedReader reader, Format format, int batchSize, int threads) throws IOException {
+        final var parallelism = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        // Aparte pool: een import mag de hashing pool voor logins niet opeisen
+        final var pool = new ForkJoinPool(parallelism);
+        final var counts = new Counts();
+        try {
+            final var batch = new ArrayList<Row>(batchSize);
+            long lineNumber = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank() || (format == Format.CSV && lineNumber == 1 && line.equalsIgnoreCase(CSV_HEADER))) {
+                    continue;
+                }
+                final var row = parse(lineNumber, line, format);
+                if (row.isEmpty()) {
+                    logger.warn("Line {}: invalid user, skipped", lineNumber);
+                    counts.invalid++;
+                    continue;
+                }
+                batch.add(row.get());
+                if (batch.size() == batchSize) {
+                    processBatch(batch, pool, counts);
+                    batch.clear();
+                }
+            }
+            if (!batch.isEmpty()) {
+                processBatch(batch, pool, counts);
+            }
+        } finally {
+            pool.shutdown();
+        }
+        return new Result(counts.imported, counts.conflicts, counts.invalid);
+    }
+
+    private Optional<Row> parse(long lineNumber, String line, Format format) {
+        final UserDto userDto;
+        if (format == Format.CSV) {
+            // E-mailadressen bevatten geen komma's, wachtwoorden misschien wel
+            final var columns = line.split(",", 2);
+            if (columns.length != 2) {
+                return Optional.empty();
+            }
+            userDto = new UserDto(columns[0].trim(), columns[1]);
+        } else {
+            try {
+                userDto = objectMapper.readValue(line, UserDto.class);
+            } catch (JsonProcessingException e) {
+                return Optional.empty();
+            }
+        }
+        if (!validator.validate(userDto).isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.of(new Row(lineNumber, userDto.emailAddress().toLowerCase(Locale.ROOT), userDto.password()));
+    }
+
+    private void processBatch(List<Row> batch, ForkJoinPool pool, Counts counts) {
+        final var conflicts = counts.conflicts;
+        insertBatch(batch, pool, counts);
+        // Eén regel per batch en geen e-mailadressen in de log; de lijnnummers staan op DEBUG
+        if (counts.conflicts > conflicts) {
+            logger.warn("Lines {}-{}: {} e-mail addresses already registered (uc_user_emailaddress), skipped",
+                    batch.getFirst().lineNumber(), batch.getLast().lineNumber(), counts.conflicts - conflicts);
+        }
+    }
+
+    private void insertBatch(List<Row> batch, ForkJoinPool pool, Counts counts) {
+        // 1. Dubbels binnen de batch zelf
+        final var rows = new LinkedHashMap<String, Row>();
+        for (final var row : batch) {
+            if (rows.putIfAbsent(row.emailAddress(), row) != null) {
+                reportConflict(row, counts);
+            }
+        }
+
+        // 2. Adressen die al in de DB zitten: niet hashen
+        final var existing = new HashSet<>(namedParameterJdbcTemplate.queryForList(
+                EXISTING_SQL,
+                Map.of("emailAddresses", rows.keySet()),
+                String.class));
+        rows.values().removeIf(row -> {
+            if (existing.contains(row.emailAddress())) {
+                reportConflict(row, counts);
+                return true;
+            }
+            return false;
+        });
+        if (rows.isEmpty()) {
+            return;
+        }
+
+        // 3. Parallel hashen; een parallel stream binnen een ForkJoinPool taak gebruikt die pool
+        final List<Row> toInsert = List.copyOf(rows.values());
+        final List<Object[]> arguments = pool.submit(() -> toInsert
+                .parallelStream()
+                .map(row -> new Object[]{
+                        row.emailAddress(),
+                        passwordEncoder.encode(row.password()),
+                        Role.READER.name()
+                })
+                .toList()
+        ).join();
+
+        // 4. Batch insert in één transactie. Is iemand ons intussen voor geweest, dan rij per rij.
+        try {
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(INSERT_SQL, arguments));
+            counts.imported += arguments.size();
+        } catch (DataIntegrityViolationException e) {
+            for (int i = 0; i < arguments.size(); i++) {
+                try {
+                    jdbcTemplate.update(INSERT_SQL, arguments.get(i));
+                    counts.imported++;
+                } catch (DataIntegrityViolationException rowException) {
+                    reportConflict(toInsert.get(i), counts);
+                }
+            }
+        }
+        if (userDetailsCache != null) {
+            toInsert.forEach(row -> userDetailsCache.invalidate(row.emailAddress()));
+        }
+    }
+
+    private static void reportConflict(Row row, Counts counts) {
+        logger.debug("Line {}: e-mail address is already registered", row.lineNumber());
+        counts.conflicts++;
+    }
+}
@@ -2,29 +2,54 @@ package be.ucll.backend2.service;
 
 import be.ucll.backend2.controller.dto.UserDto;
 import be.ucll.backend2.exception.EmailAddressNotUniqueException;
+import be.ucll.backend2.exception.HashingCapacityExceededException;
 import be.ucll.backend2.exception.UserNotFoundException;
 import be.ucll.backend2.model.User;
 import be.ucll.backend2.repository.UserRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Locale;
 
 @Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class UserService {
     private final PasswordEncoder passwordEncoder;
     private final UserRepository userRepository;
+    private final UserDetailsCache userDetailsCache;
+    private final PasswordHashingExecutor passwordHashingExecutor;
+    private final RefreshTokenService refreshTokenService;
+    private final TransactionTemplate transactionTemplate;
 
-    public UserService(PasswordEncoder passwordEncoder, UserRepository userRepository) {
+    public UserService(PasswordEncoder passwordEncoder,
+                       UserRepository userRepository,
+                       UserDetailsCache userDetailsCache,
+                       PasswordHashingExecutor passwordHashingExecutor,
+                       RefreshTokenService refreshTokenService,
+                       PlatformTransactionManager transactionManager) {
         this.passwordEncoder = passwordEncoder;
         this.userRepository = userRepository;
+        this.userDetailsCache = userDetailsCache;
+        this.passwordHashingExecutor = passwordHashingExecutor;
+        this.refreshTokenService = refreshTokenService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
     public User getUser(long id) throws UserNotFoundException {
         return userRepository.findById(id).orElseThrow(() -> new UserNotFoundException(id));
     }
 
-    public User registerUser(UserDto userDto) throws EmailAddressNotUniqueException {
-        final var hashedPassword = passwordEncoder.encode(userDto.password());
+    public User registerUser(UserDto userDto)
+            throws EmailAddressNotUniqueException, HashingCapacityExceededException {
+        // Goedkope check op de unique index vóór we (duur) hashen. De unique constraint blijft de echte garantie.
+        if (userRepository.existsByEmailAddress(userDto.emailAddress().toLowerCase(Locale.ROOT))) {
+            throw new EmailAddressNotUniqueException(userDto.emailAddress());
+        }
+        final var hashedPassword = hash(userDto.password());
         final var user = new User(
                 userDto.emailAddress(),
                 hashedPassword
@@ -33,18 +58,41 @@ public class UserService {
             return userRepository.save(user);
         } catch (DataIntegrityViolationException e) {
             throw new EmailAddressNotUniqueException(userDto.emailAddress());
+        } finally {
+            // Vergeet een eventueel gecachete "gebruiker bestaat niet"
+            userDetailsCache.invalidate(userDto.emailAddress());
         }
     }
 
-    public User updateUser(long id, UserDto userDto) throws UserNotFoundException, EmailAddressNotUniqueException {
+    public User updateUser(long id, UserDto userDto)
+            throws UserNotFoundException, EmailAddressNotUniqueException, HashingCapacityExceededException {
         final var user = userRepository.findById(id).orElseThrow(() -> new UserNotFoundException(id));
+        if (userRepository.existsByEmailAddressAndIdNot(userDto.emailAddress().toLowerCase(Locale.ROOT), id)) {
+            throw new EmailAddressNotUniqueException(userDto.emailAddress());
+        }
+        final var oldEmailAddress = user.getEmailAddress();
+        // Hashen buiten de transactie, zodat we intussen geen connection vasthouden
+        final var hashedPassword = hash(userDto.password());
         user.setEmailAddress(userDto.emailAddress());
-        final var hashedPassword = passwordEncoder.encode(userDto.password());
         user.setHashedPassword(hashedPassword);
         try {
-            return userRepository.save(user);
+            return transactionTemplate.execute(status -> {
+                final var savedUser = userRepository.saveAndFlush(user);
+                // Een (gestolen) refresh token mag een wijziging van wachtwoord of e-mailadres niet overleven
+                refreshTokenService.revokeAllForUser(id);
+                return savedUser;
+            });
         } catch (DataIntegrityViolationException e) {
             throw new EmailAddressNotUniqueException(userDto.emailAddress());
+        } finally {
+            userDetailsCache.invalidate(oldEmailAddress);
+            userDetailsCache.invalidate(userDto.emailAddress());
         }
     }
+
+    // Zoals bij het inloggen op de begrensde hashing pool: met virtual threads zou bcrypt anders op de
+    // (weinige) carrier threads draaien en alle andere requests ophouden
+    private String hash(String password) throws HashingCapacityExceededException {
+        return passwordHashingExecutor.execute(() -> passwordEncoder.encode(password));
+    }
 }
@@ -0,0 +1,59 @@
+package be.ucll.backend2.util;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Probabilistische set: mightContain geeft nooit false voor een toegevoegde waarde, maar soms true voor een
+// waarde die er niet in zit (met ongeveer de gevraagde kans). Verwijderen kan niet, bouw een nieuwe filter.
+// Thread-safe zonder locks.
+public class BloomFilter {
+    private final AtomicLongArray bits;
+    private final long bitCount;
+    private final int hashCount;
+
+    public BloomFilter(int expectedInsertions, double falsePositiveProbability) {
+        final var n = Math.max(1, expectedInsertions);
+        final var m = (long) Math.ceil(-n * Math.log(falsePositiveProbability) / (Math.log(2) * Math.log(2)));
+        this.bitCount = Math.max(64L, (m + 63L) / 64L * 64L);
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / n * Math.log(2)));
+        this.bits = new AtomicLongArray(Math.toIntExact(bitCount / 64L));
+    }
+
+    public void put(String value) {
+        final var hash1 = hash(value, 0x9E3779B97F4A7C15L);
+        final var hash2 = hash(value, 0xC2B2AE3D27D4EB4FL) | 1L;
+        for (int i = 0; i < hashCount; i++) {
+            final var bit = Math.floorMod(hash1 + i * hash2, bitCount);
+            final var mask = 1L << bit;
+            final var index = (int) (bit >>> 6);
+            if ((bits.get(index) & mask) == 0) {
+                bits.getAndAccumulate(index, mask, (current, added) -> current | added);
+            }
+        }
+    }
+
+    public boolean mightContain(String value) {
+        final var hash1 = hash(value, 0x9E3779B97F4A7C15L);
+        final var hash2 = hash(value, 0xC2B2AE3D27D4EB4FL) | 1L;
+        for (int i = 0; i < hashCount; i++) {
+            final var bit = Math.floorMod(hash1 + i * hash2, bitCount);
+            if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // 64-bit hash over de chars, met de finalizer van MurmurHash3 voor een goede spreiding
+    private static long hash(String value, long seed) {
+        var h = seed;
+        for (int i = 0; i < value.length(); i++) {
+            h = (h ^ value.charAt(i)) * 0x100000001B3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -1,10 +1,18 @@
 package be.ucll.backend2.util;
 
+import be.ucll.backend2.config.AsymmetricKeys;
+import com.nimbusds.jose.jwk.JWKSet;
+
 import java.security.SecureRandom;
 import java.util.Base64;
 
 public class KeyGenerator {
     public static void main(String[] args) {
+        // Met argument ES256: een JWK Set met een private sleutel voor jwt.asymmetric.key-set-file
+        if (args.length > 0 && args[0].equals("ES256")) {
+            System.out.println(new JWKSet(AsymmetricKeys.newSigningKey()).toString(false));
+            return;
+        }
         byte[] key = new byte[32];
         new SecureRandom().nextBytes(key);
         final var base64Key = Base64.getUrlEncoder().withoutPadding().encodeToString(key);
@@ -1,3 +1,5 @@
+DROP TABLE IF EXISTS revoked_token;
+DROP TABLE IF EXISTS refresh_token;
 DROP TABLE IF EXISTS movie_actors;
 DROP TABLE IF EXISTS actor;
 DROP TABLE IF EXISTS movie;
@@ -42,4 +44,30 @@ CREATE TABLE "user"
 );
 
 ALTER TABLE "user"
-    ADD CONSTRAINT uc_user_emailaddress UNIQUE (email_address);
\ No newline at end of file
+    ADD CONSTRAINT uc_user_emailaddress UNIQUE (email_address);
+
+CREATE TABLE refresh_token
+(
+    id         BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    token_hash VARCHAR(64)                             NOT NULL,
+    user_id    BIGINT                                  NOT NULL,
+    expires_at TIMESTAMP WITH TIME ZONE                NOT NULL,
+    revoked    BOOLEAN                                 NOT NULL,
+    CONSTRAINT pk_refresh_token PRIMARY KEY (id)
+);
+
+ALTER TABLE refresh_token
+    ADD CONSTRAINT uc_refresh_token_tokenhash UNIQUE (token_hash);
+
+ALTER TABLE refresh_token
+    ADD CONSTRAINT fk_refresh_token_on_user FOREIGN KEY (user_id) REFERENCES "user" (id) ON DELETE CASCADE;
+
+CREATE TABLE revoked_token
+(
+    jti        VARCHAR(64)              NOT NULL,
+    expires_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    revoked_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    CONSTRAINT pk_revoked_token PRIMARY KEY (jti)
+);
+
+CREATE INDEX idx_revoked_token_revoked_at ON revoked_token (revoked_at);
@@ -0,0 +1,77 @@
+package be.ucll.backend2.benchmark;
+
+import be.ucll.backend2.config.CachingJwtDecoder;
+import be.ucll.backend2.config.Hs256JwtDecoder;
+import be.ucll.backend2.config.Hs256JwtEncoder;
+import be.ucll.backend2.config.JwtKeyRing;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.security.oauth2.jose.jws.MacAlgorithm;
+import org.springframework.security.oauth2.jwt.*;
+
+import javax.crypto.spec.SecretKeySpec;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+// Vergelijkt de gewone NimbusJwtDecoder met CachingJwtDecoder voor een token dat steeds opnieuw gebruikt wordt,
+// en met Hs256JwtDecoder, die elk token opnieuw verifieert maar enkel onze eigen claims leest.
+// Voeg -prof gc toe aan de JMH opties om ook de allocaties per request te zien.
+// Uitvoeren: ./mvnw test-compile exec:java -Dexec.classpathScope=test \
+//            -Dexec.mainClass=be.ucll.backend2.benchmark.JwtDecoderBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtDecoderBenchmark {
+    private JwtDecoder plainDecoder;
+    private JwtDecoder cachingDecoder;
+    private JwtDecoder compactDecoder;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        final var keyBytes = new byte[32];
+        new SecureRandom().nextBytes(keyBytes);
+        final var secretKey = new SecretKeySpec(keyBytes, "HmacSHA256");
+
+        final var keyRing = JwtKeyRing.of("benchmark", secretKey);
+        // Tokens worden door JwtService met Hs256JwtEncoder aangemaakt
+        final var now = Instant.now();
+        token = new Hs256JwtEncoder(keyRing, "self").encode("jti-1", "1", "jos@example.com",
+                3L, now, now.plus(Duration.ofMinutes(30)));
+
+        plainDecoder = NimbusJwtDecoder.withSecretKey(secretKey).macAlgorithm(MacAlgorithm.HS256).build();
+        cachingDecoder = new CachingJwtDecoder(
+                NimbusJwtDecoder.withSecretKey(secretKey).macAlgorithm(MacAlgorithm.HS256).build(),
+                10_000L,
+                Duration.ofMinutes(5));
+        compactDecoder = new Hs256JwtDecoder(
+                keyRing,
+                NimbusJwtDecoder.withSecretKey(secretKey).macAlgorithm(MacAlgorithm.HS256).build());
+    }
+
+    @Benchmark
+    public Jwt plainDecoder() {
+        return plainDecoder.decode(token);
+    }
+
+    @Benchmark
+    public Jwt cachingDecoder() {
+        return cachingDecoder.decode(token);
+    }
+
+    @Benchmark
+    public Jwt compactDecoder() {
+        return compactDecoder.decode(token);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(JwtDecoderBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,111 @@
+package be.ucll.backend2.benchmark;
+
+import be.ucll.backend2.config.Hs256JwtEncoder;
+import be.ucll.backend2.config.JwtKeyRing;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.OctetSequenceKey;
+import com.nimbusds.jose.jwk.source.ImmutableJWKSet;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.security.oauth2.jose.jws.MacAlgorithm;
+import org.springframework.security.oauth2.jwt.*;
+
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+// Vergelijkt het aanmaken van een token via NimbusJwtEncoder (zoals JwtService vroeger deed) met Hs256JwtEncoder,
+// zowel op de JMH thread als verspreid over virtual threads (één per token, zoals met spring.threads.virtual).
+// Voeg -prof gc toe aan de JMH opties om ook de allocaties per token te zien.
+// Uitvoeren: ./mvnw test-compile exec:java -Dexec.classpathScope=test \
+//            -Dexec.mainClass=be.ucll.backend2.benchmark.JwtEncoderBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtEncoderBenchmark {
+    private static final int TOKENS_PER_BATCH = 1000;
+
+    private JwtEncoder nimbusEncoder;
+    private Hs256JwtEncoder hs256Encoder;
+    private ExecutorService virtualThreads;
+
+    @Setup
+    public void setUp() {
+        final var keyBytes = new byte[32];
+        new SecureRandom().nextBytes(keyBytes);
+        final SecretKey secretKey = new SecretKeySpec(keyBytes, "HmacSHA256");
+        final var jwk = new OctetSequenceKey.Builder(secretKey).algorithm(JWSAlgorithm.HS256).build();
+        nimbusEncoder = new NimbusJwtEncoder(new ImmutableJWKSet<>(new JWKSet(jwk)));
+        hs256Encoder = new Hs256JwtEncoder(JwtKeyRing.of("benchmark", secretKey), "self");
+        virtualThreads = Executors.newVirtualThreadPerTaskExecutor();
+    }
+
+    @TearDown
+    public void tearDown() {
+        virtualThreads.close();
+    }
+
+    @Benchmark
+    public String nimbusEncoder() {
+        final var now = Instant.now();
+        final var header = JwsHeader.with(MacAlgorithm.HS256).type("JWT").build();
+        final var claims = JwtClaimsSet.builder()
+                .issuer("self")
+                .issuedAt(now)
+                .expiresAt(now.plus(Duration.ofMinutes(30)))
+                .id("jti-1")
+                .subject("1")
+                .claim("email", "jos@example.com")
+                .claim("rol", 3L)
+                .build();
+        return nimbusEncoder.encode(JwtEncoderParameters.from(header, claims)).getTokenValue();
+    }
+
+    @Benchmark
+    public String hs256Encoder() {
+        final var now = Instant.now();
+        return hs256Encoder.encode("jti-1", "1", "jos@example.com", 3L,
+                now, now.plus(Duration.ofMinutes(30)));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TOKENS_PER_BATCH)
+    public void nimbusEncoderOnVirtualThreads(Blackhole blackhole) throws Exception {
+        onVirtualThreads(this::nimbusEncoder, blackhole);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TOKENS_PER_BATCH)
+    public void hs256EncoderOnVirtualThreads(Blackhole blackhole) throws Exception {
+        onVirtualThreads(this::hs256Encoder, blackhole);
+    }
+
+    private void onVirtualThreads(Callable<String> encode, Blackhole blackhole) throws Exception {
+        final var tokens = new ArrayList<Future<String>>(TOKENS_PER_BATCH);
+        for (int i = 0; i < TOKENS_PER_BATCH; i++) {
+            tokens.add(virtualThreads.submit(encode));
+        }
+        for (final var token : tokens) {
+            blackhole.consume(token.get());
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(JwtEncoderBenchmark.class.getSimpleName()).build()).run();
+    }
+}
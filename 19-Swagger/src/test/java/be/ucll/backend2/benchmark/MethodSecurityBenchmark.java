@@ -0,0 +1,122 @@
+package be.ucll.backend2.benchmark;
+
+import be.ucll.backend2.config.OwnerAuthorizationManager;
+import be.ucll.backend2.config.RoleClaimJwtAuthenticationConverter;
+import be.ucll.backend2.config.RoleMethodSecurityExpressionHandler;
+import be.ucll.backend2.controller.ActorController;
+import be.ucll.backend2.controller.UserController;
+import be.ucll.backend2.model.RoleAuthorities;
+import org.aopalliance.intercept.MethodInvocation;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.expression.spel.SpelCompilerMode;
+import org.springframework.expression.spel.SpelParserConfiguration;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.security.access.expression.method.DefaultMethodSecurityExpressionHandler;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.authorization.AuthorizationResult;
+import org.springframework.security.authorization.method.PreAuthorizeAuthorizationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.util.SimpleMethodInvocation;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+// Kost van de @PreAuthorize check per call, zonder de controller zelf uit te voeren, en van @OwnerOnly.
+// handler=default/mode=OFF is de oorspronkelijke situatie (standaard root, geïnterpreteerde SpEL),
+// handler=roles/mode=MIXED is wat SecurityConfig nu gebruikt (bittesten, gecompileerde SpEL).
+// Uitvoeren: ./mvnw test-compile exec:java -Dexec.classpathScope=test \
+//            -Dexec.mainClass=be.ucll.backend2.benchmark.MethodSecurityBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MethodSecurityBenchmark {
+    @Param({"default", "roles"})
+    public String handler;
+
+    @Param({"OFF", "MIXED"})
+    public SpelCompilerMode mode;
+
+    private PreAuthorizeAuthorizationManager authorizationManager;
+    private final OwnerAuthorizationManager ownerAuthorizationManager = new OwnerAuthorizationManager();
+    private Supplier<Authentication> authentication;
+    private MethodInvocation hasRole;
+    private MethodInvocation ownerSpel;
+    private MethodInvocation ownerOnly;
+
+    // De eigenaarscheck zoals hij vroeger in UserController stond, ter vergelijking met @OwnerOnly
+    public static class SpelUserController {
+        @PreAuthorize("#jwt.subject == '' + #id")
+        public void getUser(Jwt jwt, long id) {
+        }
+    }
+
+    @Setup
+    public void setUp() throws NoSuchMethodException {
+        final var expressionHandler = handler.equals("roles")
+                ? new RoleMethodSecurityExpressionHandler()
+                : new DefaultMethodSecurityExpressionHandler();
+        // Zoals de hiërarchie in SecurityConfig, maar via de standaard weg (authorities -> strings)
+        expressionHandler.setRoleHierarchy(RoleAuthorities::of);
+        expressionHandler.setExpressionParser(new SpelExpressionParser(
+                new SpelParserConfiguration(mode, getClass().getClassLoader())));
+        authorizationManager = new PreAuthorizeAuthorizationManager();
+        authorizationManager.setExpressionHandler(expressionHandler);
+
+        final var now = Instant.now();
+        final var jwt = Jwt.withTokenValue("token")
+                .header("alg", "HS256")
+                .issuedAt(now)
+                .expiresAt(now.plusSeconds(1800L))
+                .subject("1")
+                .claim(RoleClaimJwtAuthenticationConverter.CLAIM, 3L)
+                .build();
+        final var token = new RoleClaimJwtAuthenticationConverter().convert(jwt);
+        authentication = () -> token;
+
+        hasRole = new SimpleMethodInvocation(
+                new ActorController(null),
+                ActorController.class.getMethod("getActorById", long.class),
+                1L);
+        ownerSpel = new SimpleMethodInvocation(
+                new SpelUserController(),
+                SpelUserController.class.getMethod("getUser", Jwt.class, long.class),
+                jwt,
+                1L);
+        ownerOnly = new SimpleMethodInvocation(
+                new UserController(null, null),
+                UserController.class.getMethod("getUser", long.class),
+                1L);
+        // Het resultaat moet in elke combinatie hetzelfde zijn
+        if (!hasRole().isGranted() || !ownerSpel().isGranted() || !ownerOnly().isGranted()) {
+            throw new IllegalStateException("Expected access to be granted");
+        }
+    }
+
+    @Benchmark
+    public AuthorizationResult hasRole() {
+        return authorizationManager.authorize(authentication, hasRole);
+    }
+
+    @Benchmark
+    public AuthorizationResult ownerSpel() {
+        return authorizationManager.authorize(authentication, ownerSpel);
+    }
+
+    // Hangt niet af van handler of mode
+    @Benchmark
+    public AuthorizationResult ownerOnly() {
+        return ownerAuthorizationManager.authorize(authentication, ownerOnly);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(MethodSecurityBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,155 @@
+package be.ucll.backend2.benchmark;
+
+import be.ucll.backend2.Application;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+// Load test: start de applicatie eerst met platform threads (de standaard) en daarna met virtual threads,
+// en laat telkens evenveel gelijktijdige clients GET /api/v1/movies en /api/v1/actors doen, met af en toe een
+// login (op de hashing pool). Toont per modus de throughput, de latency en het aantal 503's en fouten.
+// Met de in-memory H2 database wachten requests nauwelijks op I/O; tegen een echte database is het verschil groter.
+// Uitvoeren: ./mvnw test-compile exec:java -Dexec.classpathScope=test \
+//            -Dexec.mainClass=be.ucll.backend2.benchmark.VirtualThreadLoadBenchmark \
+//            -Dload.clients=1000 -Dload.duration=20s
+public class VirtualThreadLoadBenchmark {
+    private static final Pattern TOKEN = Pattern.compile("\"token\"\\s*:\\s*\"([^\"]+)\"");
+    private static final String LOGIN = """
+            {"emailAddress": "editor@example.com", "password": "editor"}
+            """;
+    // Eén op LOGIN_EVERY requests is een login
+    private static final int LOGIN_EVERY = 50;
+
+    private record Result(long requests, long unavailable, long errors, long[] latencies) {}
+
+    public static void main(String[] args) throws Exception {
+        final var clients = Integer.getInteger("load.clients", 1000);
+        final var duration = Duration.parse("PT" + System.getProperty("load.duration", "20s").toUpperCase());
+        for (final var virtual : new boolean[]{false, true}) {
+            // Als argumenten, zodat ze voorrang hebben op application.yaml
+            final var context = new SpringApplicationBuilder(Application.class)
+                    .run(
+                            "--server.port=0",
+                            "--spring.threads.virtual.enabled=" + virtual,
+                            "--spring.jpa.show-sql=false",
+                            "--logging.level.org.springframework.security=INFO",
+                            // Anders wordt de enige gebruiker na een paar logins afgeremd
+                            "--security.login-rate-limit.enabled=false",
+                            // Enkel het verschil tussen platform en virtual threads meten
+                            "--concurrency.bulkheads.enabled=false");
+            try {
+                final var baseUri = URI.create(
+                        "http://localhost:" + context.getEnvironment().getProperty("local.server.port"));
+                // Opwarmen (JIT, pools), daarna meten
+                run(baseUri, clients, duration.dividedBy(2));
+                final var result = run(baseUri, clients, duration);
+                print(virtual ? "virtual" : "platform", clients, duration, result);
+            } finally {
+                context.close();
+            }
+        }
+    }
+
+    private static Result run(URI baseUri, int clients, Duration duration) throws Exception {
+        final var requests = new LongAdder();
+        final var unavailable = new LongAdder();
+        final var errors = new LongAdder();
+        final var latencies = new long[clients][];
+        try (final var executor = Executors.newVirtualThreadPerTaskExecutor();
+             final var httpClient = HttpClient.newBuilder()
+                     .version(HttpClient.Version.HTTP_1_1)
+                     .build()) {
+            final var token = login(httpClient, baseUri);
+            final var deadline = System.nanoTime() + duration.toNanos();
+            for (var client = 0; client < clients; client++) {
+                final var index = client;
+                executor.submit(() -> {
+                    var samples = new long[1024];
+                    var count = 0;
+                    while (System.nanoTime() < deadline) {
+                        final var start = System.nanoTime();
+                        try {
+                            final var status = request(httpClient, baseUri, token, count);
+                            if (status == 503) {
+                                unavailable.increment();
+                            } else if (status >= 400) {
+                                errors.increment();
+                            }
+                        } catch (IOException e) {
+                            errors.increment();
+                        }
+                        if (count == samples.length) {
+                            samples = Arrays.copyOf(samples, count * 2);
+                        }
+                        samples[count++] = System.nanoTime() - start;
+                        requests.increment();
+                    }
+                    latencies[index] = Arrays.copyOf(samples, count);
+                    return null;
+                });
+            }
+            executor.shutdown();
+            executor.awaitTermination(duration.toSeconds() + 60, TimeUnit.SECONDS);
+        }
+        final var all = Arrays.stream(latencies).flatMapToLong(Arrays::stream).sorted().toArray();
+        return new Result(requests.sum(), unavailable.sum(), errors.sum(), all);
+    }
+
+    private static int request(HttpClient httpClient, URI baseUri, String token, int count)
+            throws IOException, InterruptedException {
+        if (count % LOGIN_EVERY == LOGIN_EVERY - 1) {
+            return httpClient.send(loginRequest(baseUri), HttpResponse.BodyHandlers.discarding()).statusCode();
+        }
+        final var path = count % 2 == 0 ? "/api/v1/movies" : "/api/v1/actors";
+        final var request = HttpRequest.newBuilder(baseUri.resolve(path))
+                .header("Authorization", "Bearer " + token)
+                .GET()
+                .build();
+        return httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private static HttpRequest loginRequest(URI baseUri) {
+        return HttpRequest.newBuilder(baseUri.resolve("/api/v1/sessions"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(LOGIN))
+                .build();
+    }
+
+    private static String login(HttpClient httpClient, URI baseUri) throws IOException, InterruptedException {
+        final var response = httpClient.send(loginRequest(baseUri), HttpResponse.BodyHandlers.ofString());
+        final var matcher = TOKEN.matcher(response.body());
+        if (response.statusCode() != 200 || !matcher.find()) {
+            throw new IllegalStateException("Login failed: " + response.statusCode() + " " + response.body());
+        }
+        return matcher.group(1);
+    }
+
+    private static void print(String mode, int clients, Duration duration, Result result) {
+        final var latencies = result.latencies();
+        System.out.printf("%-8s clients=%d  throughput=%.0f req/s  p50=%.1f ms  p99=%.1f ms  503=%d  errors=%d%n",
+                mode,
+                clients,
+                result.requests() / (duration.toNanos() / 1e9),
+                percentile(latencies, 0.50) / 1e6,
+                percentile(latencies, 0.99) / 1e6,
+                result.unavailable(),
+                result.errors());
+    }
+
+    private static double percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        return sorted[(int) Math.min(sorted.length - 1, Math.round(percentile * (sorted.length - 1)))];
+    }
+}
@@ -0,0 +1,58 @@
+package be.ucll.backend2.component;
+
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+// De filter chain voor Swagger UI en de API docs (SecurityConfig.publicResourcesSecurityFilterChain)
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class PublicResourcesComponentTest {
+    private static final String NO_CACHE = "no-cache, no-store, max-age=0, must-revalidate";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    public void givenSwaggerUiAsset_whenRequested_thenBrowserMayCacheIt() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get("/swagger-ui/swagger-ui.css"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.CACHE_CONTROL, "max-age=86400, public"));
+        mockMvc.perform(MockMvcRequestBuilders.get("/swagger-ui/swagger-ui-bundle.js"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.CACHE_CONTROL, "max-age=86400, public"));
+    }
+
+    @Test
+    public void givenSwaggerInitializer_whenRequested_thenItIsNotCached() throws Exception {
+        // Bevat de URL van de API docs, dus die moet na een deploy meteen kloppen.
+        // springdoc zet hier zelf al no-store, wat Spring Security dan laat staan.
+        mockMvc.perform(MockMvcRequestBuilders.get("/swagger-ui/swagger-initializer.js"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.CACHE_CONTROL,
+                        Matchers.containsString("no-store")));
+    }
+
+    @Test
+    public void givenApiDocs_whenRequested_thenTheyAreNotCached() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get("/v3/api-docs"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.CACHE_CONTROL, NO_CACHE));
+    }
+
+    @Test
+    public void givenBogusBearerToken_whenApiDocsAreRequested_thenTokenIsIgnored() throws Exception {
+        // Swagger UI stuurt het ingevulde token mee; een verlopen of fout token mag de docs niet blokkeren
+        mockMvc.perform(MockMvcRequestBuilders.get("/v3/api-docs").header(HttpHeaders.AUTHORIZATION, "Bearer not-a-jwt"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.header().doesNotExist(HttpHeaders.WWW_AUTHENTICATE));
+    }
+}
@@ -0,0 +1,198 @@
+package be.ucll.backend2.component;
+
+import be.ucll.backend2.controller.dto.AuthenticationRequest;
+import be.ucll.backend2.controller.dto.AuthenticationResponse;
+import be.ucll.backend2.controller.dto.RefreshRequest;
+import be.ucll.backend2.service.JwtService;
+import be.ucll.backend2.service.PasswordHashingExecutor;
+import be.ucll.backend2.service.RegistrationService;
+import be.ucll.backend2.service.UserDetailsCache;
+import be.ucll.backend2.service.UserService;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.embedded.netty.NettyWebServer;
+import org.springframework.boot.web.reactive.context.ReactiveWebServerApplicationContext;
+import org.springframework.security.test.context.TestSecurityContextHolder;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.List;
+
+// De reactive variant (WebFlux, R2DBC) als geheel: de rollen op URL niveau die @PreAuthorize vervangen,
+// de eigenaarscheck op /api/v1/users/{id}, en inloggen met refresh tokens
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "spring.profiles.active=reactive",
+                // @SpringBootTest bepaalt het type zelf en kijkt daarvoor niet naar application-reactive.yaml
+                "spring.main.web-application-type=reactive",
+                // Een eigen database, los van die van de servlet tests in dezelfde JVM
+                "spring.datasource.url=jdbc:h2:mem:reactive;DB_CLOSE_DELAY=-1",
+                "spring.r2dbc.url=r2dbc:h2:mem:///reactive?options=DB_CLOSE_DELAY=-1"
+        })
+public class ReactiveComponentTest {
+    @Autowired
+    private WebTestClient client;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private ReactiveWebServerApplicationContext context;
+
+    // @WithMockUser in een andere testklasse kan een gebruiker op deze thread achterlaten. Spring Security Test geeft
+    // die via een Reactor hook aan elke Mono/Flux door, ook aan die van de server, en dan lukt alles zonder token.
+    @BeforeAll
+    public static void clearTestSecurityContext() {
+        TestSecurityContextHolder.clearContext();
+    }
+
+    private String reader() {
+        return "Bearer " + jwtService.generateToken(2L, "jef@example.com", List.of("ROLE_READER"));
+    }
+
+    private String editor() {
+        return "Bearer " + jwtService.generateToken(1L, "editor@example.com", List.of("ROLE_EDITOR"));
+    }
+
+    @Test
+    public void givenReactiveProfile_whenStarted_thenWebFluxRunsOnNetty() {
+        Assertions.assertInstanceOf(NettyWebServer.class, context.getWebServer());
+    }
+
+    @Test
+    public void givenReactiveProfile_whenStarted_thenServletOnlyServicesAreNotCreated() {
+        for (final var type : List.of(PasswordHashingExecutor.class, RegistrationService.class,
+                UserDetailsCache.class, UserService.class)) {
+            Assertions.assertEquals(0, context.getBeanNamesForType(type).length, type.getSimpleName());
+        }
+    }
+
+    @Test
+    public void givenNoToken_whenGetMoviesIsCalled_then401IsReturned() {
+        client.get()
+                .uri("/api/v1/movies")
+                .exchange()
+                .expectStatus().isUnauthorized();
+    }
+
+    @Test
+    public void givenReader_whenGetIsCalled_thenCatalogIsReturned() {
+        client.get()
+                .uri("/api/v1/movies")
+                .header("Authorization", reader())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$[0].title").isEqualTo("Fargo");
+
+        client.get()
+                .uri("/api/v1/actors/{id}", 1L)
+                .header("Authorization", reader())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.name").isEqualTo("Frances McDormand");
+    }
+
+    @Test
+    public void givenReader_whenWriteIsCalled_then403IsReturned() {
+        client.post()
+                .uri("/api/v1/actors")
+                .header("Authorization", reader())
+                .header("Content-Type", "application/json")
+                .bodyValue("{\"name\": \"Peter Stormare\"}")
+                .exchange()
+                .expectStatus().isForbidden();
+
+        client.delete()
+                .uri("/api/v1/actors/{id}", 3L)
+                .header("Authorization", reader())
+                .exchange()
+                .expectStatus().isForbidden();
+    }
+
+    @Test
+    public void givenEditor_whenWriteIsCalled_thenCatalogIsChanged() {
+        // EDITOR sluit READER in
+        client.get()
+                .uri("/api/v1/actors")
+                .header("Authorization", editor())
+                .exchange()
+                .expectStatus().isOk();
+
+        client.post()
+                .uri("/api/v1/actors")
+                .header("Authorization", editor())
+                .header("Content-Type", "application/json")
+                .bodyValue("{\"name\": \"Peter Stormare\"}")
+                .exchange()
+                .expectStatus().is2xxSuccessful()
+                .expectBody().jsonPath("$.name").isEqualTo("Peter Stormare");
+    }
+
+    @Test
+    public void givenOwner_whenGetUserIsCalled_thenUserIsReturned() {
+        client.get()
+                .uri("/api/v1/users/{id}", 1L)
+                .header("Authorization", editor())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.emailAddress").isEqualTo("editor@example.com");
+    }
+
+    @Test
+    public void givenOtherUser_whenGetUserIsCalled_then403IsReturned() {
+        client.get()
+                .uri("/api/v1/users/{id}", 1L)
+                .header("Authorization", reader())
+                .exchange()
+                .expectStatus().isForbidden();
+    }
+
+    @Test
+    public void givenValidCredentials_whenLoggedInAndRefreshed_thenRefreshTokenIsRotated() {
+        final var login = client.post()
+                .uri("/api/v1/sessions")
+                .bodyValue(new AuthenticationRequest("editor@example.com", "editor"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(AuthenticationResponse.class)
+                .returnResult()
+                .getResponseBody();
+        Assertions.assertNotNull(login);
+
+        client.get()
+                .uri("/api/v1/movies")
+                .header("Authorization", "Bearer " + login.token())
+                .exchange()
+                .expectStatus().isOk();
+
+        final var refreshed = client.post()
+                .uri("/api/v1/sessions/refresh")
+                .bodyValue(new RefreshRequest(login.refreshToken()))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(AuthenticationResponse.class)
+                .returnResult()
+                .getResponseBody();
+        Assertions.assertNotNull(refreshed);
+        Assertions.assertNotEquals(login.refreshToken(), refreshed.refreshToken());
+
+        // Een gebruikt refresh token is niet meer geldig
+        client.post()
+                .uri("/api/v1/sessions/refresh")
+                .bodyValue(new RefreshRequest(login.refreshToken()))
+                .exchange()
+                .expectStatus().isUnauthorized();
+    }
+
+    @Test
+    public void givenWrongPassword_whenLoginIsCalled_then401IsReturned() {
+        client.post()
+                .uri("/api/v1/sessions")
+                .bodyValue(new AuthenticationRequest("editor@example.com", "wrong"))
+                .exchange()
+                .expectStatus().isUnauthorized();
+    }
+}
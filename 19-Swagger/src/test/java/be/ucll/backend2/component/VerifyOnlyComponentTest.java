@@ -0,0 +1,84 @@
+package be.ucll.backend2.component;
+
+import be.ucll.backend2.model.RefreshToken;
+import be.ucll.backend2.repository.RefreshTokenRepository;
+import be.ucll.backend2.service.RefreshTokenService;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.CacheControl;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.json.JsonCompareMode;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+// Een instantie met ES256 en enkel de JWKS van de sessieservice kan geen tokens ondertekenen.
+// Inloggen en refreshen moeten dan een nette 503 geven in plaats van een 500.
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "jwt.algorithm=ES256",
+                // Wordt pas opgehaald als er een token te verifiëren valt
+                "jwt.asymmetric.jwk-set-uri=http://localhost:1/.well-known/jwks.json",
+                "spring.datasource.url=jdbc:h2:mem:verify-only;DB_CLOSE_DELAY=-1"
+        })
+@ActiveProfiles("test")
+public class VerifyOnlyComponentTest {
+    private static final String MESSAGE = """
+            {
+              "message": "This instance only verifies tokens, log in via the session service instead."
+            }
+            """;
+
+    @Autowired
+    private WebTestClient client;
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Test
+    public void givenVerifyOnlyInstance_whenLoggingIn_then503IsReturned() {
+        client.post()
+                .uri("/api/v1/sessions")
+                .bodyValue("""
+                        {"emailAddress": "editor@example.com", "password": "editor"}
+                        """)
+                .header("Content-Type", "application/json")
+                .exchange()
+                .expectStatus().isEqualTo(503)
+                .expectBody().json(MESSAGE, JsonCompareMode.STRICT);
+    }
+
+    @Test
+    public void givenVerifyOnlyInstance_whenRefreshing_then503IsReturnedAndRefreshTokenIsNotConsumed() {
+        final var refreshToken = refreshTokenService.issue(1L);
+
+        client.post()
+                .uri("/api/v1/sessions/refresh")
+                .bodyValue("{\"refreshToken\": \"" + refreshToken + "\"}")
+                .header("Content-Type", "application/json")
+                .exchange()
+                .expectStatus().isEqualTo(503)
+                .expectBody().json(MESSAGE, JsonCompareMode.STRICT);
+
+        Assertions.assertTrue(refreshTokenRepository.findAll().stream().noneMatch(RefreshToken::isRevoked));
+    }
+
+    @Test
+    public void givenVerifyOnlyInstance_whenJwksIsRequested_then404IsReturnedAndNothingIsCached() {
+        client.get()
+                .uri("/.well-known/jwks.json")
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectHeader().cacheControl(CacheControl.noStore())
+                .expectHeader().doesNotExist("ETag")
+                .expectBody().json("""
+                        {
+                          "message": "This instance does not sign tokens and publishes no keys."
+                        }
+                        """, JsonCompareMode.STRICT);
+    }
+}
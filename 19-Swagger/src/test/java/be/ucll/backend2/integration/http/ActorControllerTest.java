@@ -5,6 +5,7 @@ import be.ucll.backend2.controller.ActorController;
 import be.ucll.backend2.exception.ActorNotFoundException;
 import be.ucll.backend2.model.Actor;
 import be.ucll.backend2.service.ActorService;
+import be.ucll.backend2.service.TokenRevocationService;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -27,6 +28,10 @@ public class ActorControllerTest {
     @MockitoBean
     private ActorService actorService;
 
+    // Nodig voor de JwtDecoder uit SecurityConfig
+    @MockitoBean
+    private TokenRevocationService tokenRevocationService;
+
     @Test
     @WithMockUser(username = "jos@example.com", roles = {"READER", "EDITOR"})
     public void givenActorWithIdExists_whenDeleteActorIsCalled_thenActorIsDeleted()
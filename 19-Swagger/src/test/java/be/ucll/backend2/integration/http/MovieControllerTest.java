@@ -5,6 +5,7 @@ import be.ucll.backend2.controller.MovieController;
 import be.ucll.backend2.controller.dto.CreateMovieDto;
 import be.ucll.backend2.model.Movie;
 import be.ucll.backend2.service.MovieService;
+import be.ucll.backend2.service.TokenRevocationService;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -24,6 +25,10 @@ public class MovieControllerTest {
     @MockitoBean
     private MovieService movieService;
 
+    // Nodig voor de JwtDecoder uit SecurityConfig
+    @MockitoBean
+    private TokenRevocationService tokenRevocationService;
+
     // Happy: film wordt aangemaakt
 
     @Test
@@ -0,0 +1,103 @@
+package be.ucll.backend2.integration.http;
+
+import be.ucll.backend2.config.SecurityConfig;
+import be.ucll.backend2.controller.RegistrationController;
+import be.ucll.backend2.controller.dto.RegistrationStatus;
+import be.ucll.backend2.service.RegistrationService;
+import be.ucll.backend2.service.TokenRevocationService;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.json.JsonCompareMode;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.Optional;
+import java.util.UUID;
+
+@WebMvcTest(RegistrationController.class)
+@Import(SecurityConfig.class)
+public class RegistrationControllerTest {
+    private static final UUID ID = UUID.fromString("2b1c3a8e-3f57-4d4e-9a8a-0c5d4b3f6e21");
+
+    @Autowired
+    private WebTestClient client;
+
+    @MockitoBean
+    private RegistrationService registrationService;
+
+    // Nodig voor de JwtDecoder uit SecurityConfig
+    @MockitoBean
+    private TokenRevocationService tokenRevocationService;
+
+    private WebTestClient.ResponseSpec getRegistration() {
+        return client.get()
+                .uri("/api/v1/registrations/{id}", ID)
+                .exchange();
+    }
+
+    @Test
+    public void givenPendingRegistration_whenGetRegistrationIsCalled_thenPendingIsReturned() {
+        Mockito.when(registrationService.getStatus(ID)).thenReturn(Optional.of(RegistrationStatus.pending(ID)));
+
+        getRegistration()
+                .expectStatus().isOk()
+                .expectBody().json("""
+                        {
+                          "id": "2b1c3a8e-3f57-4d4e-9a8a-0c5d4b3f6e21",
+                          "state": "PENDING",
+                          "userId": null,
+                          "message": null
+                        }
+                        """, JsonCompareMode.STRICT);
+    }
+
+    @Test
+    public void givenCompletedRegistration_whenGetRegistrationIsCalled_thenUserIdIsReturned() {
+        Mockito.when(registrationService.getStatus(ID))
+                .thenReturn(Optional.of(RegistrationStatus.completed(ID, 5L)));
+
+        getRegistration()
+                .expectStatus().isOk()
+                .expectBody().json("""
+                        {
+                          "id": "2b1c3a8e-3f57-4d4e-9a8a-0c5d4b3f6e21",
+                          "state": "COMPLETED",
+                          "userId": 5,
+                          "message": null
+                        }
+                        """, JsonCompareMode.STRICT);
+    }
+
+    @Test
+    public void givenFailedRegistration_whenGetRegistrationIsCalled_thenMessageIsReturned() {
+        Mockito.when(registrationService.getStatus(ID))
+                .thenReturn(Optional.of(RegistrationStatus.failed(ID, "Registration failed")));
+
+        getRegistration()
+                .expectStatus().isOk()
+                .expectBody().json("""
+                        {
+                          "id": "2b1c3a8e-3f57-4d4e-9a8a-0c5d4b3f6e21",
+                          "state": "FAILED",
+                          "userId": null,
+                          "message": "Registration failed"
+                        }
+                        """, JsonCompareMode.STRICT);
+    }
+
+    @Test
+    public void givenUnknownOrExpiredRegistration_whenGetRegistrationIsCalled_then404IsReturned() {
+        Mockito.when(registrationService.getStatus(ID)).thenReturn(Optional.empty());
+
+        getRegistration()
+                .expectStatus().isNotFound()
+                .expectBody().json("""
+                        {
+                          "message": "Could not find registration with id 2b1c3a8e-3f57-4d4e-9a8a-0c5d4b3f6e21"
+                        }
+                        """, JsonCompareMode.STRICT);
+    }
+}
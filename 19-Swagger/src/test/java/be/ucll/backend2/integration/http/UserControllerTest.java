@@ -2,10 +2,14 @@ package be.ucll.backend2.integration.http;
 
 import be.ucll.backend2.config.SecurityConfig;
 import be.ucll.backend2.controller.UserController;
+import be.ucll.backend2.controller.dto.RegistrationStatus;
 import be.ucll.backend2.controller.dto.UserDto;
 import be.ucll.backend2.exception.EmailAddressNotUniqueException;
+import be.ucll.backend2.exception.HashingCapacityExceededException;
 import be.ucll.backend2.exception.UserNotFoundException;
 import be.ucll.backend2.model.User;
+import be.ucll.backend2.service.RegistrationService;
+import be.ucll.backend2.service.TokenRevocationService;
 import be.ucll.backend2.service.UserService;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
@@ -20,10 +24,12 @@ import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.json.JsonCompareMode;
 import org.springframework.test.web.reactive.server.WebTestClient;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 
 @WebMvcTest(UserController.class)
 @Import(SecurityConfig.class)
@@ -34,6 +40,13 @@ public class UserControllerTest {
     @MockitoBean
     private UserService userService;
 
+    @MockitoBean
+    private RegistrationService registrationService;
+
+    // Nodig voor de JwtDecoder uit SecurityConfig
+    @MockitoBean
+    private TokenRevocationService tokenRevocationService;
+
     private static void logInAsUser(long id, String emailAddress, Collection<String> roles) {
         final var jwt = new Jwt(
                 "mock-token",
@@ -52,7 +65,52 @@ public class UserControllerTest {
     }
 
     @Test
-    public void givenUserWithGivenIdExists_whenUpdateUserIsCalled_thenUserIsUpdated() throws UserNotFoundException, EmailAddressNotUniqueException {
+    public void givenAsyncRegistration_whenRegisterUserIsCalled_then202WithLocationIsReturned()
+            throws EmailAddressNotUniqueException, HashingCapacityExceededException {
+        final var userDto = new UserDto("jos@example.com", "password");
+        final var id = UUID.fromString("2b1c3a8e-3f57-4d4e-9a8a-0c5d4b3f6e21");
+        Mockito.when(registrationService.isAsync()).thenReturn(true);
+        Mockito.when(registrationService.submit(userDto)).thenReturn(RegistrationStatus.pending(id));
+
+        client
+                .post()
+                .uri("/api/v1/users")
+                .bodyValue(userDto)
+                .exchange()
+                .expectStatus().isAccepted()
+                .expectHeader().location("/api/v1/registrations/2b1c3a8e-3f57-4d4e-9a8a-0c5d4b3f6e21")
+                .expectBody().json("""
+                    {
+                        "id": "2b1c3a8e-3f57-4d4e-9a8a-0c5d4b3f6e21",
+                        "state": "PENDING",
+                        "userId": null,
+                        "message": null
+                    }
+                    """, JsonCompareMode.STRICT);
+
+        Mockito.verify(userService, Mockito.never()).registerUser(userDto);
+    }
+
+    @Test
+    public void givenAsyncRegistrationQueueIsFull_whenRegisterUserIsCalled_then503IsReturned()
+            throws EmailAddressNotUniqueException, HashingCapacityExceededException {
+        final var userDto = new UserDto("jos@example.com", "password");
+        Mockito.when(registrationService.isAsync()).thenReturn(true);
+        Mockito.when(registrationService.submit(userDto))
+                .thenThrow(new HashingCapacityExceededException(Duration.ofSeconds(3L)));
+
+        client
+                .post()
+                .uri("/api/v1/users")
+                .bodyValue(userDto)
+                .exchange()
+                .expectStatus().isEqualTo(503)
+                .expectHeader().valueEquals("Retry-After", "3");
+    }
+
+    @Test
+    public void givenUserWithGivenIdExists_whenUpdateUserIsCalled_thenUserIsUpdated()
+            throws UserNotFoundException, EmailAddressNotUniqueException, HashingCapacityExceededException {
         logInAsUser(1L, "jos@example.com", List.of("ROLE_READER"));
 
         final var userDto = new UserDto(
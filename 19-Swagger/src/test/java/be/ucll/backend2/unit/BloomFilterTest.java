@@ -0,0 +1,40 @@
+package be.ucll.backend2.unit;
+
+import be.ucll.backend2.util.BloomFilter;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+public class BloomFilterTest {
+    @Test
+    public void givenInsertedValues_whenMightContainIsCalled_thenAllAreFound() {
+        final var filter = new BloomFilter(10_000, 0.01);
+        final var values = new String[10_000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = UUID.randomUUID().toString();
+            filter.put(values[i]);
+        }
+
+        for (final var value : values) {
+            Assertions.assertTrue(filter.mightContain(value));
+        }
+    }
+
+    @Test
+    public void givenFullFilter_whenOtherValuesAreChecked_thenFalsePositiveRateIsCloseToTarget() {
+        final var filter = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put(UUID.randomUUID().toString());
+        }
+
+        var falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.mightContain(UUID.randomUUID().toString())) {
+                falsePositives++;
+            }
+        }
+
+        Assertions.assertTrue(falsePositives < 2_000, "False positives: " + falsePositives);
+    }
+}
@@ -0,0 +1,123 @@
+package be.ucll.backend2.unit;
+
+import be.ucll.backend2.config.BulkheadFilter;
+import be.ucll.backend2.config.ConcurrencyProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+public class BulkheadFilterTest {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private BulkheadFilter filter(int total, int reservedForHighPriority) {
+        final var groups = new LinkedHashMap<String, ConcurrencyProperties.Group>();
+        groups.put("sessions", new ConcurrencyProperties.Group(List.of("/api/v1/sessions/**"), List.of(),
+                ConcurrencyProperties.Priority.LOW, 1));
+        groups.put("users", new ConcurrencyProperties.Group(List.of("/api/v1/users/**"), List.of("post", "put"),
+                ConcurrencyProperties.Priority.LOW, 1));
+        groups.put("catalog", new ConcurrencyProperties.Group(List.of("/api/v1/movies/**"), List.of(),
+                ConcurrencyProperties.Priority.HIGH, 1));
+        final var bulkheads = new ConcurrencyProperties.Bulkheads(
+                true, total, reservedForHighPriority, Duration.ofSeconds(2L), groups);
+        return new BulkheadFilter(bulkheads, 10, meterRegistry);
+    }
+
+    private static MockHttpServletResponse perform(BulkheadFilter filter, String method, String path, FilterChain chain)
+            throws IOException, ServletException {
+        final var response = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest(method, path), response, chain);
+        return response;
+    }
+
+    @Test
+    public void givenFreeBulkhead_whenRequestIsFiltered_thenChainIsCalled() throws Exception {
+        final var chain = new MockFilterChain();
+
+        final var response = perform(filter(10, 0), "GET", "/api/v1/movies/1", chain);
+
+        Assertions.assertEquals(200, response.getStatus());
+        Assertions.assertNotNull(chain.getRequest());
+    }
+
+    @Test
+    public void givenFullBulkhead_whenRequestIsFiltered_thenServiceUnavailableIsReturned() throws Exception {
+        final var filter = filter(10, 0);
+        final var inner = new MockHttpServletResponse[1];
+
+        // Het tweede request komt binnen terwijl het eerste zijn enige plaats nog bezet
+        perform(filter, "GET", "/api/v1/movies", (request, response) ->
+                inner[0] = perform(filter, "GET", "/api/v1/movies/2", new MockFilterChain()));
+
+        Assertions.assertEquals(503, inner[0].getStatus());
+        Assertions.assertEquals("2", inner[0].getHeader("Retry-After"));
+        Assertions.assertTrue(inner[0].getContentAsString().contains("\"message\""));
+        Assertions.assertEquals(1.0, meterRegistry.get("http.server.bulkhead.rejected")
+                .tag("group", "catalog")
+                .counter()
+                .count());
+        // De plaats is na het eerste request weer vrij
+        Assertions.assertEquals(200, perform(filter, "GET", "/api/v1/movies/2", new MockFilterChain()).getStatus());
+    }
+
+    @Test
+    public void givenFullBulkhead_whenOtherGroupIsRequested_thenChainIsCalled() throws Exception {
+        final var filter = filter(10, 0);
+        final var inner = new MockHttpServletResponse[1];
+
+        perform(filter, "POST", "/api/v1/sessions", (request, response) ->
+                inner[0] = perform(filter, "GET", "/api/v1/movies", new MockFilterChain()));
+
+        Assertions.assertEquals(200, inner[0].getStatus());
+    }
+
+    @Test
+    public void givenOnlyReservedPlaces_whenLowPriorityRequestIsFiltered_thenServiceUnavailableIsReturned()
+            throws Exception {
+        final var filter = filter(2, 1);
+        final var inner = new MockHttpServletResponse[1];
+
+        perform(filter, "GET", "/api/v1/movies", (request, response) ->
+                inner[0] = perform(filter, "POST", "/api/v1/sessions", new MockFilterChain()));
+
+        Assertions.assertEquals(503, inner[0].getStatus());
+        Assertions.assertEquals(200, perform(filter, "POST", "/api/v1/sessions", new MockFilterChain()).getStatus());
+    }
+
+    @Test
+    public void givenOtherMethodOrPath_whenRequestIsFiltered_thenRequestIsNotLimited() throws Exception {
+        final var filter = filter(0, 0);
+
+        Assertions.assertEquals(200, perform(filter, "GET", "/api/v1/users/1", new MockFilterChain()).getStatus());
+        Assertions.assertEquals(200, perform(filter, "GET", "/swagger-ui.html", new MockFilterChain()).getStatus());
+        Assertions.assertEquals(503, perform(filter, "PUT", "/api/v1/users/1", new MockFilterChain()).getStatus());
+    }
+
+    @Test
+    public void givenGroupsAboveWorkerThreads_whenFilterIsCreated_thenIllegalStateExceptionIsThrown() {
+        final var groups = new LinkedHashMap<String, ConcurrencyProperties.Group>();
+        groups.put("catalog", new ConcurrencyProperties.Group(List.of("/api/v1/movies/**"), List.of(),
+                ConcurrencyProperties.Priority.HIGH, 150));
+        groups.put("sessions", new ConcurrencyProperties.Group(List.of("/api/v1/sessions/**"), List.of(),
+                ConcurrencyProperties.Priority.LOW, 100));
+        final var bulkheads = new ConcurrencyProperties.Bulkheads(true, 200, 50, Duration.ofSeconds(1L), groups);
+
+        Assertions.assertThrows(IllegalStateException.class,
+                () -> new BulkheadFilter(bulkheads, 200, meterRegistry));
+    }
+
+    @Test
+    public void givenGroupWithoutPaths_whenGroupIsCreated_thenIllegalArgumentExceptionIsThrown() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new ConcurrencyProperties.Group(
+                null, List.of(), ConcurrencyProperties.Priority.HIGH, 1));
+    }
+}
@@ -0,0 +1,61 @@
+package be.ucll.backend2.unit;
+
+import be.ucll.backend2.config.CachingJwtDecoder;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+
+@ExtendWith(MockitoExtension.class)
+public class CachingJwtDecoderTest {
+    @Mock
+    private JwtDecoder delegate;
+
+    private static Jwt jwt(Instant expiresAt) {
+        return new Jwt("token", expiresAt.minusSeconds(60L), expiresAt, Map.of("alg", "HS256"), Map.of("sub", "1"));
+    }
+
+    @Test
+    public void givenValidToken_whenDecodedTwice_thenDelegateIsCalledOnce() {
+        final var decoder = new CachingJwtDecoder(delegate, 100L, Duration.ofMinutes(5));
+        final var jwt = jwt(Instant.now().plusSeconds(60L));
+        Mockito.when(delegate.decode("token")).thenReturn(jwt);
+
+        Assertions.assertSame(jwt, decoder.decode("token"));
+        Assertions.assertSame(jwt, decoder.decode("token"));
+
+        Mockito.verify(delegate, Mockito.times(1)).decode("token");
+    }
+
+    @Test
+    public void givenInvalidToken_whenDecodedTwice_thenFailureIsNotCached() {
+        final var decoder = new CachingJwtDecoder(delegate, 100L, Duration.ofMinutes(5));
+        Mockito.when(delegate.decode("token")).thenThrow(new BadJwtException("Invalid signature"));
+
+        Assertions.assertThrows(BadJwtException.class, () -> decoder.decode("token"));
+        Assertions.assertThrows(BadJwtException.class, () -> decoder.decode("token"));
+
+        Mockito.verify(delegate, Mockito.times(2)).decode("token");
+    }
+
+    @Test
+    public void givenExpiredToken_whenDecodedTwice_thenDelegateIsCalledTwice() {
+        final var decoder = new CachingJwtDecoder(delegate, 100L, Duration.ofMinutes(5));
+        final var jwt = jwt(Instant.now().minusSeconds(1L));
+        Mockito.when(delegate.decode("token")).thenReturn(jwt);
+
+        decoder.decode("token");
+        decoder.decode("token");
+
+        Mockito.verify(delegate, Mockito.times(2)).decode("token");
+    }
+}
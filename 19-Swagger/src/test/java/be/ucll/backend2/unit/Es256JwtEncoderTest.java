@@ -0,0 +1,75 @@
+package be.ucll.backend2.unit;
+
+import be.ucll.backend2.config.AsymmetricKeys;
+import be.ucll.backend2.config.Es256JwtEncoder;
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.source.ImmutableJWKSet;
+import com.nimbusds.jose.proc.JWSVerificationKeySelector;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+
+public class Es256JwtEncoderTest {
+    @TempDir
+    private Path directory;
+
+    // Zoals AsymmetricJwtConfig, maar zonder validators
+    private static NimbusJwtDecoder decoder(JWKSet publicKeys) {
+        final var jwtProcessor = new DefaultJWTProcessor<SecurityContext>();
+        jwtProcessor.setJWSKeySelector(
+                new JWSVerificationKeySelector<>(JWSAlgorithm.ES256, new ImmutableJWKSet<>(publicKeys)));
+        return new NimbusJwtDecoder(jwtProcessor);
+    }
+
+    @Test
+    public void givenSigningKey_whenEncodeIsCalled_thenPublicKeyVerifiesToken() throws JOSEException {
+        final var keys = AsymmetricKeys.generate();
+        final var encoder = new Es256JwtEncoder(keys.signingKey(), "self");
+        final var now = Instant.now();
+
+        final var token = encoder.encode("jti-1", "1", "jos@example.com", 1L, now, now.plusSeconds(1800L));
+
+        final var jwt = decoder(keys.publicKeys()).decode(token);
+        Assertions.assertEquals(keys.signingKey().getKeyID(), jwt.getHeaders().get("kid"));
+        Assertions.assertEquals("1", jwt.getSubject());
+        Assertions.assertEquals(1L, jwt.<Long>getClaim("rol"));
+    }
+
+    @Test
+    public void givenOtherKey_whenDecodeIsCalled_thenTokenIsRejected() throws JOSEException {
+        final var keys = AsymmetricKeys.generate();
+        final var otherKeys = AsymmetricKeys.generate();
+        final var now = Instant.now();
+        final var token = new Es256JwtEncoder(otherKeys.signingKey(), "self")
+                .encode("jti-1", "1", "jos@example.com", 1L, now, now.plusSeconds(1800L));
+
+        final var decoder = decoder(keys.publicKeys());
+        Assertions.assertThrows(BadJwtException.class, () -> decoder.decode(token));
+    }
+
+    @Test
+    public void givenKeySetFile_whenLoaded_thenOnlyPublicKeysArePublished() throws IOException {
+        final var oldKey = AsymmetricKeys.newSigningKey();
+        final var newKey = AsymmetricKeys.newSigningKey();
+        final var file = directory.resolve("jwt-keys.json");
+        Files.writeString(file, new JWKSet(List.of(oldKey, newKey)).toString(false));
+
+        final var keys = AsymmetricKeys.load(file, newKey.getKeyID());
+
+        Assertions.assertEquals(newKey.getKeyID(), keys.signingKey().getKeyID());
+        Assertions.assertEquals(2, keys.publicKeys().getKeys().size());
+        Assertions.assertTrue(keys.publicKeys().getKeys().stream().noneMatch(key -> key.isPrivate()));
+    }
+}
@@ -0,0 +1,159 @@
+package be.ucll.backend2.unit;
+
+import be.ucll.backend2.config.Hs256JwtDecoder;
+import be.ucll.backend2.config.Hs256JwtEncoder;
+import be.ucll.backend2.config.JwtKeyRing;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.OctetSequenceKey;
+import com.nimbusds.jose.jwk.source.ImmutableJWKSet;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.jose.jws.MacAlgorithm;
+import org.springframework.security.oauth2.jwt.*;
+
+import javax.crypto.spec.SecretKeySpec;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class Hs256JwtDecoderTest {
+    private final SecretKeySpec secretKey = new SecretKeySpec(
+            "0123456789abcdef0123456789abcdef".getBytes(), "HmacSHA256");
+    private final JwtKeyRing keyRing = JwtKeyRing.of("test", secretKey);
+    private final Hs256JwtEncoder encoder = new Hs256JwtEncoder(keyRing, "self");
+    private final JwtDecoder nimbusDecoder = NimbusJwtDecoder
+            .withSecretKey(secretKey)
+            .macAlgorithm(MacAlgorithm.HS256)
+            .build();
+    private final JwtDecoder decoder = new Hs256JwtDecoder(keyRing, nimbusDecoder);
+
+    @Test
+    public void givenOwnToken_whenDecodeIsCalled_thenClaimsAreSameAsNimbus() {
+        final var now = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+        final var token = encoder.encode("jti-1", "1", "jösé@example.com", 3L,
+                now, now.plusSeconds(1800L));
+
+        final var jwt = decoder.decode(token);
+
+        final var expected = nimbusDecoder.decode(token);
+        Assertions.assertEquals(expected.getClaims(), jwt.getClaims());
+        Assertions.assertEquals(expected.getHeaders(), jwt.getHeaders());
+        Assertions.assertEquals(expected.getIssuedAt(), jwt.getIssuedAt());
+        Assertions.assertEquals(expected.getExpiresAt(), jwt.getExpiresAt());
+        Assertions.assertEquals(token, jwt.getTokenValue());
+    }
+
+    @Test
+    public void givenTamperedSignature_whenDecodeIsCalled_thenBadJwtExceptionIsThrown() {
+        final var now = Instant.now();
+        final var token = encoder.encode("jti-1", "1", "jos@example.com", 1L, now, now.plusSeconds(1800L));
+        final var last = token.charAt(token.length() - 2) == 'A' ? 'B' : 'A';
+        final var tampered = token.substring(0, token.length() - 2) + last + token.charAt(token.length() - 1);
+
+        Assertions.assertThrows(BadJwtException.class, () -> decoder.decode(tampered));
+    }
+
+    @Test
+    public void givenTamperedPayload_whenDecodeIsCalled_thenBadJwtExceptionIsThrown() {
+        final var now = Instant.now();
+        final var token = encoder.encode("jti-1", "1", "jos@example.com", 1L, now, now.plusSeconds(1800L));
+        final var admin = encoder.encode("jti-2", "2", "jos@example.com", 1L, now, now.plusSeconds(1800L));
+        final var parts = token.split("\\.");
+        final var forged = parts[0] + "." + admin.split("\\.")[1] + "." + parts[2];
+
+        Assertions.assertThrows(BadJwtException.class, () -> decoder.decode(forged));
+    }
+
+    @Test
+    public void givenExpiredToken_whenDecodeIsCalled_thenJwtValidationExceptionIsThrown() {
+        final var issuedAt = Instant.now().minusSeconds(3600L);
+        final var token = encoder.encode("jti-1", "1", "jos@example.com", 1L,
+                issuedAt, issuedAt.plusSeconds(1800L));
+
+        Assertions.assertThrows(JwtValidationException.class, () -> decoder.decode(token));
+    }
+
+    @Test
+    public void givenTokenWithOtherClaims_whenDecodeIsCalled_thenAllClaimsAreDecoded() {
+        final var now = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+        final var nimbusEncoder = new NimbusJwtEncoder(new ImmutableJWKSet<>(new JWKSet(
+                new OctetSequenceKey.Builder(secretKey).algorithm(JWSAlgorithm.HS256).build())));
+        final var token = nimbusEncoder.encode(JwtEncoderParameters.from(
+                JwsHeader.with(MacAlgorithm.HS256).type("JWT").build(),
+                JwtClaimsSet.builder()
+                        .issuer("self")
+                        .issuedAt(now)
+                        .expiresAt(now.plusSeconds(1800L))
+                        .subject("1")
+                        .claim("scope", "ROLE_READER")
+                        .claim("tenant", "ucll")
+                        .build())).getTokenValue();
+
+        final var jwt = decoder.decode(token);
+
+        Assertions.assertEquals("ucll", jwt.getClaimAsString("tenant"));
+        Assertions.assertEquals(nimbusDecoder.decode(token).getClaims(), jwt.getClaims());
+    }
+
+    @Test
+    public void givenOwnToken_whenOnlySubjectAndRolesAreRead_thenOtherClaimsAreStillAvailable() {
+        final var now = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+        final var token = encoder.encode("jti-1", "1", "jos@example.com", 3L, now, now.plusSeconds(1800L));
+
+        final var jwt = decoder.decode(token);
+
+        Assertions.assertEquals("1", jwt.getSubject());
+        Assertions.assertEquals(3L, jwt.<Long>getClaim("rol"));
+        Assertions.assertFalse(jwt.hasClaim("scope"));
+        Assertions.assertEquals("jos@example.com", jwt.getClaimAsString("email"));
+        Assertions.assertEquals("self", jwt.getClaimAsString("iss"));
+    }
+
+    @Test
+    public void givenDecodedOwnToken_whenJwtIsSerialized_thenAllClaimsAreKept() throws Exception {
+        final var now = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+        final var jwt = decoder.decode(
+                encoder.encode("jti-1", "1", "jos@example.com", 3L, now, now.plusSeconds(1800L)));
+
+        final var bytes = new ByteArrayOutputStream();
+        try (final var output = new ObjectOutputStream(bytes)) {
+            output.writeObject(jwt);
+        }
+        try (final var input = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            final var copy = (Jwt) input.readObject();
+
+            Assertions.assertEquals(jwt.getClaims(), copy.getClaims());
+            Assertions.assertEquals(jwt.getTokenValue(), copy.getTokenValue());
+        }
+    }
+
+    @Test
+    public void givenManyVirtualThreads_whenTokensAreDecodedConcurrently_thenEachGetsItsOwnClaims() throws Exception {
+        final var now = Instant.now();
+        final var tokens = new ArrayList<String>();
+        for (int i = 0; i < 1000; i++) {
+            tokens.add(encoder.encode("jti-" + i, String.valueOf(i), i + "@example.com", 1L,
+                    now, now.plusSeconds(1800L)));
+        }
+
+        final var results = new ArrayList<Future<Jwt>>();
+        try (final var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (final var token : tokens) {
+                results.add(executor.submit(() -> decoder.decode(token)));
+            }
+        }
+
+        for (int i = 0; i < tokens.size(); i++) {
+            final var jwt = results.get(i).get();
+            Assertions.assertEquals(String.valueOf(i), jwt.getSubject());
+            Assertions.assertEquals(i + "@example.com", jwt.getClaimAsString("email"));
+        }
+    }
+}
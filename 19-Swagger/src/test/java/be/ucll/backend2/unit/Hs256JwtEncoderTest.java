@@ -0,0 +1,105 @@
+package be.ucll.backend2.unit;
+
+import be.ucll.backend2.config.Hs256JwtEncoder;
+import be.ucll.backend2.config.JwtKeyRing;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.OctetSequenceKey;
+import com.nimbusds.jose.jwk.source.ImmutableJWKSet;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.jose.jws.MacAlgorithm;
+import org.springframework.security.oauth2.jwt.*;
+
+import javax.crypto.spec.SecretKeySpec;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class Hs256JwtEncoderTest {
+    private final SecretKeySpec secretKey = new SecretKeySpec(
+            "0123456789abcdef0123456789abcdef".getBytes(), "HmacSHA256");
+    private final Hs256JwtEncoder encoder = new Hs256JwtEncoder(JwtKeyRing.of("test", secretKey), "self");
+    private final JwtDecoder decoder = NimbusJwtDecoder
+            .withSecretKey(secretKey)
+            .macAlgorithm(MacAlgorithm.HS256)
+            .build();
+
+    @Test
+    public void givenClaims_whenEncodeIsCalled_thenDecoderAcceptsTokenWithSameClaims() {
+        final var now = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+
+        final var token = encoder.encode("jti-1", "1", "jos@example.com", 3L,
+                now, now.plusSeconds(1800L));
+
+        final var jwt = decoder.decode(token);
+        Assertions.assertEquals("HS256", jwt.getHeaders().get("alg"));
+        Assertions.assertEquals("JWT", jwt.getHeaders().get("typ"));
+        Assertions.assertEquals("self", jwt.getClaimAsString("iss"));
+        Assertions.assertEquals("1", jwt.getSubject());
+        Assertions.assertEquals(now, jwt.getIssuedAt());
+        Assertions.assertEquals(now.plusSeconds(1800L), jwt.getExpiresAt());
+        Assertions.assertEquals("jos@example.com", jwt.getClaimAsString("email"));
+        Assertions.assertEquals(3L, jwt.<Long>getClaim("rol"));
+        // De rollen staan enkel als bitmasker in rol, niet meer als "scope" string
+        Assertions.assertNull(jwt.getClaimAsString("scope"));
+        Assertions.assertEquals(Set.of("iss", "sub", "iat", "exp", "jti", "email", "rol"), jwt.getClaims().keySet());
+    }
+
+    @Test
+    public void givenClaimsNeedingEscaping_whenEncodeIsCalled_thenClaimsSurviveRoundTrip() {
+        final var now = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+
+        final var token = encoder.encode("jti-1", "1", "jösé\"\\@exämple.com", 1L,
+                now, now.plusSeconds(1800L));
+
+        Assertions.assertEquals("jösé\"\\@exämple.com", decoder.decode(token).getClaimAsString("email"));
+    }
+
+    @Test
+    public void givenSameClaims_whenEncodedByNimbusAndByUs_thenSignedPayloadsHaveSameClaims() {
+        final var now = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+        final var nimbus = new NimbusJwtEncoder(new ImmutableJWKSet<>(new JWKSet(
+                new OctetSequenceKey.Builder(secretKey).algorithm(JWSAlgorithm.HS256).build())));
+        final var nimbusToken = nimbus.encode(JwtEncoderParameters.from(
+                JwsHeader.with(MacAlgorithm.HS256).type("JWT").build(),
+                JwtClaimsSet.builder()
+                        .issuer("self")
+                        .issuedAt(now)
+                        .expiresAt(now.plusSeconds(1800L))
+                        .id("jti-1")
+                        .subject("1")
+                        .claim("email", "jos@example.com")
+                        .claim("rol", 1L)
+                        .build())).getTokenValue();
+
+        final var ourToken = encoder.encode("jti-1", "1", "jos@example.com", 1L,
+                now, now.plusSeconds(1800L));
+
+        Assertions.assertEquals(decoder.decode(nimbusToken).getClaims(), decoder.decode(ourToken).getClaims());
+    }
+
+    @Test
+    public void givenManyVirtualThreads_whenTokensAreEncodedConcurrently_thenEachTokenHasItsOwnClaims()
+            throws Exception {
+        final var now = Instant.now();
+
+        final var tokens = new ArrayList<Future<String>>();
+        try (final var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 1000; i++) {
+                final var subject = String.valueOf(i);
+                tokens.add(executor.submit(() -> encoder.encode("jti-" + subject, subject, "jos@example.com", 1L,
+                        now, now.plusSeconds(1800L))));
+            }
+        }
+
+        for (int i = 0; i < tokens.size(); i++) {
+            final var jwt = decoder.decode(tokens.get(i).get());
+            Assertions.assertEquals(String.valueOf(i), jwt.getSubject());
+            Assertions.assertEquals("jti-" + i, jwt.getId());
+        }
+    }
+}
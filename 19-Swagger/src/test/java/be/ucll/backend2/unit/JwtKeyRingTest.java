@@ -0,0 +1,112 @@
+package be.ucll.backend2.unit;
+
+import be.ucll.backend2.config.Hs256JwtDecoder;
+import be.ucll.backend2.config.Hs256JwtEncoder;
+import be.ucll.backend2.config.JwtKeyRing;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.proc.JWSVerificationKeySelector;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+
+public class JwtKeyRingTest {
+    private static final String KEY_A = "MDEyMzQ1Njc4OWFiY2RlZjAxMjM0NTY3ODlhYmNkZWY";
+    private static final String KEY_B = "ZmVkY2JhOTg3NjU0MzIxMGZlZGNiYTk4NzY1NDMyMTA";
+
+    @TempDir
+    private Path directory;
+
+    private static void write(Path file, String content) throws IOException {
+        final var lastModified = Files.exists(file) ? Files.getLastModifiedTime(file).toMillis() : 0L;
+        Files.writeString(file, content);
+        // Sommige filesystems hebben een grove resolutie voor de wijzigingstijd
+        Files.setLastModifiedTime(file,
+                FileTime.fromMillis(Math.max(lastModified + 1000L, System.currentTimeMillis())));
+    }
+
+    private static JwtDecoder decoder(JwtKeyRing keyRing) {
+        final var jwtProcessor = new DefaultJWTProcessor<SecurityContext>();
+        jwtProcessor.setJWSKeySelector(new JWSVerificationKeySelector<>(JWSAlgorithm.HS256, keyRing));
+        jwtProcessor.setJWTClaimsSetVerifier((claims, context) -> {});
+        return new Hs256JwtDecoder(keyRing, new NimbusJwtDecoder(jwtProcessor));
+    }
+
+    private static String token(Hs256JwtEncoder encoder) {
+        final var now = Instant.now();
+        return encoder.encode("jti-1", "1", "jos@example.com", 1L, now, now.plusSeconds(1800L));
+    }
+
+    @Test
+    public void givenRotatedKeyFile_whenReloaded_thenNewTokensUseNewKeyAndOldTokensStayValid() throws IOException {
+        final var file = directory.resolve("jwt-keys.properties");
+        write(file, "active-key-id=a\nkeys.a=" + KEY_A + "\n");
+        final var keyRing = new JwtKeyRing(Map.of(), null, file, Duration.ZERO, Duration.ofMinutes(31));
+        final var encoder = new Hs256JwtEncoder(keyRing, "self");
+        final var decoder = decoder(keyRing);
+        final var oldToken = token(encoder);
+        Assertions.assertEquals("a", decoder.decode(oldToken).getHeaders().get("kid"));
+
+        write(file, "active-key-id=b\nkeys.b=" + KEY_B + "\n");
+
+        final var newToken = token(encoder);
+        Assertions.assertEquals("b", keyRing.activeKey().id());
+        Assertions.assertEquals("b", decoder.decode(newToken).getHeaders().get("kid"));
+        Assertions.assertEquals("a", decoder.decode(oldToken).getHeaders().get("kid"));
+    }
+
+    @Test
+    public void givenRetiredKeyPastRetention_whenDecodeIsCalled_thenTokenIsRejected() throws IOException {
+        final var file = directory.resolve("jwt-keys.properties");
+        write(file, "active-key-id=a\nkeys.a=" + KEY_A + "\n");
+        final var keyRing = new JwtKeyRing(Map.of(), null, file, Duration.ZERO, Duration.ZERO);
+        final var encoder = new Hs256JwtEncoder(keyRing, "self");
+        final var oldToken = token(encoder);
+
+        write(file, "active-key-id=b\nkeys.b=" + KEY_B + "\n");
+
+        Assertions.assertThrows(BadJwtException.class, () -> decoder(keyRing).decode(oldToken));
+    }
+
+    @Test
+    public void givenUnreadableKeyFile_whenReloaded_thenCurrentKeysAreKept() throws IOException {
+        final var file = directory.resolve("jwt-keys.properties");
+        write(file, "active-key-id=a\nkeys.a=" + KEY_A + "\n");
+        final var keyRing = new JwtKeyRing(Map.of(), null, file, Duration.ZERO, Duration.ofMinutes(31));
+
+        write(file, "active-key-id=unknown\nkeys.a=" + KEY_A + "\n");
+
+        Assertions.assertEquals("a", keyRing.activeKey().id());
+    }
+
+    @Test
+    public void givenTokenSignedWithUnknownKey_whenDecodeIsCalled_thenTokenIsRejected() {
+        final var keyRing = JwtKeyRing.of("a", JwtKeyRing.secretKey(KEY_A));
+        final var otherKeyRing = JwtKeyRing.of("a", JwtKeyRing.secretKey(KEY_B));
+        final var token = token(new Hs256JwtEncoder(otherKeyRing, "self"));
+
+        Assertions.assertThrows(BadJwtException.class, () -> decoder(keyRing).decode(token));
+    }
+
+    @Test
+    public void givenSameSecret_whenKeyIdIsDerived_thenKeyIdIsSameOnEveryNode() {
+        Assertions.assertEquals(
+                JwtKeyRing.keyId(JwtKeyRing.secretKey(KEY_A)),
+                JwtKeyRing.keyId(JwtKeyRing.secretKey(KEY_A)));
+        Assertions.assertNotEquals(
+                JwtKeyRing.keyId(JwtKeyRing.secretKey(KEY_A)),
+                JwtKeyRing.keyId(JwtKeyRing.secretKey(KEY_B)));
+    }
+}
@@ -0,0 +1,47 @@
+package be.ucll.backend2.unit;
+
+import be.ucll.backend2.config.LoginRateLimitProperties;
+import be.ucll.backend2.exception.TooManyLoginAttemptsException;
+import be.ucll.backend2.service.LoginRateLimiter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+public class LoginRateLimiterTest {
+    private final LoginRateLimiter loginRateLimiter = new LoginRateLimiter(
+            new LoginRateLimitProperties(
+                    true,
+                    new LoginRateLimitProperties.Account(3, Duration.ofMinutes(1)),
+                    new LoginRateLimitProperties.Address(5, Duration.ofMinutes(1)),
+                    1000L,
+                    Duration.ofMinutes(10)),
+            new SimpleMeterRegistry());
+
+    @Test
+    public void givenAccountLimitReached_whenAcquireIsCalled_thenTooManyLoginAttemptsExceptionIsThrown()
+            throws TooManyLoginAttemptsException {
+        loginRateLimiter.acquire("jos@example.com", "10.0.0.1");
+        loginRateLimiter.acquire("JOS@example.com", "10.0.0.2");
+        loginRateLimiter.acquire("jos@example.com", "10.0.0.3");
+
+        final var exception = Assertions.assertThrows(TooManyLoginAttemptsException.class,
+                () -> loginRateLimiter.acquire("jos@example.com", "10.0.0.4"));
+        Assertions.assertTrue(exception.getRetryAfter().compareTo(Duration.ZERO) > 0);
+
+        // Andere accounts hebben er geen last van
+        loginRateLimiter.acquire("maria@example.com", "10.0.0.4");
+    }
+
+    @Test
+    public void givenAddressLimitReached_whenAcquireIsCalled_thenTooManyLoginAttemptsExceptionIsThrown()
+            throws TooManyLoginAttemptsException {
+        for (int i = 0; i < 5; i++) {
+            loginRateLimiter.acquire("user" + i + "@example.com", "10.0.0.1");
+        }
+
+        Assertions.assertThrows(TooManyLoginAttemptsException.class,
+                () -> loginRateLimiter.acquire("other@example.com", "10.0.0.1"));
+    }
+}
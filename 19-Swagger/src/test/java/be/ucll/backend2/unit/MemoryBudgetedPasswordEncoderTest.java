@@ -0,0 +1,111 @@
+package be.ucll.backend2.unit;
+
+import be.ucll.backend2.config.MemoryBudgetedPasswordEncoder;
+import be.ucll.backend2.exception.HashingMemoryExhaustedException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class MemoryBudgetedPasswordEncoderTest {
+    // Budget voor precies één hash van 64 KiB plus één van 16 KiB
+    private static final int BUDGET_KIBIBYTES = 80;
+    private static final int ENCODE_KIBIBYTES = 64;
+    private static final String SMALL_HASH = "$argon2id$v=19$m=16,t=3,p=1$c2FsdA$aGFzaA";
+    private static final String LARGE_HASH = "$argon2id$v=19$m=64,t=3,p=1$c2FsdA$aGFzaA";
+
+    private final CountDownLatch started = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    // Blijft hangen in encode() tot release, zodat we het budget kunnen vasthouden
+    private final PasswordEncoder blockingEncoder = new PasswordEncoder() {
+        @Override
+        public String encode(CharSequence rawPassword) {
+            started.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "hashed";
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            return true;
+        }
+    };
+
+    private final MemoryBudgetedPasswordEncoder passwordEncoder = new MemoryBudgetedPasswordEncoder(
+            blockingEncoder, BUDGET_KIBIBYTES, ENCODE_KIBIBYTES, Duration.ofMillis(100));
+
+    @AfterEach
+    public void releaseBudget() {
+        release.countDown();
+    }
+
+    private void givenEncodeHoldsBudget() throws InterruptedException {
+        CompletableFuture.runAsync(() -> passwordEncoder.encode("password"));
+        Assertions.assertTrue(started.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void givenFreeBudget_whenEncodeIsCalledRepeatedly_thenBudgetIsReleasedAfterEachHash() {
+        release.countDown();
+
+        for (var i = 0; i < 3; i++) {
+            Assertions.assertEquals("hashed", passwordEncoder.encode("password"));
+        }
+    }
+
+    @Test
+    public void givenBudgetIsInUse_whenEncodeWaitsTooLong_thenHashingMemoryExhaustedExceptionIsThrown()
+            throws InterruptedException {
+        givenEncodeHoldsBudget();
+
+        Assertions.assertThrows(HashingMemoryExhaustedException.class, () -> passwordEncoder.encode("password"));
+    }
+
+    @Test
+    public void givenBudgetIsInUse_whenMatchesIsCalled_thenMemoryOfStoredHashIsReserved()
+            throws InterruptedException {
+        givenEncodeHoldsBudget();
+
+        // 16 KiB past nog naast de lopende hash van 64 KiB, 64 KiB niet meer
+        Assertions.assertTrue(passwordEncoder.matches("password", SMALL_HASH));
+        Assertions.assertThrows(HashingMemoryExhaustedException.class,
+                () -> passwordEncoder.matches("password", LARGE_HASH));
+    }
+
+    @Test
+    public void givenEncoderSharingBudget_whenBudgetIsInUse_thenItWaitsForTheSameBudget()
+            throws InterruptedException {
+        final var legacyEncoder = passwordEncoder.sharingBudget(blockingEncoder, ENCODE_KIBIBYTES);
+        givenEncodeHoldsBudget();
+
+        Assertions.assertThrows(HashingMemoryExhaustedException.class, () -> legacyEncoder.encode("password"));
+    }
+
+    @Test
+    public void givenHashLargerThanBudget_whenMatchesIsCalled_thenWholeBudgetIsUsed() {
+        release.countDown();
+
+        Assertions.assertTrue(passwordEncoder.matches("password", "$argon2id$v=19$m=1048576,t=3,p=1$c2FsdA$aGFzaA"));
+    }
+
+    @Test
+    public void givenInterruptedThread_whenEncodeIsCalled_thenHashingMemoryExhaustedExceptionIsThrown() {
+        Thread.currentThread().interrupt();
+        try {
+            Assertions.assertThrows(HashingMemoryExhaustedException.class, () -> passwordEncoder.encode("password"));
+            Assertions.assertTrue(Thread.currentThread().isInterrupted());
+        } finally {
+            Thread.interrupted();
+        }
+    }
+}
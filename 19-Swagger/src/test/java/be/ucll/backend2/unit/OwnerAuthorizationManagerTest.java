@@ -0,0 +1,83 @@
+package be.ucll.backend2.unit;
+
+import be.ucll.backend2.config.OwnerAuthorizationManager;
+import be.ucll.backend2.config.OwnerOnly;
+import be.ucll.backend2.config.RoleClaimJwtAuthenticationConverter;
+import be.ucll.backend2.controller.UserController;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.util.SimpleMethodInvocation;
+
+import java.time.Instant;
+
+public class OwnerAuthorizationManagerTest {
+    private final OwnerAuthorizationManager authorizationManager = new OwnerAuthorizationManager();
+
+    public static class Resources {
+        @OwnerOnly("userId")
+        public void get(String name, long userId) {
+        }
+
+        @OwnerOnly
+        public void withoutId(String name) {
+        }
+    }
+
+    private static Authentication user(String subject) {
+        final var now = Instant.now();
+        return new RoleClaimJwtAuthenticationConverter().convert(Jwt.withTokenValue("token")
+                .header("alg", "HS256")
+                .issuedAt(now)
+                .expiresAt(now.plusSeconds(1800L))
+                .subject(subject)
+                .claim("rol", 1L)
+                .build());
+    }
+
+    private boolean isGranted(Authentication authentication, long id) throws NoSuchMethodException {
+        final var invocation = new SimpleMethodInvocation(
+                new UserController(null, null), UserController.class.getMethod("getUser", long.class), id);
+        return authorizationManager.authorize(() -> authentication, invocation).isGranted();
+    }
+
+    @Test
+    public void givenOwnId_whenAuthorizeIsCalled_thenAccessIsGranted() throws NoSuchMethodException {
+        Assertions.assertTrue(isGranted(user("1"), 1L));
+    }
+
+    @Test
+    public void givenOtherId_whenAuthorizeIsCalled_thenAccessIsDenied() throws NoSuchMethodException {
+        Assertions.assertFalse(isGranted(user("1"), 2L));
+    }
+
+    @Test
+    public void givenNonNumericSubject_whenAuthorizeIsCalled_thenAccessIsDenied() throws NoSuchMethodException {
+        Assertions.assertFalse(isGranted(user("service-account"), Long.MIN_VALUE));
+    }
+
+    @Test
+    public void givenOtherAuthentication_whenAuthorizeIsCalled_thenNameIsUsedAsId() throws NoSuchMethodException {
+        Assertions.assertTrue(isGranted(new TestingAuthenticationToken("1", null), 1L));
+    }
+
+    @Test
+    public void givenNamedParameter_whenAuthorizeIsCalled_thenThatParameterIsUsed() throws NoSuchMethodException {
+        final var invocation = new SimpleMethodInvocation(
+                new Resources(), Resources.class.getMethod("get", String.class, long.class), "movies", 1L);
+
+        Assertions.assertTrue(authorizationManager.authorize(() -> user("1"), invocation).isGranted());
+    }
+
+    @Test
+    public void givenNoIdParameter_whenAuthorizeIsCalled_thenIllegalStateExceptionIsThrown()
+            throws NoSuchMethodException {
+        final var invocation = new SimpleMethodInvocation(
+                new Resources(), Resources.class.getMethod("withoutId", String.class), "movies");
+
+        Assertions.assertThrows(IllegalStateException.class,
+                () -> authorizationManager.authorize(() -> user("1"), invocation));
+    }
+}
@@ -0,0 +1,46 @@
+package be.ucll.backend2.unit;
+
+import be.ucll.backend2.config.PasswordEncoderCalibration;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+public class PasswordEncoderCalibrationTest {
+    private static final int MIN_STRENGTH = 10;
+    private static final int MAX_STRENGTH = 16;
+
+    @Test
+    public void givenUnreachableTarget_whenCalibrateIsCalled_thenMinStrengthIsUsed() {
+        for (final var target : new Duration[]{Duration.ZERO, Duration.ofNanos(1L)}) {
+            final var calibration = PasswordEncoderCalibration.calibrate(target, MIN_STRENGTH, MAX_STRENGTH);
+
+            Assertions.assertEquals(MIN_STRENGTH, calibration.bcryptStrength());
+        }
+    }
+
+    @Test
+    public void givenHugeTarget_whenCalibrateIsCalled_thenMaxStrengthIsUsed() {
+        final var calibration = PasswordEncoderCalibration.calibrate(Duration.ofDays(1L), MIN_STRENGTH, MAX_STRENGTH);
+
+        Assertions.assertEquals(MAX_STRENGTH, calibration.bcryptStrength());
+    }
+
+    @Test
+    public void givenRealisticTarget_whenCalibrateIsCalled_thenStrengthStaysWithinBounds() {
+        final var calibration = PasswordEncoderCalibration.calibrate(
+                Duration.ofMillis(150L), MIN_STRENGTH, MAX_STRENGTH);
+
+        Assertions.assertTrue(calibration.bcryptStrength() >= MIN_STRENGTH);
+        Assertions.assertTrue(calibration.bcryptStrength() <= MAX_STRENGTH);
+        Assertions.assertTrue(calibration.estimatedLatency().isPositive());
+    }
+
+    @Test
+    public void givenFixedStrength_whenFixedIsCalled_thenNothingIsMeasured() {
+        final var calibration = PasswordEncoderCalibration.fixed(12);
+
+        Assertions.assertEquals(12, calibration.bcryptStrength());
+        Assertions.assertEquals(Duration.ZERO, calibration.estimatedLatency());
+    }
+}
@@ -0,0 +1,99 @@
+package be.ucll.backend2.unit;
+
+import be.ucll.backend2.config.PasswordProperties;
+import be.ucll.backend2.exception.HashingCapacityExceededException;
+import be.ucll.backend2.exception.HashingMemoryExhaustedException;
+import be.ucll.backend2.service.PasswordHashingExecutor;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class PasswordHashingExecutorTest {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    // 1 thread, plaats voor 1 taak in de queue
+    private final PasswordHashingExecutor executor = new PasswordHashingExecutor(
+            new PasswordProperties(
+                    "bcrypt",
+                    Duration.ofMillis(150),
+                    new PasswordProperties.Bcrypt(4, 4, 4),
+                    new PasswordProperties.Argon2(
+                            16, 32, 1, DataSize.ofMegabytes(64), 3, DataSize.ofMegabytes(256), Duration.ofSeconds(2)),
+                    new PasswordProperties.Hashing(1, 1, Duration.ofSeconds(5), Duration.ofSeconds(2))),
+            meterRegistry);
+
+    @AfterEach
+    public void shutdown() {
+        executor.destroy();
+    }
+
+    @Test
+    public void givenFreeCapacity_whenExecuteIsCalled_thenResultIsReturned() throws HashingCapacityExceededException {
+        final var result = executor.execute(() -> "hashed");
+
+        Assertions.assertEquals("hashed", result);
+        Assertions.assertEquals(1L, meterRegistry.get("security.password.hashing.duration").timer().count());
+    }
+
+    @Test
+    public void givenTaskThrows_whenExecuteIsCalled_thenExceptionIsRethrown() {
+        Assertions.assertThrows(BadCredentialsException.class, () -> executor.execute(() -> {
+            throw new BadCredentialsException("Bad credentials");
+        }));
+    }
+
+    @Test
+    public void givenMemoryBudgetIsExhausted_whenExecuteIsCalled_thenHashingCapacityExceededExceptionIsThrown() {
+        final var exception = Assertions.assertThrows(HashingCapacityExceededException.class,
+                () -> executor.execute(() -> {
+                    throw new HashingMemoryExhaustedException();
+                }));
+        Assertions.assertEquals(Duration.ofSeconds(2), exception.getRetryAfter());
+    }
+
+    @Test
+    public void givenThreadAndQueueAreFull_whenExecuteIsCalled_thenHashingCapacityExceededExceptionIsThrown()
+            throws InterruptedException {
+        final var started = new CountDownLatch(1);
+        final var release = new CountDownLatch(1);
+        // Bezet de enige thread
+        CompletableFuture.runAsync(() -> {
+            try {
+                executor.execute(() -> {
+                    started.countDown();
+                    try {
+                        return release.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        return false;
+                    }
+                });
+            } catch (HashingCapacityExceededException ignored) {
+            }
+        });
+        Assertions.assertTrue(started.await(5, TimeUnit.SECONDS));
+        // Vul de queue
+        CompletableFuture.runAsync(() -> {
+            try {
+                executor.execute(() -> "queued");
+            } catch (HashingCapacityExceededException ignored) {
+            }
+        });
+        while (meterRegistry.get("security.password.hashing.queue").gauge().value() < 1) {
+            Thread.onSpinWait();
+        }
+
+        final var exception = Assertions.assertThrows(HashingCapacityExceededException.class,
+                () -> executor.execute(() -> "rejected"));
+        Assertions.assertEquals(Duration.ofSeconds(2), exception.getRetryAfter());
+
+        release.countDown();
+    }
+}
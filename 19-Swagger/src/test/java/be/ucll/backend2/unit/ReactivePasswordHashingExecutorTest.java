@@ -0,0 +1,74 @@
+package be.ucll.backend2.unit;
+
+import be.ucll.backend2.config.PasswordProperties;
+import be.ucll.backend2.exception.HashingCapacityExceededException;
+import be.ucll.backend2.exception.HashingMemoryExhaustedException;
+import be.ucll.backend2.service.ReactivePasswordHashingExecutor;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.util.unit.DataSize;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+
+public class ReactivePasswordHashingExecutorTest {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    // 1 thread, plaats voor 1 taak in de queue, korte timeout
+    private final ReactivePasswordHashingExecutor executor = new ReactivePasswordHashingExecutor(
+            new PasswordProperties(
+                    "bcrypt",
+                    Duration.ofMillis(150),
+                    new PasswordProperties.Bcrypt(4, 4, 4),
+                    new PasswordProperties.Argon2(
+                            16, 32, 1, DataSize.ofMegabytes(64), 3, DataSize.ofMegabytes(256), Duration.ofSeconds(2)),
+                    new PasswordProperties.Hashing(1, 1, Duration.ofMillis(200), Duration.ofSeconds(2))),
+            meterRegistry);
+
+    @AfterEach
+    public void shutdown() {
+        executor.destroy();
+    }
+
+    @Test
+    public void givenFreeCapacity_whenExecuteIsCalled_thenResultIsEmittedOnHashingThread() {
+        StepVerifier.create(executor.execute(() -> Thread.currentThread().getName()))
+                .assertNext(threadName -> Assertions.assertTrue(threadName.startsWith("password-hashing")))
+                .verifyComplete();
+
+        Assertions.assertEquals(1L, meterRegistry.get("security.password.hashing.duration").timer().count());
+    }
+
+    @Test
+    public void givenTaskThrows_whenExecuteIsCalled_thenExceptionIsEmitted() {
+        StepVerifier.create(executor.execute(() -> {
+                    throw new BadCredentialsException("Bad credentials");
+                }))
+                .verifyError(BadCredentialsException.class);
+    }
+
+    @Test
+    public void givenMemoryBudgetIsExhausted_whenExecuteIsCalled_thenHashingCapacityExceededExceptionIsEmitted() {
+        StepVerifier.create(executor.execute(() -> {
+                    throw new HashingMemoryExhaustedException();
+                }))
+                .verifyError(HashingCapacityExceededException.class);
+    }
+
+    @Test
+    public void givenTaskTakesTooLong_whenExecuteIsCalled_thenHashingCapacityExceededExceptionIsEmitted() {
+        StepVerifier.create(executor.execute(() -> {
+                    Thread.sleep(2000);
+                    return "too late";
+                }))
+                .expectErrorSatisfies(e -> {
+                    Assertions.assertInstanceOf(HashingCapacityExceededException.class, e);
+                    Assertions.assertEquals(Duration.ofSeconds(2),
+                            ((HashingCapacityExceededException) e).getRetryAfter());
+                })
+                .verify(Duration.ofSeconds(5));
+    }
+}
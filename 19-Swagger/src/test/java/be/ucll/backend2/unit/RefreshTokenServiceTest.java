@@ -0,0 +1,165 @@
+package be.ucll.backend2.unit;
+
+import be.ucll.backend2.config.JwtKeyRing;
+import be.ucll.backend2.config.JwtProperties;
+import be.ucll.backend2.exception.InvalidRefreshTokenException;
+import be.ucll.backend2.model.RefreshToken;
+import be.ucll.backend2.model.Role;
+import be.ucll.backend2.model.UserDetailsImpl;
+import be.ucll.backend2.repository.RefreshTokenRepository;
+import be.ucll.backend2.repository.UserRepository;
+import be.ucll.backend2.service.RefreshTokenService;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.crypto.Mac;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Optional;
+
+@ExtendWith(MockitoExtension.class)
+public class RefreshTokenServiceTest {
+    @Mock
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    private static final String HASH_KEY = "MDEyMzQ1Njc4OWFiY2RlZjAxMjM0NTY3ODlhYmNkZWY";
+
+    private RefreshTokenService refreshTokenService() {
+        final var jwtProperties = new JwtProperties(null, null,
+                new JwtProperties.RefreshToken(Duration.ofDays(30L), HASH_KEY),
+                null, null, null, "HS256", null);
+        return new RefreshTokenService(refreshTokenRepository, userRepository, jwtProperties);
+    }
+
+    // Geeft het token terug en laat findByTokenHash het opgeslagen RefreshToken vinden
+    private String issue(RefreshTokenService refreshTokenService) {
+        final var token = refreshTokenService.issue(1L);
+        final var captor = ArgumentCaptor.forClass(RefreshToken.class);
+        Mockito.verify(refreshTokenRepository).save(captor.capture());
+        Mockito.when(refreshTokenRepository.findByTokenHash(captor.getValue().getTokenHash()))
+                .thenReturn(Optional.of(captor.getValue()));
+        return token;
+    }
+
+    @Test
+    public void givenIssuedToken_whenIssueIsCalled_thenOnlyTheHashIsStored() {
+        final var refreshTokenService = refreshTokenService();
+
+        final var token = refreshTokenService.issue(1L);
+
+        final var captor = ArgumentCaptor.forClass(RefreshToken.class);
+        Mockito.verify(refreshTokenRepository).save(captor.capture());
+        Assertions.assertNotEquals(token, captor.getValue().getTokenHash());
+        Assertions.assertEquals(1L, captor.getValue().getUserId());
+        Assertions.assertTrue(captor.getValue().getExpiresAt().isAfter(Instant.now().plus(Duration.ofDays(29L))));
+        Mockito.verify(refreshTokenRepository).deleteExpiredForUser(ArgumentMatchers.eq(1L), ArgumentMatchers.any());
+    }
+
+    @Test
+    public void givenHashKey_whenIssueIsCalled_thenHmacOfTokenIsStored() throws Exception {
+        final var refreshTokenService = refreshTokenService();
+
+        final var token = refreshTokenService.issue(1L);
+
+        final var captor = ArgumentCaptor.forClass(RefreshToken.class);
+        Mockito.verify(refreshTokenRepository).save(captor.capture());
+        final var mac = Mac.getInstance("HmacSHA256");
+        mac.init(JwtKeyRing.secretKey(HASH_KEY));
+        Assertions.assertEquals(HexFormat.of().formatHex(mac.doFinal(token.getBytes(StandardCharsets.UTF_8))),
+                captor.getValue().getTokenHash());
+    }
+
+    @Test
+    public void givenValidToken_whenConsumeIsCalled_thenTokenIsRevokedAndUserIsReturned()
+            throws InvalidRefreshTokenException {
+        final var refreshTokenService = refreshTokenService();
+        final var token = issue(refreshTokenService);
+        final var userDetails = new UserDetailsImpl(1L, "jos@example.com", "{noop}password", Role.READER);
+        Mockito.when(refreshTokenRepository.revoke(ArgumentMatchers.any())).thenReturn(1);
+        Mockito.when(userRepository.findUserDetailsById(1L)).thenReturn(Optional.of(userDetails));
+
+        Assertions.assertSame(userDetails, refreshTokenService.consume(token));
+
+        Mockito.verify(refreshTokenRepository).revoke(ArgumentMatchers.any());
+        Mockito.verify(refreshTokenRepository, Mockito.never()).revokeAllForUser(ArgumentMatchers.any());
+    }
+
+    @Test
+    public void givenRevokedToken_whenConsumeIsCalled_thenAllTokensOfUserAreRevoked() {
+        final var refreshTokenService = refreshTokenService();
+        final var refreshToken = Mockito.mock(RefreshToken.class);
+        Mockito.when(refreshToken.getExpiresAt()).thenReturn(Instant.now().plusSeconds(60L));
+        Mockito.when(refreshToken.isRevoked()).thenReturn(true);
+        Mockito.when(refreshToken.getUserId()).thenReturn(1L);
+        Mockito.when(refreshTokenRepository.findByTokenHash(ArgumentMatchers.any()))
+                .thenReturn(Optional.of(refreshToken));
+
+        Assertions.assertThrows(InvalidRefreshTokenException.class, () -> refreshTokenService.consume("stolen"));
+
+        Mockito.verify(refreshTokenRepository).revokeAllForUser(1L);
+        Mockito.verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    public void givenTokenConsumedConcurrently_whenConsumeIsCalled_thenAllTokensOfUserAreRevoked() {
+        final var refreshTokenService = refreshTokenService();
+        final var token = issue(refreshTokenService);
+        // Een ander request heeft het token net ingetrokken
+        Mockito.when(refreshTokenRepository.revoke(ArgumentMatchers.any())).thenReturn(0);
+
+        Assertions.assertThrows(InvalidRefreshTokenException.class, () -> refreshTokenService.consume(token));
+
+        Mockito.verify(refreshTokenRepository).revokeAllForUser(1L);
+    }
+
+    @Test
+    public void givenExpiredToken_whenConsumeIsCalled_thenInvalidRefreshTokenExceptionIsThrown() {
+        final var refreshTokenService = refreshTokenService();
+        Mockito.when(refreshTokenRepository.findByTokenHash(ArgumentMatchers.any()))
+                .thenReturn(Optional.of(new RefreshToken("hash", 1L, Instant.now().minusSeconds(1L))));
+
+        Assertions.assertThrows(InvalidRefreshTokenException.class, () -> refreshTokenService.consume("expired"));
+
+        Mockito.verify(refreshTokenRepository, Mockito.never()).revoke(ArgumentMatchers.any());
+        Mockito.verify(refreshTokenRepository, Mockito.never()).revokeAllForUser(ArgumentMatchers.any());
+    }
+
+    @Test
+    public void givenUnknownToken_whenConsumeIsCalled_thenInvalidRefreshTokenExceptionIsThrown() {
+        final var refreshTokenService = refreshTokenService();
+        Mockito.when(refreshTokenRepository.findByTokenHash(ArgumentMatchers.any())).thenReturn(Optional.empty());
+
+        Assertions.assertThrows(InvalidRefreshTokenException.class, () -> refreshTokenService.consume("unknown"));
+    }
+
+    @Test
+    public void givenIssuedToken_whenRevokeIsCalled_thenTokenIsRevoked() {
+        final var refreshTokenService = refreshTokenService();
+        final var token = issue(refreshTokenService);
+
+        refreshTokenService.revoke(token);
+
+        Mockito.verify(refreshTokenRepository).revoke(ArgumentMatchers.any());
+    }
+
+    @Test
+    public void givenUnknownToken_whenRevokeIsCalled_thenNothingIsRevoked() {
+        final var refreshTokenService = refreshTokenService();
+        Mockito.when(refreshTokenRepository.findByTokenHash(ArgumentMatchers.any())).thenReturn(Optional.empty());
+
+        refreshTokenService.revoke("unknown");
+
+        Mockito.verify(refreshTokenRepository, Mockito.never()).revoke(ArgumentMatchers.any());
+    }
+}
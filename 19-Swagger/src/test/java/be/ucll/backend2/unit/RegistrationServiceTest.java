@@ -0,0 +1,160 @@
+package be.ucll.backend2.unit;
+
+import be.ucll.backend2.config.RegistrationProperties;
+import be.ucll.backend2.controller.dto.RegistrationStatus;
+import be.ucll.backend2.controller.dto.UserDto;
+import be.ucll.backend2.exception.EmailAddressNotUniqueException;
+import be.ucll.backend2.exception.HashingCapacityExceededException;
+import be.ucll.backend2.model.User;
+import be.ucll.backend2.repository.UserRepository;
+import be.ucll.backend2.service.RegistrationService;
+import be.ucll.backend2.service.UserService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+@ExtendWith(MockitoExtension.class)
+public class RegistrationServiceTest {
+    @Mock
+    private UserService userService;
+
+    @Mock
+    private UserRepository userRepository;
+
+    private RegistrationService registrationService;
+
+    // Houdt de enige worker thread bezig tot de test hem vrijgeeft
+    private final CountDownLatch started = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @BeforeEach
+    public void setUp() {
+        // 1 thread, plaats voor 1 registratie in de queue
+        registrationService = new RegistrationService(
+                userService,
+                userRepository,
+                new RegistrationProperties(true, 1, 1, Duration.ofMinutes(10L), 100L, Duration.ofSeconds(3L)));
+    }
+
+    @AfterEach
+    public void shutdown() {
+        release.countDown();
+        registrationService.destroy();
+    }
+
+    private static User user(long id, String emailAddress) {
+        final var user = new User(emailAddress, "{noop}password");
+        user.setId(id);
+        return user;
+    }
+
+    private void givenRegistrationBlocksUntilReleased(long userId) throws Exception {
+        Mockito.when(userService.registerUser(ArgumentMatchers.any())).thenAnswer(invocation -> {
+            started.countDown();
+            Assertions.assertTrue(release.await(5, TimeUnit.SECONDS));
+            return user(userId, invocation.<UserDto>getArgument(0).emailAddress());
+        });
+    }
+
+    private RegistrationStatus awaitState(UUID id, RegistrationStatus.State state) throws InterruptedException {
+        final var deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (System.nanoTime() < deadline) {
+            final var status = registrationService.getStatus(id).orElseThrow();
+            if (status.state() == state) {
+                return status;
+            }
+            Thread.sleep(10L);
+        }
+        return Assertions.fail("Registration " + id + " never reached " + state);
+    }
+
+    @Test
+    public void givenNewEmailAddress_whenSubmitIsCalled_thenStatusGoesFromPendingToCompleted() throws Exception {
+        givenRegistrationBlocksUntilReleased(5L);
+
+        final var status = registrationService.submit(new UserDto("jos@example.com", "password"));
+
+        Assertions.assertEquals(RegistrationStatus.State.PENDING, status.state());
+        Assertions.assertEquals(status, registrationService.getStatus(status.id()).orElseThrow());
+
+        release.countDown();
+
+        final var completed = awaitState(status.id(), RegistrationStatus.State.COMPLETED);
+        Assertions.assertEquals(5L, completed.userId());
+        Assertions.assertNull(completed.message());
+    }
+
+    @Test
+    public void givenEmailAddressTakenMeanwhile_whenRegistrationRuns_thenStatusIsFailed() throws Exception {
+        Mockito.when(userService.registerUser(ArgumentMatchers.any()))
+                .thenThrow(new EmailAddressNotUniqueException("jos@example.com"));
+
+        final var status = registrationService.submit(new UserDto("jos@example.com", "password"));
+
+        final var failed = awaitState(status.id(), RegistrationStatus.State.FAILED);
+        Assertions.assertEquals(
+                "A user with the e-mail address jos@example.com is already registered.", failed.message());
+        Assertions.assertNull(failed.userId());
+    }
+
+    @Test
+    public void givenUnexpectedError_whenRegistrationRuns_thenStatusIsFailedWithoutDetails() throws Exception {
+        Mockito.when(userService.registerUser(ArgumentMatchers.any())).thenThrow(new IllegalStateException("boom"));
+
+        final var status = registrationService.submit(new UserDto("jos@example.com", "password"));
+
+        Assertions.assertEquals("Registration failed",
+                awaitState(status.id(), RegistrationStatus.State.FAILED).message());
+    }
+
+    @Test
+    public void givenPendingRegistration_whenSameEmailAddressIsSubmitted_thenEmailAddressNotUniqueExceptionIsThrown()
+            throws Exception {
+        givenRegistrationBlocksUntilReleased(5L);
+        final var status = registrationService.submit(new UserDto("jos@example.com", "password"));
+
+        Assertions.assertThrows(EmailAddressNotUniqueException.class,
+                () -> registrationService.submit(new UserDto("JOS@example.com", "password")));
+
+        // Na afloop is het e-mailadres niet langer gereserveerd
+        release.countDown();
+        awaitState(status.id(), RegistrationStatus.State.COMPLETED);
+        Mockito.when(userRepository.existsByEmailAddress("jos@example.com")).thenReturn(true);
+        Assertions.assertThrows(EmailAddressNotUniqueException.class,
+                () -> registrationService.submit(new UserDto("jos@example.com", "password")));
+    }
+
+    @Test
+    public void givenExistingUser_whenSubmitIsCalled_thenEmailAddressNotUniqueExceptionIsThrown() throws Exception {
+        Mockito.when(userRepository.existsByEmailAddress("jos@example.com")).thenReturn(true);
+
+        Assertions.assertThrows(EmailAddressNotUniqueException.class,
+                () -> registrationService.submit(new UserDto("jos@example.com", "password")));
+        Mockito.verify(userService, Mockito.never()).registerUser(ArgumentMatchers.any());
+    }
+
+    @Test
+    public void givenThreadAndQueueAreFull_whenSubmitIsCalled_thenHashingCapacityExceededExceptionIsThrown()
+            throws Exception {
+        givenRegistrationBlocksUntilReleased(5L);
+        registrationService.submit(new UserDto("jos@example.com", "password"));
+        // Pas als de worker bezig is, zit de volgende registratie echt in de queue
+        Assertions.assertTrue(started.await(5, TimeUnit.SECONDS));
+        registrationService.submit(new UserDto("jef@example.com", "password"));
+
+        final var exception = Assertions.assertThrows(HashingCapacityExceededException.class,
+                () -> registrationService.submit(new UserDto("mie@example.com", "password")));
+        Assertions.assertEquals(Duration.ofSeconds(3L), exception.getRetryAfter());
+    }
+}
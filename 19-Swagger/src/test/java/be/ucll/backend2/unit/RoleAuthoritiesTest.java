@@ -0,0 +1,58 @@
+package be.ucll.backend2.unit;
+
+import be.ucll.backend2.model.Role;
+import be.ucll.backend2.model.RoleAuthorities;
+import be.ucll.backend2.model.UserDetailsImpl;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.List;
+
+public class RoleAuthoritiesTest {
+    private static List<String> names(List<GrantedAuthority> authorities) {
+        return authorities.stream().map(GrantedAuthority::getAuthority).toList();
+    }
+
+    @Test
+    public void givenEditor_whenAuthoritiesAreRequested_thenIncludedRolesAreGranted() {
+        final var authorities = RoleAuthorities.of(Role.EDITOR);
+
+        Assertions.assertEquals(List.of("ROLE_READER", "ROLE_EDITOR"), names(authorities));
+        Assertions.assertTrue(authorities.hasRole("READER"));
+        Assertions.assertTrue(authorities.hasRole("ROLE_EDITOR"));
+    }
+
+    @Test
+    public void givenReader_whenAuthoritiesAreRequested_thenOnlyReaderIsGranted() {
+        final var authorities = RoleAuthorities.of(Role.READER);
+
+        Assertions.assertEquals(List.of("ROLE_READER"), names(authorities));
+        Assertions.assertFalse(authorities.hasRole("EDITOR"));
+        Assertions.assertFalse(authorities.hasRole("UNKNOWN"));
+    }
+
+    @Test
+    public void givenUserDetails_whenGetAuthoritiesIsCalled_thenSameInstanceIsReturnedEveryTime() {
+        final var userDetails = new UserDetailsImpl(1L, "jos@example.com", "{noop}password", Role.EDITOR);
+
+        Assertions.assertSame(userDetails.getAuthorities(), userDetails.getAuthorities());
+        Assertions.assertSame(RoleAuthorities.of(Role.EDITOR), userDetails.getAuthorities());
+    }
+
+    @Test
+    public void givenOtherAuthorities_whenConverted_thenHierarchyIsApplied() {
+        final var authorities = RoleAuthorities.of(List.of(
+                new SimpleGrantedAuthority("ROLE_EDITOR"),
+                new SimpleGrantedAuthority("SCOPE_profile")));
+
+        Assertions.assertSame(RoleAuthorities.of(Role.EDITOR), authorities);
+    }
+
+    @Test
+    public void givenMaskWithUnknownBits_whenConverted_thenUnknownBitsAreIgnored() {
+        Assertions.assertSame(RoleAuthorities.of(Role.READER), RoleAuthorities.of(1L | 1L << 40));
+        Assertions.assertEquals(3L, RoleAuthorities.of(2L).roles());
+    }
+}
@@ -0,0 +1,62 @@
+package be.ucll.backend2.unit;
+
+import be.ucll.backend2.config.RoleClaimJwtAuthenticationConverter;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+public class RoleClaimJwtAuthenticationConverterTest {
+    private final RoleClaimJwtAuthenticationConverter converter = new RoleClaimJwtAuthenticationConverter();
+
+    private static Jwt jwt(Map<String, Object> claims) {
+        final var now = Instant.now();
+        return Jwt.withTokenValue("token")
+                .header("alg", "HS256")
+                .issuedAt(now)
+                .expiresAt(now.plusSeconds(1800L))
+                .subject("1")
+                .claims(c -> c.putAll(claims))
+                .build();
+    }
+
+    private static List<String> names(Collection<? extends GrantedAuthority> authorities) {
+        return authorities.stream().map(GrantedAuthority::getAuthority).toList();
+    }
+
+    @Test
+    public void givenRoles_whenEncodeIsCalled_thenEachRoleIsOneBit() {
+        Assertions.assertEquals(1L, RoleClaimJwtAuthenticationConverter.encode(List.of("ROLE_READER")));
+        Assertions.assertEquals(3L, RoleClaimJwtAuthenticationConverter.encode(List.of("ROLE_EDITOR", "ROLE_READER")));
+    }
+
+    @Test
+    public void givenRoleClaim_whenConvertIsCalled_thenSharedAuthoritiesAreUsed() {
+        final var first = converter.convert(jwt(Map.of("rol", 3L)));
+        final var second = converter.convert(jwt(Map.of("rol", 3L)));
+
+        Assertions.assertEquals(List.of("ROLE_READER", "ROLE_EDITOR"), names(first.getAuthorities()));
+        Assertions.assertEquals("1", first.getName());
+        Assertions.assertTrue(first.isAuthenticated());
+        Assertions.assertSame(first.getAuthorities(), second.getAuthorities());
+    }
+
+    @Test
+    public void givenUnknownRoleBits_whenConvertIsCalled_thenUnknownBitsAreIgnored() {
+        final var authentication = converter.convert(jwt(Map.of("rol", 1L | 1L << 40)));
+
+        Assertions.assertEquals(List.of("ROLE_READER"), names(authentication.getAuthorities()));
+    }
+
+    @Test
+    public void givenOnlyScopeClaim_whenConvertIsCalled_thenScopeIsUsedWithoutPrefix() {
+        final var authentication = converter.convert(jwt(Map.of("scope", "ROLE_READER ROLE_EDITOR")));
+
+        Assertions.assertEquals(List.of("ROLE_READER", "ROLE_EDITOR"), names(authentication.getAuthorities()));
+    }
+}
@@ -0,0 +1,68 @@
+package be.ucll.backend2.unit;
+
+import be.ucll.backend2.config.RoleMethodSecurityExpressionHandler;
+import be.ucll.backend2.config.SecurityConfig;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.util.SimpleMethodInvocation;
+
+public class RoleMethodSecurityExpressionHandlerTest {
+    private final RoleMethodSecurityExpressionHandler expressionHandler = new RoleMethodSecurityExpressionHandler();
+
+    public static class Controller {
+        public void getUser(long id) {
+        }
+    }
+
+    public RoleMethodSecurityExpressionHandlerTest() {
+        expressionHandler.setRoleHierarchy(SecurityConfig.roleHierarchy());
+    }
+
+    private boolean evaluate(String expression, String... authorities) throws NoSuchMethodException {
+        final Authentication authentication = new TestingAuthenticationToken("jos@example.com", null, authorities);
+        final var invocation = new SimpleMethodInvocation(
+                new Controller(), Controller.class.getMethod("getUser", long.class), 1L);
+        final var context = expressionHandler.createEvaluationContext(() -> authentication, invocation);
+        return Boolean.TRUE.equals(
+                expressionHandler.getExpressionParser().parseExpression(expression).getValue(context, Boolean.class));
+    }
+
+    @Test
+    public void givenEditor_whenHasRoleIsEvaluated_thenIncludedRolesAreGranted() throws NoSuchMethodException {
+        Assertions.assertTrue(evaluate("hasRole('EDITOR')", "ROLE_EDITOR"));
+        Assertions.assertTrue(evaluate("hasRole('READER')", "ROLE_EDITOR"));
+        Assertions.assertTrue(evaluate("hasRole('ROLE_READER')", "ROLE_EDITOR"));
+        Assertions.assertTrue(evaluate("hasAuthority('ROLE_READER')", "ROLE_EDITOR"));
+    }
+
+    @Test
+    public void givenReader_whenHasRoleIsEvaluated_thenEditorIsDenied() throws NoSuchMethodException {
+        Assertions.assertFalse(evaluate("hasRole('EDITOR')", "ROLE_READER"));
+        Assertions.assertFalse(evaluate("hasAnyRole('EDITOR')", "ROLE_READER"));
+        Assertions.assertTrue(evaluate("hasAnyRole('EDITOR', 'READER')", "ROLE_READER"));
+    }
+
+    @Test
+    public void givenRoleOutsideRoleEnum_whenHasRoleIsEvaluated_thenDefaultRootDecides() throws NoSuchMethodException {
+        Assertions.assertTrue(evaluate("hasRole('AUDITOR')", "ROLE_AUDITOR"));
+        Assertions.assertTrue(evaluate("hasAnyRole('EDITOR', 'AUDITOR')", "ROLE_AUDITOR"));
+        Assertions.assertTrue(evaluate("hasAuthority('ROLE_AUDITOR')", "ROLE_AUDITOR"));
+        Assertions.assertFalse(evaluate("hasRole('AUDITOR')", "ROLE_EDITOR"));
+    }
+
+    @Test
+    public void givenAuthorityThatIsNoRole_whenHasAuthorityIsEvaluated_thenDefaultRootDecides()
+            throws NoSuchMethodException {
+        Assertions.assertTrue(evaluate("hasAuthority('SCOPE_profile')", "SCOPE_profile", "ROLE_READER"));
+        Assertions.assertTrue(evaluate("hasAnyAuthority('ROLE_EDITOR', 'SCOPE_profile')", "SCOPE_profile"));
+        Assertions.assertFalse(evaluate("hasAuthority('SCOPE_profile')", "ROLE_EDITOR"));
+    }
+
+    @Test
+    public void givenOtherExpressions_whenEvaluated_thenTheyStillWork() throws NoSuchMethodException {
+        Assertions.assertTrue(evaluate("principal == 'jos@example.com'", "ROLE_READER"));
+        Assertions.assertTrue(evaluate("#id == 1 and isAuthenticated()", "ROLE_READER"));
+    }
+}
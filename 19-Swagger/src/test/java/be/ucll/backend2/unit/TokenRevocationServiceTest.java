@@ -0,0 +1,73 @@
+package be.ucll.backend2.unit;
+
+import be.ucll.backend2.config.TokenRevocationProperties;
+import be.ucll.backend2.model.RevokedToken;
+import be.ucll.backend2.repository.RevokedTokenRepository;
+import be.ucll.backend2.service.TokenRevocationService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.oauth2.jwt.Jwt;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+
+@ExtendWith(MockitoExtension.class)
+public class TokenRevocationServiceTest {
+    @Mock
+    private RevokedTokenRepository revokedTokenRepository;
+
+    private TokenRevocationService tokenRevocationService() {
+        return new TokenRevocationService(
+                revokedTokenRepository,
+                new TokenRevocationProperties(1000, 0.01, Duration.ofSeconds(5L), Duration.ofMinutes(10L)),
+                new SimpleMeterRegistry());
+    }
+
+    private static Jwt jwt(String jti) {
+        final var claims = jti == null
+                ? Map.<String, Object>of("sub", "1")
+                : Map.<String, Object>of("sub", "1", "jti", jti);
+        return new Jwt("token", Instant.now(), Instant.now().plusSeconds(60L), Map.of("alg", "HS256"), claims);
+    }
+
+    @Test
+    public void givenTokenIsNotRevoked_whenValidateIsCalled_thenDatabaseIsNotQueried() {
+        final var tokenRevocationService = tokenRevocationService();
+
+        Assertions.assertFalse(tokenRevocationService.validate(jwt("jti-1")).hasErrors());
+
+        Mockito.verify(revokedTokenRepository, Mockito.never()).existsById(ArgumentMatchers.any());
+    }
+
+    @Test
+    public void givenTokenIsRevoked_whenValidateIsCalled_thenValidationFails() {
+        final var tokenRevocationService = tokenRevocationService();
+        Mockito.when(revokedTokenRepository.existsById("jti-1")).thenReturn(true);
+
+        tokenRevocationService.revoke("jti-1", Instant.now().plusSeconds(60L));
+
+        Assertions.assertTrue(tokenRevocationService.validate(jwt("jti-1")).hasErrors());
+        Mockito.verify(revokedTokenRepository).save(ArgumentMatchers.any(RevokedToken.class));
+    }
+
+    @Test
+    public void givenExpiredToken_whenRevokeIsCalled_thenNothingIsStored() {
+        final var tokenRevocationService = tokenRevocationService();
+
+        tokenRevocationService.revoke("jti-1", Instant.now().minusSeconds(1L));
+
+        Mockito.verifyNoInteractions(revokedTokenRepository);
+    }
+
+    @Test
+    public void givenTokenWithoutJti_whenValidateIsCalled_thenValidationSucceeds() {
+        Assertions.assertFalse(tokenRevocationService().validate(jwt(null)).hasErrors());
+    }
+}
@@ -0,0 +1,178 @@
+package be.ucll.backend2.unit;
+
+import be.ucll.backend2.config.UserCacheProperties;
+import be.ucll.backend2.controller.dto.UserDto;
+import be.ucll.backend2.model.Role;
+import be.ucll.backend2.model.User;
+import be.ucll.backend2.model.UserDetailsImpl;
+import be.ucll.backend2.repository.UserRepository;
+import be.ucll.backend2.service.PasswordHashingExecutor;
+import be.ucll.backend2.service.RefreshTokenService;
+import be.ucll.backend2.service.UserDetailsCache;
+import be.ucll.backend2.service.UserDetailsServiceImpl;
+import be.ucll.backend2.service.UserService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+@ExtendWith(MockitoExtension.class)
+public class UserDetailsCacheTest {
+    private static final Duration NEGATIVE_TIME_TO_LIVE = Duration.ofMillis(100L);
+
+    // Echte cache: bekende gebruikers 1 minuut, onbekende e-mailadressen maar 100 ms
+    private final UserDetailsCache userDetailsCache = new UserDetailsCache(
+            new UserCacheProperties(100L, Duration.ofMinutes(1L), NEGATIVE_TIME_TO_LIVE),
+            new SimpleMeterRegistry());
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private PasswordEncoder passwordEncoder;
+
+    @Mock
+    private PasswordHashingExecutor passwordHashingExecutor;
+
+    @Mock
+    private RefreshTokenService refreshTokenService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private UserDetailsServiceImpl userDetailsService;
+
+    private UserService userService;
+
+    @BeforeEach
+    public void setUp() {
+        userDetailsService = new UserDetailsServiceImpl(userRepository, userDetailsCache);
+        userService = new UserService(
+                passwordEncoder,
+                userRepository,
+                userDetailsCache,
+                passwordHashingExecutor,
+                refreshTokenService,
+                transactionManager);
+    }
+
+    private static UserDetailsImpl userDetails(String emailAddress, String hashedPassword) {
+        return new UserDetailsImpl(1L, emailAddress, hashedPassword, Role.READER);
+    }
+
+    private void givenPasswordsAreHashed() throws Exception {
+        Mockito.when(passwordHashingExecutor.execute(ArgumentMatchers.any()))
+                .thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(0).get());
+        Mockito.when(passwordEncoder.encode(ArgumentMatchers.anyString()))
+                .thenAnswer(invocation -> "{noop}" + invocation.getArgument(0));
+    }
+
+    @Test
+    public void givenUnknownEmailAddress_whenNegativeTimeToLivePasses_thenItIsLookedUpAgain()
+            throws InterruptedException {
+        final var lookups = new AtomicInteger();
+
+        for (var i = 0; i < 3; i++) {
+            Assertions.assertTrue(userDetailsCache.get("jos@example.com", emailAddress -> {
+                lookups.incrementAndGet();
+                return Optional.empty();
+            }).isEmpty());
+        }
+        Assertions.assertEquals(1, lookups.get());
+
+        Thread.sleep(NEGATIVE_TIME_TO_LIVE.multipliedBy(3L).toMillis());
+
+        userDetailsCache.get("jos@example.com", emailAddress -> {
+            lookups.incrementAndGet();
+            return Optional.empty();
+        });
+        Assertions.assertEquals(2, lookups.get());
+    }
+
+    @Test
+    public void givenKnownUser_whenNegativeTimeToLivePasses_thenItIsStillCached() throws InterruptedException {
+        final var lookups = new AtomicInteger();
+        userDetailsCache.get("jos@example.com", emailAddress -> {
+            lookups.incrementAndGet();
+            return Optional.of(userDetails(emailAddress, "{noop}password"));
+        });
+
+        Thread.sleep(NEGATIVE_TIME_TO_LIVE.multipliedBy(3L).toMillis());
+
+        // Andere hoofdletters, zelfde entry
+        final var cached = userDetailsCache.get("JOS@example.com", emailAddress -> {
+            lookups.incrementAndGet();
+            return Optional.empty();
+        });
+        Assertions.assertEquals(1, lookups.get());
+        Assertions.assertEquals("{noop}password", cached.orElseThrow().hashedPassword());
+    }
+
+    @Test
+    public void givenUnknownEmailAddressIsCached_whenUserRegisters_thenNewUserCanLogInImmediately() throws Exception {
+        givenPasswordsAreHashed();
+        Mockito.when(userRepository.findUserDetailsByEmailAddress("jos@example.com"))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(userDetails("jos@example.com", "{noop}password")));
+        Mockito.when(userRepository.save(ArgumentMatchers.any(User.class)))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+        Assertions.assertThrows(UsernameNotFoundException.class,
+                () -> userDetailsService.loadUserByUsername("jos@example.com"));
+
+        userService.registerUser(new UserDto("Jos@example.com", "password"));
+
+        Assertions.assertEquals("jos@example.com",
+                userDetailsService.loadUserByUsername("jos@example.com").getUsername());
+    }
+
+    @Test
+    public void givenUserIsCached_whenUserIsUpdated_thenOldAndNewEmailAddressAreReloaded() throws Exception {
+        givenPasswordsAreHashed();
+        final var user = new User("jos@example.com", "{noop}old");
+        user.setId(1L);
+        Mockito.when(userRepository.findUserDetailsByEmailAddress("jos@example.com"))
+                .thenReturn(Optional.of(userDetails("jos@example.com", "{noop}old")))
+                .thenReturn(Optional.empty());
+        Mockito.when(userRepository.findUserDetailsByEmailAddress("jef@example.com"))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(userDetails("jef@example.com", "{noop}new")));
+        Mockito.when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        Mockito.when(userRepository.saveAndFlush(user)).thenReturn(user);
+        userDetailsService.loadUserByUsername("jos@example.com");
+        Assertions.assertThrows(UsernameNotFoundException.class,
+                () -> userDetailsService.loadUserByUsername("jef@example.com"));
+
+        userService.updateUser(1L, new UserDto("jef@example.com", "new"));
+
+        Assertions.assertThrows(UsernameNotFoundException.class,
+                () -> userDetailsService.loadUserByUsername("jos@example.com"));
+        Assertions.assertEquals("{noop}new", userDetailsService.loadUserByUsername("jef@example.com").getPassword());
+    }
+
+    @Test
+    public void givenUserIsCached_whenPasswordIsUpgraded_thenNewHashIsLoaded() {
+        final var oldUserDetails = userDetails("jos@example.com", "{bcrypt}old");
+        Mockito.when(userRepository.findUserDetailsByEmailAddress("jos@example.com"))
+                .thenReturn(Optional.of(oldUserDetails))
+                .thenReturn(Optional.of(userDetails("jos@example.com", "{argon2}new")));
+        userDetailsService.loadUserByUsername("jos@example.com");
+
+        userDetailsService.updatePassword(oldUserDetails, "{argon2}new");
+
+        Mockito.verify(userRepository).updateHashedPassword(1L, "{argon2}new");
+        Assertions.assertEquals("{argon2}new", userDetailsService.loadUserByUsername("jos@example.com").getPassword());
+    }
+}
@@ -0,0 +1,210 @@
+package be.ucll.backend2.unit;
+
+import be.ucll.backend2.service.UserDetailsCache;
+import be.ucll.backend2.service.UserImportService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+@ExtendWith(MockitoExtension.class)
+public class UserImportServiceTest {
+    @Mock
+    private PasswordEncoder passwordEncoder;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private UserDetailsCache userDetailsCache;
+
+    private UserImportService userImportService;
+
+    @BeforeEach
+    public void setUp() {
+        userImportService = new UserImportService(
+                passwordEncoder,
+                jdbcTemplate,
+                namedParameterJdbcTemplate,
+                transactionManager,
+                new ObjectMapper(),
+                Validation.buildDefaultValidatorFactory().getValidator(),
+                new StaticListableBeanFactory(Map.of("userDetailsCache", userDetailsCache))
+                        .getBeanProvider(UserDetailsCache.class));
+    }
+
+    private void givenExistingEmailAddresses(String... emailAddresses) {
+        Mockito.when(namedParameterJdbcTemplate.queryForList(
+                        ArgumentMatchers.anyString(),
+                        ArgumentMatchers.<Map<String, ?>>any(),
+                        ArgumentMatchers.eq(String.class)))
+                .thenReturn(List.of(emailAddresses));
+    }
+
+    private void givenPasswordsAreHashed() {
+        Mockito.when(passwordEncoder.encode(ArgumentMatchers.anyString()))
+                .thenAnswer(invocation -> "{noop}" + invocation.getArgument(0));
+    }
+
+    private UserImportService.Result importUsers(String content, UserImportService.Format format, int batchSize)
+            throws IOException {
+        return userImportService.importUsers(new BufferedReader(new StringReader(content)), format, batchSize, 2);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<List<Object[]>> insertedBatches(int times) {
+        final var captor = ArgumentCaptor.forClass(List.class);
+        Mockito.verify(jdbcTemplate, Mockito.times(times))
+                .batchUpdate(ArgumentMatchers.anyString(), (List<Object[]>) captor.capture());
+        return (List<List<Object[]>>) (List<?>) captor.getAllValues();
+    }
+
+    private static List<String> emailAddresses(Collection<Object[]> rows) {
+        return rows.stream().map(row -> (String) row[0]).toList();
+    }
+
+    @Test
+    public void givenCsv_whenImportUsersIsCalled_thenValidNewUsersAreInserted() throws IOException {
+        givenExistingEmailAddresses("jos@example.com");
+        givenPasswordsAreHashed();
+
+        final var result = importUsers("""
+                emailAddress,password
+                Jef@Example.com,secret,with,commas
+
+                jos@example.com,password
+                not-an-email,password
+                no-password-column
+                jef@example.com,duplicate
+                """, UserImportService.Format.CSV, 100);
+
+        Assertions.assertEquals(new UserImportService.Result(1L, 2L, 2L), result);
+        final var rows = insertedBatches(1).getFirst();
+        Assertions.assertEquals(List.of("jef@example.com"), emailAddresses(rows));
+        // Enkel de eerste komma scheidt de kolommen
+        Assertions.assertEquals("{noop}secret,with,commas", rows.getFirst()[1]);
+        Assertions.assertEquals("READER", rows.getFirst()[2]);
+        // Enkel de nieuwe gebruiker is gehasht
+        Mockito.verify(passwordEncoder, Mockito.times(1)).encode(ArgumentMatchers.anyString());
+        Mockito.verify(userDetailsCache).invalidate("jef@example.com");
+    }
+
+    @Test
+    public void givenNdjson_whenImportUsersIsCalled_thenInvalidLinesAreSkipped() throws IOException {
+        givenExistingEmailAddresses();
+        givenPasswordsAreHashed();
+
+        final var result = importUsers("""
+                {"emailAddress": "jos@example.com", "password": "password"}
+                {"emailAddress": "jef@example.com"
+                {"emailAddress": "jef@example.com", "password": ""}
+                {"emailAddress": "mie@example.com", "password": "password"}
+                """, UserImportService.Format.NDJSON, 100);
+
+        Assertions.assertEquals(new UserImportService.Result(2L, 0L, 2L), result);
+        Assertions.assertEquals(List.of("jos@example.com", "mie@example.com"),
+                emailAddresses(insertedBatches(1).getFirst()));
+    }
+
+    @Test
+    public void givenMoreRowsThanBatchSize_whenImportUsersIsCalled_thenEachBatchIsInsertedSeparately()
+            throws IOException {
+        givenExistingEmailAddresses();
+        givenPasswordsAreHashed();
+
+        final var result = importUsers("""
+                a@example.com,password
+                b@example.com,password
+                c@example.com,password
+                """, UserImportService.Format.CSV, 2);
+
+        Assertions.assertEquals(3L, result.imported());
+        final var batches = insertedBatches(2);
+        Assertions.assertEquals(List.of("a@example.com", "b@example.com"), emailAddresses(batches.get(0)));
+        Assertions.assertEquals(List.of("c@example.com"), emailAddresses(batches.get(1)));
+    }
+
+    @Test
+    public void givenAllUsersExist_whenImportUsersIsCalled_thenNothingIsHashedOrInserted() throws IOException {
+        givenExistingEmailAddresses("jos@example.com");
+
+        final var result = importUsers("jos@example.com,password\n", UserImportService.Format.CSV, 100);
+
+        Assertions.assertEquals(new UserImportService.Result(0L, 1L, 0L), result);
+        Mockito.verifyNoInteractions(passwordEncoder, transactionManager);
+        Mockito.verify(jdbcTemplate, Mockito.never())
+                .batchUpdate(ArgumentMatchers.anyString(), ArgumentMatchers.<List<Object[]>>any());
+    }
+
+    @Test
+    public void givenConcurrentRegistration_whenBatchInsertFails_thenRowsAreInsertedOneByOne() throws IOException {
+        givenExistingEmailAddresses();
+        givenPasswordsAreHashed();
+        Mockito.when(jdbcTemplate.batchUpdate(ArgumentMatchers.anyString(), ArgumentMatchers.<List<Object[]>>any()))
+                .thenThrow(new DuplicateKeyException("uc_user_emailaddress"));
+        // jef heeft zich intussen via de API geregistreerd
+        Mockito.when(jdbcTemplate.update(ArgumentMatchers.anyString(), ArgumentMatchers.any(Object[].class)))
+                .thenAnswer(invocation -> {
+                    if ("jef@example.com".equals(invocation.getArgument(1))) {
+                        throw new DuplicateKeyException("uc_user_emailaddress");
+                    }
+                    return 1;
+                });
+
+        final var result = importUsers("""
+                jos@example.com,password
+                jef@example.com,password
+                mie@example.com,password
+                """, UserImportService.Format.CSV, 100);
+
+        Assertions.assertEquals(new UserImportService.Result(2L, 1L, 0L), result);
+        Mockito.verify(transactionManager).rollback(ArgumentMatchers.any());
+        Mockito.verify(jdbcTemplate, Mockito.times(3)).update(ArgumentMatchers.anyString(),
+                ArgumentMatchers.any(Object[].class));
+        Mockito.verify(userDetailsCache).invalidate("mie@example.com");
+    }
+
+    @Test
+    @ExtendWith(OutputCaptureExtension.class)
+    public void givenConflicts_whenImportUsersIsCalled_thenOneSummaryWithoutEmailAddressesIsLogged(
+            CapturedOutput output) throws IOException {
+        givenExistingEmailAddresses("jos@example.com", "mie@example.com");
+
+        final var result = importUsers("""
+                jos@example.com,password
+                mie@example.com,password
+                """, UserImportService.Format.CSV, 100);
+
+        Assertions.assertEquals(new UserImportService.Result(0L, 2L, 0L), result);
+        Assertions.assertTrue(output.getOut().contains("Lines 1-2: 2 e-mail addresses already registered"));
+        Assertions.assertFalse(output.getOut().contains("@example.com"));
+    }
+}
@@ -0,0 +1,106 @@
+package be.ucll.backend2.unit;
+
+import be.ucll.backend2.controller.dto.UserDto;
+import be.ucll.backend2.exception.EmailAddressNotUniqueException;
+import be.ucll.backend2.exception.HashingCapacityExceededException;
+import be.ucll.backend2.exception.UserNotFoundException;
+import be.ucll.backend2.model.User;
+import be.ucll.backend2.repository.UserRepository;
+import be.ucll.backend2.service.PasswordHashingExecutor;
+import be.ucll.backend2.service.RefreshTokenService;
+import be.ucll.backend2.service.UserDetailsCache;
+import be.ucll.backend2.service.UserService;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.Optional;
+import java.util.function.Supplier;
+
+@ExtendWith(MockitoExtension.class)
+public class UserServiceTest {
+    @Mock
+    private PasswordEncoder passwordEncoder;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private UserDetailsCache userDetailsCache;
+
+    @Mock
+    private PasswordHashingExecutor passwordHashingExecutor;
+
+    @Mock
+    private RefreshTokenService refreshTokenService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private UserService userService;
+
+    @Test
+    public void givenEmailAddressIsTaken_whenRegisterUserIsCalled_thenPasswordIsNotHashed() {
+        Mockito.when(userRepository.existsByEmailAddress("jos@example.com")).thenReturn(true);
+
+        final var exception = Assertions.assertThrows(EmailAddressNotUniqueException.class,
+                () -> userService.registerUser(new UserDto("Jos@example.com", "password")));
+
+        Assertions.assertEquals("A user with the e-mail address Jos@example.com is already registered.",
+                exception.getMessage());
+        // Geen dure hash en geen insert voor een dubbele registratie
+        Mockito.verifyNoInteractions(passwordEncoder, passwordHashingExecutor);
+        Mockito.verify(userRepository, Mockito.never()).save(Mockito.any());
+    }
+
+    @Test
+    public void givenEmailAddressIsFree_whenRegisterUserIsCalled_thenUserIsSaved()
+            throws EmailAddressNotUniqueException, HashingCapacityExceededException {
+        Mockito.when(userRepository.existsByEmailAddress("jos@example.com")).thenReturn(false);
+        Mockito.when(passwordHashingExecutor.execute(Mockito.any()))
+                .thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(0).get());
+        Mockito.when(passwordEncoder.encode("password")).thenReturn("{noop}password");
+        Mockito.when(userRepository.save(Mockito.any(User.class))).thenAnswer(invocation -> {
+            final var user = (User) invocation.getArguments()[0];
+            user.setId(1L);
+            return user;
+        });
+
+        final var user = userService.registerUser(new UserDto("jos@example.com", "password"));
+
+        Assertions.assertEquals(1L, user.getId());
+        Assertions.assertEquals("{noop}password", user.getHashedPassword());
+        Mockito.verify(userDetailsCache).invalidate("jos@example.com");
+    }
+
+    @Test
+    public void givenExistingUser_whenUpdateUserIsCalled_thenRefreshTokensAreRevoked()
+            throws UserNotFoundException, EmailAddressNotUniqueException, HashingCapacityExceededException {
+        final var existingUser = new User("jos@example.com", "{noop}old");
+        existingUser.setId(1L);
+        Mockito.when(userRepository.findById(1L)).thenReturn(Optional.of(existingUser));
+        Mockito.when(userRepository.existsByEmailAddressAndIdNot("jef@example.com", 1L)).thenReturn(false);
+        Mockito.when(passwordHashingExecutor.execute(Mockito.any()))
+                .thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(0).get());
+        Mockito.when(passwordEncoder.encode("new")).thenReturn("{noop}new");
+        Mockito.when(userRepository.saveAndFlush(existingUser)).thenReturn(existingUser);
+
+        final var user = userService.updateUser(1L, new UserDto("jef@example.com", "new"));
+
+        Assertions.assertEquals("{noop}new", user.getHashedPassword());
+        final var inOrder = Mockito.inOrder(userRepository, refreshTokenService, transactionManager);
+        inOrder.verify(transactionManager).getTransaction(Mockito.any());
+        inOrder.verify(userRepository).saveAndFlush(existingUser);
+        inOrder.verify(refreshTokenService).revokeAllForUser(1L);
+        inOrder.verify(transactionManager).commit(Mockito.any());
+        Mockito.verify(userDetailsCache).invalidate("jos@example.com");
+        Mockito.verify(userDetailsCache).invalidate("jef@example.com");
+    }
+}